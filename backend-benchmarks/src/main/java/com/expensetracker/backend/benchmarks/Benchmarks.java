@@ -0,0 +1,27 @@
+package com.expensetracker.backend.benchmarks;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+// Helpers for wiring production beans by hand, without a Spring context.
+final class Benchmarks {
+
+    // Same key as backend/src/main/resources/application.properties, so token sizes match production.
+    static final String SIGNING_KEY =
+            "Nzg5MmI0YjYtYTI3NC00ZjY1LTg5YjgtZDE2ODE3Y2I5ZDYyNzc0YjIzZGUtMDk4NC00M2I0LWI3YjYtYzljYTE5YjYwZWI5";
+
+    private Benchmarks() {
+    }
+
+    static void setField(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    static void invoke(Object target, String name) throws ReflectiveOperationException {
+        Method method = target.getClass().getDeclaredMethod(name);
+        method.setAccessible(true);
+        method.invoke(target);
+    }
+}
@@ -0,0 +1,65 @@
+package com.expensetracker.backend.benchmarks;
+
+import com.expensetracker.backend.dto.ExpenseDto;
+import com.expensetracker.backend.dto.SourceDto;
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.Source;
+import com.expensetracker.backend.model.SourceType;
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.service.DtoMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// Entity-to-DTO mapping (DtoMapper) for one expense and one source, as done per row in listings.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    private Expense expense;
+    private Source source;
+    private BigDecimal totalExpenses;
+
+    @Setup
+    public void setUp() {
+        User user = new User();
+        user.setId(1);
+        user.setEmail("bench@example.com");
+
+        source = new Source();
+        source.setId(7);
+        source.setUser(user);
+        source.setName("HDFC Savings");
+        source.setType(SourceType.BANK);
+        source.setInitialBalance(new BigDecimal("150000.00"));
+        source.setAlertThreshold(new BigDecimal("5000.00"));
+
+        expense = new Expense();
+        expense.setId(42);
+        expense.setUser(user);
+        expense.setSource(source);
+        expense.setAmount(new BigDecimal("1249.99"));
+        expense.setVendor("Amazon");
+        expense.setCategory("Shopping");
+        expense.setDescription("Headphones");
+        expense.setTransactionDate(LocalDate.of(2024, 5, 17));
+
+        totalExpenses = new BigDecimal("48231.55");
+    }
+
+    @Benchmark
+    public ExpenseDto expenseToDto() {
+        return DtoMapper.toDto(expense);
+    }
+
+    @Benchmark
+    public SourceDto sourceToDto() {
+        return DtoMapper.toDto(source, totalExpenses);
+    }
+}
@@ -0,0 +1,132 @@
+package com.expensetracker.backend.benchmarks;
+
+import com.expensetracker.backend.BackendApplication;
+import com.expensetracker.backend.dto.ExpenseDto;
+import com.expensetracker.backend.model.Source;
+import com.expensetracker.backend.model.SourceType;
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.repository.ExpenseBatchWriter;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.repository.SourceRepository;
+import com.expensetracker.backend.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// The three expense finders behind GET /api/expenses, against an in-memory H2 database seeded
+// with one user's expenses spread over ten years. Each trial forks a fresh JVM, so each
+// expenses/rangeDays combination gets its own database.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ExpenseRepositoryBenchmark {
+
+    private static final String[] CATEGORIES = {
+            "Food", "Transport", "Shopping", "Bills", "Entertainment", "Health", "Travel", "Other"
+    };
+    private static final String[] VENDORS = {
+            "Swiggy", "Zomato", "Uber", "Ola", "Amazon", "Flipkart", "BigBasket", "Netflix", "Apollo", "IRCTC"
+    };
+    private static final int SOURCES = 5;
+    private static final int HISTORY_DAYS = 3650;
+    private static final int SEED_BATCH_SIZE = 5000;
+    private static final LocalDate END_DATE = LocalDate.of(2025, 1, 1);
+
+    @Param({"1000", "100000", "1000000"})
+    public int expenses;
+
+    // Width of the queried window; 30 is the dashboard's default month view.
+    @Param({"30", "365"})
+    public int rangeDays;
+
+    private ConfigurableApplicationContext context;
+    private ExpenseRepository expenseRepository;
+    private Integer userId;
+    private List<Integer> sourceIds;
+    private LocalDate startDate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Command-line arguments outrank application.properties, so these replace the MySQL datasource.
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        expenseRepository = context.getBean(ExpenseRepository.class);
+        startDate = END_DATE.minusDays(rangeDays - 1);
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ExpenseDto> byDateRange() {
+        return expenseRepository.findByUserIdAndTransactionDateBetween(userId, startDate, END_DATE);
+    }
+
+    @Benchmark
+    public List<ExpenseDto> byCategoryAndDateRange() {
+        return expenseRepository.findByUserIdAndCategoryAndTransactionDateBetween(userId, "Food", startDate, END_DATE);
+    }
+
+    @Benchmark
+    public List<ExpenseDto> bySourcesAndDateRange() {
+        return expenseRepository.findByUserIdAndSourceIdInAndTransactionDateBetween(
+                userId, sourceIds.subList(0, 2), startDate, END_DATE);
+    }
+
+    private void seed() {
+        User user = new User();
+        user.setEmail("bench@example.com");
+        user.setPassword("not-a-real-hash");
+        userId = context.getBean(UserRepository.class).save(user).getId();
+
+        SourceRepository sourceRepository = context.getBean(SourceRepository.class);
+        sourceIds = new ArrayList<>();
+        for (int i = 0; i < SOURCES; i++) {
+            Source source = new Source();
+            source.setUser(user);
+            source.setName("Source " + i);
+            source.setType(SourceType.values()[i % SourceType.values().length]);
+            sourceIds.add(sourceRepository.save(source).getId());
+        }
+
+        ExpenseBatchWriter writer = context.getBean(ExpenseBatchWriter.class);
+        TransactionTemplate tx = context.getBean(TransactionTemplate.class);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int written = 0; written < expenses; written += SEED_BATCH_SIZE) {
+            int size = Math.min(SEED_BATCH_SIZE, expenses - written);
+            Integer sourceId = sourceIds.get((written / SEED_BATCH_SIZE) % SOURCES);
+            List<ExpenseBatchWriter.Row> rows = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                rows.add(new ExpenseBatchWriter.Row(
+                        random.nextLong(100, 500000),
+                        VENDORS[random.nextInt(VENDORS.length)],
+                        CATEGORIES[random.nextInt(CATEGORIES.length)],
+                        null,
+                        END_DATE.minusDays(random.nextInt(HISTORY_DAYS))));
+            }
+            tx.executeWithoutResult(status -> writer.insert(userId, sourceId, rows));
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.expensetracker.backend.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Closed-loop load generator for comparing request execution modes against a running backend.
+// Start the backend once normally (platform-thread pool) and once with
+// --spring.profiles.active=virtual-threads, run this against each, and compare the two lines:
+//
+//   mvn -pl backend-benchmarks exec:java \
+//       -Dexec.mainClass=com.expensetracker.backend.benchmarks.LoadProfile \
+//       -Dexec.args="http://localhost:8080 platform 400 60"
+//
+// Arguments: base URL, label, concurrent clients (default 400), measured seconds (default 60).
+// The mix is 60% GET /api/expenses, 30% GET /api/sources and 10% POST /api/auth/login, i.e.
+// mostly requests that spend their time blocked on the database. The first 10 seconds are
+// warm-up and are not recorded.
+public class LoadProfile {
+
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+    private static final int SEED_EXPENSES = 200;
+    private static final String PASSWORD = "load-profile-password";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String baseUrl;
+    private String email;
+    private String token;
+
+    private LoadProfile(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        String label = args.length > 1 ? args[1] : "run";
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 400;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 60;
+
+        LoadProfile profile = new LoadProfile(baseUrl);
+        profile.seed();
+        Result result = profile.run(clients, Duration.ofSeconds(seconds));
+        System.out.println(result.format(label, clients, seconds));
+    }
+
+    private void seed() throws IOException, InterruptedException {
+        email = "load-" + UUID.randomUUID() + "@example.com";
+        send(post("/api/auth/signup", Map.of("email", email, "password", PASSWORD), null));
+        token = login();
+
+        JsonNode source = send(post("/api/sources", Map.of("name", "Load profile", "type", "BANK"), token));
+        int sourceId = source.get("id").asInt();
+        String[] categories = {"Food", "Transport", "Shopping", "Bills"};
+        for (int i = 0; i < SEED_EXPENSES; i++) {
+            send(post("/api/expenses", Map.of(
+                    "sourceId", sourceId,
+                    "amount", 10 + i,
+                    "vendor", "Vendor " + (i % 20),
+                    "category", categories[i % categories.length],
+                    "transactionDate", LocalDate.now().minusDays(i % 90).toString()), token));
+        }
+    }
+
+    private Result run(int clients, Duration measured) throws Exception {
+        long start = System.nanoTime();
+        long recordFrom = start + WARMUP.toNanos();
+        long stopAt = recordFrom + measured.toNanos();
+
+        List<Future<Worker>> futures = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> new Worker().run(recordFrom, stopAt)));
+            }
+        }
+
+        Result result = new Result();
+        for (Future<Worker> future : futures) {
+            result.add(future.get());
+        }
+        return result;
+    }
+
+    private HttpRequest nextRequest() throws IOException {
+        int pick = ThreadLocalRandom.current().nextInt(100);
+        if (pick < 60) {
+            return get("/api/expenses?dateRange=90");
+        }
+        if (pick < 90) {
+            return get("/api/sources");
+        }
+        return post("/api/auth/login", Map.of("email", email, "password", PASSWORD), null);
+    }
+
+    private String login() throws IOException, InterruptedException {
+        return send(post("/api/auth/login", Map.of("email", email, "password", PASSWORD), null)).get("token").asText();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, Object body, String bearer) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)));
+        if (bearer != null) {
+            builder.header("Authorization", "Bearer " + bearer);
+        }
+        return builder.build();
+    }
+
+    private JsonNode send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode());
+        }
+        return mapper.readTree(response.body());
+    }
+
+    private class Worker {
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+        private int rejected;
+
+        Worker run(long recordFrom, long stopAt) throws IOException {
+            while (true) {
+                HttpRequest request = nextRequest();
+                long sent = System.nanoTime();
+                if (sent >= stopAt) {
+                    return this;
+                }
+                int status;
+                try {
+                    status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                } catch (IOException e) {
+                    status = -1;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return this;
+                }
+                if (sent < recordFrom) {
+                    continue;
+                }
+                if (status == 503) {
+                    rejected++;
+                } else if (status / 100 != 2) {
+                    errors++;
+                } else {
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - sent;
+                }
+            }
+        }
+    }
+
+    private static class Result {
+        private long[] latencies = new long[0];
+        private long errors;
+        private long rejected;
+
+        void add(Worker worker) {
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + worker.count);
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+            errors += worker.errors;
+            rejected += worker.rejected;
+        }
+
+        String format(String label, int clients, int seconds) {
+            Arrays.sort(latencies);
+            return String.format("%s clients=%d ok=%d throughput=%.1f req/s p50=%.1f ms p99=%.1f ms max=%.1f ms rejected=%d errors=%d",
+                    label, clients, latencies.length, latencies.length / (double) seconds,
+                    percentile(0.50), percentile(0.99), percentile(1.0), rejected, errors);
+        }
+
+        private double percentile(double p) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * latencies.length) - 1;
+            return latencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
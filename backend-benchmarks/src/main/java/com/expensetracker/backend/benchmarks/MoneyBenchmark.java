@@ -0,0 +1,92 @@
+package com.expensetracker.backend.benchmarks;
+
+import com.expensetracker.backend.service.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Summing and parsing amounts as BigDecimal versus as long cents (Money), the way rollup deltas,
+// import totals, analytics periods and alert balances do it. Allocation is the point, so run with
+// the GC profiler:
+//   mvn -pl backend-benchmarks -am package exec:exec -Djmh.include="MoneyBenchmark -prof gc"
+// and compare gc.alloc.rate.norm (bytes per operation) next to the time.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    private BigDecimal[] amounts;
+    private long[] cents;
+    private String[] texts;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        amounts = new BigDecimal[size];
+        cents = new long[size];
+        texts = new String[size];
+        for (int i = 0; i < size; i++) {
+            // Typical expenses: 0.01 to 5,000.00.
+            long amount = random.nextLong(1, 500_001);
+            cents[i] = amount;
+            amounts[i] = BigDecimal.valueOf(amount, 2);
+            texts[i] = amounts[i].toPlainString();
+        }
+    }
+
+    @Benchmark
+    public BigDecimal sumBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal amount : amounts) {
+            total = total.add(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long sumCents() {
+        long total = 0;
+        for (long amount : cents) {
+            total = Money.add(total, amount);
+        }
+        return total;
+    }
+
+    // Amounts arriving as BigDecimal (from JPA) and converted at the edge before summing.
+    @Benchmark
+    public long sumCentsFromBigDecimal() {
+        long total = 0;
+        for (BigDecimal amount : amounts) {
+            total = Money.add(total, Money.cents(amount));
+        }
+        return total;
+    }
+
+    // Statement import: text to amount, the way ExpenseImportService parsed it before.
+    @Benchmark
+    public BigDecimal parseBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (String text : texts) {
+            total = total.add(new BigDecimal(text.replace(",", "")).setScale(2, RoundingMode.UNNECESSARY));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long parseCents() {
+        long total = 0;
+        for (String text : texts) {
+            total = Money.add(total, Money.parse(text));
+        }
+        return total;
+    }
+}
@@ -0,0 +1,213 @@
+package com.expensetracker.backend.alert;
+
+import com.expensetracker.backend.cache.CacheInvalidationBroker;
+import com.expensetracker.backend.cache.InFlightExpenseWrites;
+import com.expensetracker.backend.dto.SourceAlertDto;
+import com.expensetracker.backend.event.ExpenseChangedEvent;
+import com.expensetracker.backend.event.ExpensesBulkChangedEvent;
+import com.expensetracker.backend.event.SourceChangedEvent;
+import com.expensetracker.backend.model.Source;
+import com.expensetracker.backend.repository.SourceRepository;
+import com.expensetracker.backend.service.BalanceService;
+import com.expensetracker.backend.service.ExpenseSnapshot;
+import com.expensetracker.backend.service.Money;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Evaluates Source.alertThreshold for users with an open GET /api/events stream. Their sources'
+// expense totals are loaded once and then moved by each committed expense write, and an alert is
+// published whenever a balance (initial balance minus expenses) crosses below its threshold or
+// back. Bulk changes, source edits, writes on another node (through the broker) and a periodic
+// resync reload the totals from the database.
+//
+// Totals are not idempotent: totals loaded while one of the user's expense writes was in flight
+// (see InFlightExpenseWrites) are kept only as a provisional view (stale) until a quiet reload, and
+// writes are applied only to non-stale totals.
+@Service
+public class AlertEngine {
+
+    // Amounts in cents (see Money), so applying a write allocates nothing.
+    private static final class SourceBalance {
+        String name;
+        long initialBalance;
+        Long alertThreshold;
+        long expenseTotal;
+        boolean below;
+
+        long balance() {
+            return Money.subtract(initialBalance, expenseTotal);
+        }
+
+        boolean isBelow() {
+            return alertThreshold != null && balance() < alertThreshold;
+        }
+    }
+
+    // Guarded by its own monitor.
+    private static final class UserBalances {
+        Map<Integer, SourceBalance> sources = new HashMap<>();
+        boolean stale = true;
+    }
+
+    private final SourceRepository sourceRepository;
+    private final BalanceService balanceService;
+    private final AlertStreams alertStreams;
+    private final TransactionTemplate primaryRead;
+    private final Map<Integer, UserBalances> tracked = new ConcurrentHashMap<>();
+    private final InFlightExpenseWrites.Tracker writes;
+
+    public AlertEngine(SourceRepository sourceRepository,
+                       BalanceService balanceService,
+                       AlertStreams alertStreams,
+                       TransactionTemplate transactionTemplate,
+                       CacheInvalidationBroker broker,
+                       InFlightExpenseWrites inFlightWrites) {
+        this.sourceRepository = sourceRepository;
+        this.balanceService = balanceService;
+        this.alertStreams = alertStreams;
+        // Read-write so reloads read from the primary (see ReplicaRoutingConfig). They run from
+        // after-commit listeners, where the committed transaction is still bound.
+        this.primaryRead = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.primaryRead.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.writes = inFlightWrites.register(tracked::containsKey);
+        broker.subscribe(this::reloadIfTracked);
+    }
+
+    // Starts tracking the user (if not yet tracked) and returns an alert for every source that is
+    // currently below its threshold, for a newly opened stream.
+    public List<SourceAlertDto> track(Integer userId) {
+        UserBalances balances = tracked.computeIfAbsent(userId, id -> new UserBalances());
+        reload(userId, balances);
+        List<SourceAlertDto> alerts = new ArrayList<>();
+        synchronized (balances) {
+            balances.sources.forEach((sourceId, source) -> {
+                if (source.below) {
+                    alerts.add(alert(sourceId, source));
+                }
+            });
+        }
+        return alerts;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        Integer userId = event.userId();
+        UserBalances balances = tracked.get(userId);
+        if (balances == null) {
+            writes.completed(userId);
+            return;
+        }
+        List<SourceAlertDto> alerts = new ArrayList<>();
+        boolean stale;
+        synchronized (balances) {
+            stale = balances.stale;
+            if (!stale) {
+                apply(balances, event.before(), -1, alerts);
+                apply(balances, event.after(), 1, alerts);
+            }
+            writes.completed(userId);
+        }
+        alerts.forEach(alert -> alertStreams.publish(userId, alert));
+        if (stale) {
+            reload(userId, balances);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpensesBulkChanged(ExpensesBulkChangedEvent event) {
+        reloadIfTracked(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSourceChanged(SourceChangedEvent event) {
+        reloadIfTracked(event.userId());
+    }
+
+    // Drops users whose streams are all closed and reloads the others, which settles stale totals
+    // and corrects any drift.
+    @Scheduled(fixedDelayString = "${alerts.resync-interval-ms:300000}")
+    public void resync() {
+        for (Integer userId : List.copyOf(tracked.keySet())) {
+            if (alertStreams.isConnected(userId)) {
+                reloadIfTracked(userId);
+            } else {
+                tracked.remove(userId);
+                writes.prune(userId);
+            }
+        }
+    }
+
+    private void reloadIfTracked(Integer userId) {
+        UserBalances balances = tracked.get(userId);
+        if (balances != null) {
+            reload(userId, balances);
+        }
+    }
+
+    private void reload(Integer userId, UserBalances balances) {
+        InFlightExpenseWrites.Tracker.Snapshot snapshot = writes.snapshot(userId);
+        Map<Integer, SourceBalance> loaded = primaryRead.execute(status -> {
+            List<Source> sources = sourceRepository.findByUserId(userId);
+            Map<Integer, BigDecimal> totals = balanceService.expenseTotals(userId, sources);
+            Map<Integer, SourceBalance> result = new HashMap<>();
+            for (Source source : sources) {
+                SourceBalance balance = new SourceBalance();
+                balance.name = source.getName();
+                balance.initialBalance = Money.cents(source.getInitialBalance());
+                balance.alertThreshold = source.getAlertThreshold() != null ? Money.cents(source.getAlertThreshold()) : null;
+                balance.expenseTotal = Money.cents(totals.get(source.getId()));
+                result.put(source.getId(), balance);
+            }
+            return result;
+        });
+
+        List<SourceAlertDto> alerts = new ArrayList<>();
+        synchronized (balances) {
+            for (Map.Entry<Integer, SourceBalance> entry : loaded.entrySet()) {
+                SourceBalance previous = balances.sources.get(entry.getKey());
+                SourceBalance balance = entry.getValue();
+                balance.below = balance.isBelow();
+                if (previous != null && previous.below != balance.below) {
+                    alerts.add(alert(entry.getKey(), balance));
+                }
+            }
+            balances.sources = loaded;
+            balances.stale = !writes.unchangedSince(userId, snapshot);
+        }
+        alerts.forEach(alert -> alertStreams.publish(userId, alert));
+    }
+
+    private static void apply(UserBalances balances, ExpenseSnapshot expense, int sign, List<SourceAlertDto> alerts) {
+        if (expense == null || expense.amount() == null) {
+            return;
+        }
+        SourceBalance source = balances.sources.get(expense.sourceId());
+        if (source == null) {
+            return;
+        }
+        long amount = Money.cents(expense.amount());
+        source.expenseTotal = sign > 0 ? Money.add(source.expenseTotal, amount) : Money.subtract(source.expenseTotal, amount);
+        boolean below = source.isBelow();
+        if (below != source.below) {
+            source.below = below;
+            alerts.add(alert(expense.sourceId(), source));
+        }
+    }
+
+    private static SourceAlertDto alert(Integer sourceId, SourceBalance source) {
+        BigDecimal threshold = source.alertThreshold != null ? Money.toBigDecimal(source.alertThreshold) : null;
+        return new SourceAlertDto(sourceId, source.name, Money.toBigDecimal(source.balance()), threshold,
+                source.below ? SourceAlertDto.State.BELOW : SourceAlertDto.State.RECOVERED, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,212 @@
+package com.expensetracker.backend.alert;
+
+import com.expensetracker.backend.dto.SourceAlertDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Open GET /api/events connections, per user. Every connection has its own sender (a virtual
+// thread) and a pending map with at most one alert per source: a client that reads slowly gets the
+// latest state of each source rather than an ever-growing backlog. Idle connections get a comment
+// line every heartbeat so dead ones are noticed and proxies keep them open.
+@Slf4j
+@Component
+public class AlertStreams {
+
+    public static final String EVENT_NAME = "source-alert";
+
+    private final int maxPerUser;
+    private final int maxTotal;
+    private final Duration timeout;
+    private final Duration heartbeat;
+    private final Map<Integer, Deque<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicLong eventIds = new AtomicLong();
+
+    public AlertStreams(@Value("${alerts.sse.max-connections-per-user:3}") int maxPerUser,
+                        @Value("${alerts.sse.max-connections:10000}") int maxTotal,
+                        @Value("${alerts.sse.timeout:30m}") Duration timeout,
+                        @Value("${alerts.sse.heartbeat:20s}") Duration heartbeat,
+                        MeterRegistry meterRegistry) {
+        this.maxPerUser = maxPerUser;
+        this.maxTotal = maxTotal;
+        this.timeout = timeout;
+        this.heartbeat = heartbeat;
+        Gauge.builder("alerts.sse.connections", total, AtomicInteger::get).register(meterRegistry);
+    }
+
+    // A new stream for the user, or null when the server-wide limit is reached. Opening more than
+    // the per-user limit closes the user's oldest stream (typically a tab that is gone).
+    public Connection open(Integer userId) {
+        if (total.incrementAndGet() > maxTotal) {
+            total.decrementAndGet();
+            return null;
+        }
+        Connection connection = new Connection(userId, new SseEmitter(timeout.toMillis()));
+        Connection evicted = null;
+        Deque<Connection> userConnections = connections.computeIfAbsent(userId, id -> new ArrayDeque<>());
+        synchronized (userConnections) {
+            userConnections.addLast(connection);
+            if (userConnections.size() > maxPerUser) {
+                evicted = userConnections.pollFirst();
+                total.decrementAndGet();
+            }
+        }
+        if (evicted != null) {
+            evicted.close(true);
+        }
+        SseEmitter emitter = connection.emitter;
+        emitter.onCompletion(() -> connection.close(false));
+        emitter.onTimeout(() -> connection.close(false));
+        emitter.onError(e -> connection.close(false));
+        Thread.ofVirtual().name("alert-stream-" + userId).start(connection::run);
+        return connection;
+    }
+
+    public boolean isConnected(Integer userId) {
+        Deque<Connection> userConnections = connections.get(userId);
+        if (userConnections == null) {
+            return false;
+        }
+        synchronized (userConnections) {
+            return !userConnections.isEmpty();
+        }
+    }
+
+    public void publish(Integer userId, SourceAlertDto alert) {
+        Deque<Connection> userConnections = connections.get(userId);
+        if (userConnections == null) {
+            return;
+        }
+        List<Connection> targets;
+        synchronized (userConnections) {
+            targets = new ArrayList<>(userConnections);
+        }
+        for (Connection connection : targets) {
+            connection.offer(alert, true);
+        }
+    }
+
+    private void remove(Connection connection) {
+        Deque<Connection> userConnections = connections.get(connection.userId);
+        if (userConnections != null) {
+            synchronized (userConnections) {
+                if (userConnections.remove(connection)) {
+                    total.decrementAndGet();
+                }
+                if (userConnections.isEmpty()) {
+                    connections.remove(connection.userId, userConnections);
+                }
+            }
+        }
+    }
+
+    public final class Connection {
+
+        private final Integer userId;
+        private final SseEmitter emitter;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        // Latest undelivered alert per source, in the order the sources first changed.
+        private final Map<Integer, SourceAlertDto> pending = new LinkedHashMap<>();
+        private boolean closed;
+
+        private Connection(Integer userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        public SseEmitter emitter() {
+            return emitter;
+        }
+
+        // Queues the alert, replacing an undelivered one for the same source when replace is set.
+        public void offer(SourceAlertDto alert, boolean replace) {
+            lock.lock();
+            try {
+                if (closed || (!replace && pending.containsKey(alert.getSourceId()))) {
+                    return;
+                }
+                pending.put(alert.getSourceId(), alert);
+                changed.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Stops the sender and forgets the connection; completes the response unless the container
+        // already did (timeout, client gone).
+        void close(boolean complete) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                pending.clear();
+                changed.signal();
+            } finally {
+                lock.unlock();
+            }
+            remove(this);
+            if (complete) {
+                emitter.complete();
+            }
+        }
+
+        private void run() {
+            try {
+                while (true) {
+                    List<SourceAlertDto> batch;
+                    lock.lock();
+                    try {
+                        if (!closed && pending.isEmpty()) {
+                            changed.await(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                        }
+                        if (closed) {
+                            return;
+                        }
+                        batch = new ArrayList<>(pending.values());
+                        pending.clear();
+                    } finally {
+                        lock.unlock();
+                    }
+                    if (batch.isEmpty()) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                    for (SourceAlertDto alert : batch) {
+                        emitter.send(SseEmitter.event()
+                                .name(EVENT_NAME)
+                                .id(Long.toString(eventIds.incrementAndGet()))
+                                .data(alert, MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Alert stream for user {} closed: {}", userId, e.getMessage());
+                close(false);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close(true);
+            }
+        }
+    }
+}
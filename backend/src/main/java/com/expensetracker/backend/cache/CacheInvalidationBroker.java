@@ -0,0 +1,21 @@
+package com.expensetracker.backend.cache;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+// Carries "user X's data changed" messages between application nodes so every node's
+// UserReadCache drops stale entries. Plug in a real broker (Redis pub/sub, Kafka, ...) by
+// providing another implementation of this interface as a bean.
+public interface CacheInvalidationBroker {
+
+    void publish(Integer userId);
+
+    // Called with the user id of every invalidation published by another node.
+    void subscribe(Consumer<Integer> listener);
+
+    // Narrower message: only the user's cached reads in one region group are stale (see
+    // UserReadCache.invalidateGroup). Not delivered to subscribe() listeners.
+    void publishGroup(Integer userId, String group);
+
+    void subscribeGroup(BiConsumer<Integer, String> listener);
+}
@@ -0,0 +1,127 @@
+package com.expensetracker.backend.cache;
+
+import com.expensetracker.backend.event.ExpenseChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+// Tracks which users have expense writes in flight, for in-memory state that is loaded from the
+// database and then moved by each committed write. Such state is not idempotent: state loaded
+// while a write was in flight may or may not contain it, and applying the write on commit could
+// count it twice. A consumer takes a snapshot before loading and caches the result only if the
+// tracker is unchangedSince that snapshot afterwards.
+//
+// Each consumer registers its own Tracker and calls completed() from its after-commit listener,
+// atomically with applying the write; starting a write and completing a rolled-back one is done
+// here for all of them. A user's bookkeeping is kept only while a write is in flight or the
+// consumer's retained predicate holds (e.g. it caches state for the user).
+@Component
+public class InFlightExpenseWrites {
+
+    private final List<Tracker> trackers = new CopyOnWriteArrayList<>();
+
+    public Tracker register(Predicate<Integer> retained) {
+        Tracker tracker = new Tracker(retained);
+        trackers.add(tracker);
+        return tracker;
+    }
+
+    // Runs inside the writing transaction, before anything can have committed (and, for a write
+    // outside a transaction, before the fallback execution of any consumer's listener).
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onExpenseWrite(ExpenseChangedEvent event) {
+        trackers.forEach(tracker -> tracker.started(event.userId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onExpenseChangeRolledBack(ExpenseChangedEvent event) {
+        trackers.forEach(tracker -> tracker.completed(event.userId()));
+    }
+
+    public static final class Tracker {
+
+        private static final class Activity {
+            final AtomicInteger inFlight = new AtomicInteger();
+            final AtomicLong generation = new AtomicLong();
+        }
+
+        public static final class Snapshot {
+            private final Activity activity;
+            private final long generation;
+            private final boolean quiet;
+
+            private Snapshot(Activity activity) {
+                this.activity = activity;
+                this.generation = activity.generation.get();
+                this.quiet = activity.inFlight.get() == 0;
+            }
+        }
+
+        private final Predicate<Integer> retained;
+        private final Map<Integer, Activity> activity = new ConcurrentHashMap<>();
+
+        private Tracker(Predicate<Integer> retained) {
+            this.retained = retained;
+        }
+
+        public Snapshot snapshot(Integer userId) {
+            return new Snapshot(activity.computeIfAbsent(userId, id -> new Activity()));
+        }
+
+        // True when no write was in flight at the snapshot and none has started or completed since.
+        // The activity must still be the registered one: if it was pruned meanwhile, a write may
+        // have started (and even committed) under a new one.
+        public boolean unchangedSince(Integer userId, Snapshot snapshot) {
+            Activity userActivity = activity.get(userId);
+            return snapshot.quiet && userActivity == snapshot.activity
+                    && userActivity.generation.get() == snapshot.generation;
+        }
+
+        // Makes snapshots taken so far stale, e.g. when the consumer drops its state for the user.
+        public void changed(Integer userId) {
+            activity.computeIfPresent(userId, (id, userActivity) -> {
+                userActivity.generation.incrementAndGet();
+                return userActivity;
+            });
+        }
+
+        public void completed(Integer userId) {
+            activity.computeIfPresent(userId, (id, userActivity) -> {
+                userActivity.generation.incrementAndGet();
+                userActivity.inFlight.decrementAndGet();
+                return prunable(id, userActivity) ? null : userActivity;
+            });
+        }
+
+        // Forgets the user once no write is in flight and nothing is retained for them. Checked and
+        // removed atomically with respect to a write starting.
+        public void prune(Integer userId) {
+            activity.computeIfPresent(userId, (id, userActivity) -> prunable(id, userActivity) ? null : userActivity);
+        }
+
+        private void started(Integer userId) {
+            activity.compute(userId, (id, userActivity) -> {
+                Activity started = userActivity != null ? userActivity : new Activity();
+                started.inFlight.incrementAndGet();
+                started.generation.incrementAndGet();
+                return started;
+            });
+        }
+
+        private boolean prunable(Integer userId, Activity userActivity) {
+            return userActivity.inFlight.get() == 0 && !retained.test(userId);
+        }
+    }
+}
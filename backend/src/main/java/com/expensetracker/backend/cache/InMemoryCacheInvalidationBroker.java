@@ -0,0 +1,63 @@
+package com.expensetracker.backend.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+// Local stand-in for a message broker. Every broker in the JVM joins one shared topic while its
+// application context runs, so several "nodes" started side by side (in tests or a local
+// multi-node setup) hear each other's invalidations as they would through a real broker, and never
+// their own. A broker leaves the topic when its context closes, taking its subscribers with it.
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.broker", havingValue = "in-memory", matchIfMissing = true)
+public class InMemoryCacheInvalidationBroker implements CacheInvalidationBroker {
+
+    private static final List<InMemoryCacheInvalidationBroker> TOPIC = new CopyOnWriteArrayList<>();
+
+    private final List<Consumer<Integer>> subscribers = new CopyOnWriteArrayList<>();
+    private final List<BiConsumer<Integer, String>> groupSubscribers = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    void join() {
+        TOPIC.add(this);
+    }
+
+    @PreDestroy
+    void leave() {
+        TOPIC.remove(this);
+    }
+
+    @Override
+    public void publish(Integer userId) {
+        for (InMemoryCacheInvalidationBroker node : TOPIC) {
+            if (node != this) {
+                node.subscribers.forEach(listener -> listener.accept(userId));
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<Integer> listener) {
+        subscribers.add(listener);
+    }
+
+    @Override
+    public void publishGroup(Integer userId, String group) {
+        for (InMemoryCacheInvalidationBroker node : TOPIC) {
+            if (node != this) {
+                node.groupSubscribers.forEach(listener -> listener.accept(userId, group));
+            }
+        }
+    }
+
+    @Override
+    public void subscribeGroup(BiConsumer<Integer, String> listener) {
+        groupSubscribers.add(listener);
+    }
+}
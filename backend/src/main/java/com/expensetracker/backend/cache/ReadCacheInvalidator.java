@@ -0,0 +1,54 @@
+package com.expensetracker.backend.cache;
+
+import com.expensetracker.backend.event.ExpenseChangedEvent;
+import com.expensetracker.backend.event.ExpensesBulkChangedEvent;
+import com.expensetracker.backend.event.RollupsRebuiltEvent;
+import com.expensetracker.backend.event.SourceChangedEvent;
+import com.expensetracker.backend.service.AnalyticsService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Evicts a user's cached reads once a write to their data has committed, locally and (through
+// the broker) on every other node.
+@Component
+@RequiredArgsConstructor
+public class ReadCacheInvalidator {
+
+    private final UserReadCache readCache;
+    private final CacheInvalidationBroker broker;
+
+    @PostConstruct
+    void subscribe() {
+        broker.subscribe(readCache::invalidateUser);
+        broker.subscribeGroup(readCache::invalidateGroup);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        invalidate(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpensesBulkChanged(ExpensesBulkChangedEvent event) {
+        invalidate(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSourceChanged(SourceChangedEvent event) {
+        invalidate(event.userId());
+    }
+
+    // Rollups only feed analytics; the user's other cached reads stay.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRollupsRebuilt(RollupsRebuiltEvent event) {
+        readCache.invalidateGroup(event.userId(), AnalyticsService.CACHE_GROUP);
+        broker.publishGroup(event.userId(), AnalyticsService.CACHE_GROUP);
+    }
+
+    private void invalidate(Integer userId) {
+        readCache.invalidateUser(userId);
+        broker.publish(userId);
+    }
+}
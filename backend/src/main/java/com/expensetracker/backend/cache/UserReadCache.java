@@ -0,0 +1,144 @@
+package com.expensetracker.backend.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+// In-process read cache for per-user query results (source lists, analytics summaries).
+// Entries are weighed (roughly in bytes) and evicted by total weight. Writes never update the
+// cache; they invalidate every entry of the affected user instead (see ReadCacheInvalidator).
+// A change to derived data only can drop one group of regions: the regions whose names share
+// the part before the first '.' (e.g. "analytics.monthly" and "analytics.trend").
+@Component
+public class UserReadCache {
+
+    private record Key(Integer userId, String region, Object args) {
+    }
+
+    // A user's generation counters: 'user' is bumped by invalidateUser, each region group's by
+    // invalidateGroup. A value is current while both counters it was loaded under are unchanged.
+    private static final class Generations {
+        final AtomicLong user = new AtomicLong();
+        final Map<String, AtomicLong> groups = new ConcurrentHashMap<>();
+    }
+
+    // 'generations' are the user's counters when the value was loaded. Holding them keeps the
+    // counters alive (see generations) for as long as any entry of the user is cached.
+    private record Entry(Object value, int weight, Generations generations, long userGeneration, long groupGeneration) {
+    }
+
+    private final Cache<Key, Entry> cache;
+    // Keys currently cached for each user, so invalidation touches only that user's entries. A
+    // user's set is dropped when its last key leaves the cache.
+    private final Map<Integer, Set<Key>> keysByUser = new ConcurrentHashMap<>();
+    // Bumped on every invalidation. A value loaded while a write committed is not stored, because
+    // a generation it was loaded under is no longer current. Values are weakly held: a user's
+    // counters are only referenced by their cached entries and by loads in flight, so they are
+    // collected once the user has neither, and new counters (a different object) start later.
+    private final Cache<Integer, Generations> generations = Caffeine.newBuilder().weakValues().build();
+
+    public UserReadCache(@Value("${cache.read.max-weight:67108864}") long maxWeight, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Key key, Entry entry) -> entry.weight())
+                .removalListener((Key key, Entry entry, RemovalCause cause) -> {
+                    if (key != null && cause != RemovalCause.REPLACED) {
+                        keysByUser.computeIfPresent(key.userId(), (userId, keys) -> {
+                            keys.remove(key);
+                            return keys.isEmpty() ? null : keys;
+                        });
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "read");
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Integer userId, String region, Object args, ToIntFunction<T> weigher, Supplier<T> loader) {
+        Key key = new Key(userId, region, args);
+        Generations userGenerations = generations.get(userId, id -> new Generations());
+        AtomicLong groupCounter = userGenerations.groups.computeIfAbsent(groupOf(region), group -> new AtomicLong());
+        long userGeneration = userGenerations.user.get();
+        long groupGeneration = groupCounter.get();
+
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && entry.generations() == userGenerations
+                && entry.userGeneration() == userGeneration && entry.groupGeneration() == groupGeneration) {
+            return (T) entry.value();
+        }
+
+        T value = loader.get();
+        if (userGenerations.user.get() == userGeneration && groupCounter.get() == groupGeneration) {
+            // The removal listener runs asynchronously and may still drop the key from its set after
+            // this; the entry is then only evicted by weight, but the generation check above still
+            // keeps it from being served after an invalidation.
+            keysByUser.compute(userId, (id, keys) -> {
+                Set<Key> set = keys != null ? keys : ConcurrentHashMap.newKeySet();
+                set.add(key);
+                return set;
+            });
+            cache.put(key, new Entry(value, Math.max(1, weigher.applyAsInt(value)), userGenerations,
+                    userGeneration, groupGeneration));
+        }
+        return value;
+    }
+
+    public void invalidateUser(Integer userId) {
+        // No counters means nothing of the user's is cached or being loaded.
+        Generations userGenerations = generations.getIfPresent(userId);
+        if (userGenerations != null) {
+            userGenerations.user.incrementAndGet();
+        }
+        Set<Key> keys = keysByUser.remove(userId);
+        if (keys != null) {
+            cache.invalidateAll(keys);
+        }
+    }
+
+    // Drops the user's entries in one region group and keeps the rest.
+    public void invalidateGroup(Integer userId, String group) {
+        Generations userGenerations = generations.getIfPresent(userId);
+        if (userGenerations == null) {
+            return;
+        }
+        // No counter means no value of the group has been loaded for the user since the counters
+        // were created.
+        AtomicLong groupCounter = userGenerations.groups.get(group);
+        if (groupCounter != null) {
+            groupCounter.incrementAndGet();
+        }
+        Set<Key> keys = keysByUser.get(userId);
+        if (keys != null) {
+            cache.invalidateAll(keys.stream().filter(key -> groupOf(key.region()).equals(group)).toList());
+        }
+    }
+
+    public void invalidateAll() {
+        generations.asMap().values().forEach(userGenerations -> userGenerations.user.incrementAndGet());
+        keysByUser.clear();
+        cache.invalidateAll();
+    }
+
+    private static String groupOf(String region) {
+        int dot = region.indexOf('.');
+        return dot < 0 ? region : region.substring(0, dot);
+    }
+
+    // Rough per-element weights for list results; only the relative sizes matter for eviction.
+    public static <T> ToIntFunction<List<T>> listWeigher(int bytesPerElement) {
+        return list -> 64 + list.size() * bytesPerElement;
+    }
+}
@@ -0,0 +1,80 @@
+package com.expensetracker.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Caps the number of /api requests running at once when requests run on virtual threads.
+// Without it, every request gets its own thread and a traffic spike turns into thousands of
+// threads queueing inside Hikari (and timing out there), or into more connections than the
+// database can serve. Waiting requests are parked cheaply on the semaphore instead and are
+// rejected with 503 + Retry-After if they cannot be admitted in time.
+//
+// /api/auth is left out: its requests wait on BCrypt rather than the database and are budgeted by
+// AuthAdmission, so a login flood cannot take the permits that expense traffic needs.
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long maxWaitMillis;
+    private final Counter rejected;
+
+    public AdmissionControlFilter(@Value("${requests.admission.max-concurrent:40}") int maxConcurrent,
+                                  @Value("${requests.admission.max-wait:2s}") Duration maxWait,
+                                  MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxWaitMillis = maxWait.toMillis();
+        this.rejected = meterRegistry.counter("http.admission.rejected");
+        Gauge.builder("http.admission.waiting", permits, Semaphore::getQueueLength).register(meterRegistry);
+        Gauge.builder("http.admission.available", permits, Semaphore::availablePermits).register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !uri.startsWith("/api/") || uri.startsWith("/api/auth/");
+    }
+
+    // Note: for async responses (GET /api/expenses/stream) the permit is released when the
+    // handler returns, not when the body has been written.
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean admitted;
+        try {
+            admitted = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            rejected.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
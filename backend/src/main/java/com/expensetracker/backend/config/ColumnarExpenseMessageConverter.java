@@ -0,0 +1,180 @@
+package com.expensetracker.backend.config;
+
+import com.expensetracker.backend.dto.ExpenseDto;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Writes List<ExpenseDto> column by column, with the repeated strings (sourceName, vendor,
+// category) dictionary-encoded. Served only when the client asks for it with
+// Accept: application/vnd.expenseflow.columnar+json; plain JSON stays the default. Shape:
+//
+//   {"count": 2,
+//    "dictionaries": {"sourceName": ["HDFC"], "vendor": ["Swiggy", "Uber"], "category": ["Food", "Transport"]},
+//    "columns": {"id": [11, 12], "sourceId": [3, 3], "sourceName": [0, 0], "amount": [250.00, 120.50],
+//                "vendor": [0, 1], "category": [0, 1], "description": [null, "airport"],
+//                "transactionDate": ["2025-01-02", "2025-01-01"], "receiptImageUrl": [null, null]}}
+//
+// Row i is rebuilt by reading index i of every column and looking encoded columns up in their dictionary.
+public class ColumnarExpenseMessageConverter extends AbstractGenericHttpMessageConverter<List<ExpenseDto>> {
+
+    public static final MediaType MEDIA_TYPE = new MediaType("application", "vnd.expenseflow.columnar+json");
+
+    private final ObjectMapper objectMapper;
+
+    public ColumnarExpenseMessageConverter(ObjectMapper objectMapper) {
+        super(MEDIA_TYPE);
+        this.objectMapper = objectMapper;
+    }
+
+    private static final class Dictionary {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int encode(String value) {
+            return indexes.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(@Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        return isExpenseList(type) && canWrite(mediaType);
+    }
+
+    private static boolean isExpenseList(@Nullable Type type) {
+        return type instanceof ParameterizedType parameterized
+                && parameterized.getRawType() instanceof Class<?> raw
+                && List.class.isAssignableFrom(raw)
+                && parameterized.getActualTypeArguments()[0] == ExpenseDto.class;
+    }
+
+    @Override
+    protected void writeInternal(List<ExpenseDto> expenses, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException {
+        int size = expenses.size();
+        Dictionary sourceNames = new Dictionary();
+        Dictionary vendors = new Dictionary();
+        Dictionary categories = new Dictionary();
+        int[] sourceNameCodes = new int[size];
+        int[] vendorCodes = new int[size];
+        int[] categoryCodes = new int[size];
+        for (int i = 0; i < size; i++) {
+            ExpenseDto expense = expenses.get(i);
+            sourceNameCodes[i] = sourceNames.encode(expense.getSourceName());
+            vendorCodes[i] = vendors.encode(expense.getVendor());
+            categoryCodes[i] = categories.encode(expense.getCategory());
+        }
+
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(outputMessage.getBody(), JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeNumberField("count", size);
+
+            json.writeObjectFieldStart("dictionaries");
+            writeStrings(json, "sourceName", sourceNames.values);
+            writeStrings(json, "vendor", vendors.values);
+            writeStrings(json, "category", categories.values);
+            json.writeEndObject();
+
+            json.writeObjectFieldStart("columns");
+            json.writeArrayFieldStart("id");
+            for (ExpenseDto expense : expenses) {
+                writeInteger(json, expense.getId());
+            }
+            json.writeEndArray();
+            json.writeArrayFieldStart("sourceId");
+            for (ExpenseDto expense : expenses) {
+                writeInteger(json, expense.getSourceId());
+            }
+            json.writeEndArray();
+            writeCodes(json, "sourceName", sourceNameCodes);
+            json.writeArrayFieldStart("amount");
+            for (ExpenseDto expense : expenses) {
+                json.writeNumber(expense.getAmount());
+            }
+            json.writeEndArray();
+            writeCodes(json, "vendor", vendorCodes);
+            writeCodes(json, "category", categoryCodes);
+            json.writeArrayFieldStart("description");
+            for (ExpenseDto expense : expenses) {
+                json.writeString(expense.getDescription());
+            }
+            json.writeEndArray();
+            json.writeArrayFieldStart("transactionDate");
+            for (ExpenseDto expense : expenses) {
+                json.writeString(expense.getTransactionDate() == null ? null : expense.getTransactionDate().toString());
+            }
+            json.writeEndArray();
+            json.writeArrayFieldStart("receiptImageUrl");
+            for (ExpenseDto expense : expenses) {
+                json.writeString(expense.getReceiptImageUrl());
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+
+            json.writeEndObject();
+        }
+    }
+
+    private static void writeStrings(JsonGenerator json, String field, List<String> values) throws IOException {
+        json.writeArrayFieldStart(field);
+        for (String value : values) {
+            json.writeString(value);
+        }
+        json.writeEndArray();
+    }
+
+    private static void writeCodes(JsonGenerator json, String field, int[] codes) throws IOException {
+        json.writeFieldName(field);
+        json.writeArray(codes, 0, codes.length);
+    }
+
+    private static void writeInteger(JsonGenerator json, Integer value) throws IOException {
+        if (value == null) {
+            json.writeNull();
+        } else {
+            json.writeNumber(value);
+        }
+    }
+
+    @Override
+    public List<ExpenseDto> read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("The columnar expense format is response-only", inputMessage);
+    }
+
+    @Override
+    protected List<ExpenseDto> readInternal(Class<? extends List<ExpenseDto>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("The columnar expense format is response-only", inputMessage);
+    }
+}
@@ -1,12 +1,20 @@
 package com.expensetracker.backend.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ObjectMapper objectMapper;
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**") // Apply CORS to all API endpoints
@@ -15,4 +23,13 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedHeaders("*")
                 .allowCredentials(true);
     }
+
+    // Besides JSON (the default, first in the list), responses can be negotiated via Accept as
+    // CBOR (application/cbor) or Smile (application/x-jackson-smile), registered automatically
+    // because their Jackson modules are on the classpath, or, for expense lists, as the columnar
+    // format. Appended last so it is only used when asked for explicitly.
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new ColumnarExpenseMessageConverter(objectMapper));
+    }
 }
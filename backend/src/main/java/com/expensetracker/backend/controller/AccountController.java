@@ -0,0 +1,24 @@
+package com.expensetracker.backend.controller;
+
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.service.AccountService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/account")
+@RequiredArgsConstructor
+public class AccountController {
+
+    private final AccountService accountService;
+
+    // Permanently deletes the authenticated user together with all of their sources and expenses.
+    @DeleteMapping
+    public ResponseEntity<Map<String, Long>> deleteAccount(@AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(accountService.deleteAccount(user.getId()));
+    }
+}
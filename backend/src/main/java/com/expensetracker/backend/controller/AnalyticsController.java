@@ -0,0 +1,80 @@
+package com.expensetracker.backend.controller;
+
+import com.expensetracker.backend.dto.AnalyticsEntryDto;
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.service.AnalyticsService;
+import com.expensetracker.backend.service.RollupService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+    private final RollupService rollupService;
+
+    // Dates are ISO (yyyy-MM-dd). 'to' defaults to today; 'from' defaults to the start of the
+    // month twelve months ago for /monthly and to 30 days before 'to' everywhere else.
+
+    @GetMapping("/monthly")
+    public ResponseEntity<List<AnalyticsEntryDto>> monthlyTotals(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusMonths(11).withDayOfMonth(1);
+        return ResponseEntity.ok(analyticsService.monthlyTotals(user.getId(), start, end));
+    }
+
+    @GetMapping("/categories")
+    public ResponseEntity<List<AnalyticsEntryDto>> categoryBreakdown(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(30);
+        return ResponseEntity.ok(analyticsService.categoryBreakdown(user.getId(), start, end));
+    }
+
+    @GetMapping("/sources")
+    public ResponseEntity<List<AnalyticsEntryDto>> sourceBreakdown(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(30);
+        return ResponseEntity.ok(analyticsService.sourceBreakdown(user.getId(), start, end));
+    }
+
+    @GetMapping("/trend")
+    public ResponseEntity<List<AnalyticsEntryDto>> trend(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") AnalyticsService.Granularity granularity) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(30);
+        return ResponseEntity.ok(analyticsService.trend(user.getId(), start, end, granularity));
+    }
+
+    // Recomputes the authenticated user's rollups from their raw expenses.
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildRollups(@AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(Map.of("rows", rollupService.rebuild(user.getId())));
+    }
+
+    // Compares the authenticated user's rollups with an aggregate over their raw expenses.
+    @GetMapping("/rollups/check")
+    public ResponseEntity<RollupService.CheckResult> checkRollups(@AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(rollupService.check(user.getId()));
+    }
+}
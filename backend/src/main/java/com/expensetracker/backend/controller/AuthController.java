@@ -4,7 +4,10 @@ package com.expensetracker.backend.controller;
 import com.expensetracker.backend.dto.JwtAuthenticationResponse;
 import com.expensetracker.backend.dto.LoginRequest;
 import com.expensetracker.backend.dto.SignUpRequest;
+import com.expensetracker.backend.security.AuthThrottledException;
 import com.expensetracker.backend.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import lombok.RequiredArgsConstructor;
@@ -19,8 +22,8 @@ public class AuthController {
     private final AuthService authService;
 
     @PostMapping("/signup")
-    public ResponseEntity<?> signUp(@RequestBody SignUpRequest signUpRequest) {
-        authService.signUp(signUpRequest);
+    public ResponseEntity<?> signUp(@RequestBody SignUpRequest signUpRequest, HttpServletRequest request) {
+        authService.signUp(signUpRequest, request.getRemoteAddr());
 
         // --- THIS LINE IS CHANGED ---
         // We now return a Map object, which Spring will automatically convert to JSON.
@@ -29,7 +32,14 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<JwtAuthenticationResponse> login(@RequestBody LoginRequest loginRequest) {
-        return ResponseEntity.ok(authService.login(loginRequest));
+    public ResponseEntity<JwtAuthenticationResponse> login(@RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        return ResponseEntity.ok(authService.login(loginRequest, request.getRemoteAddr()));
+    }
+
+    @ExceptionHandler(AuthThrottledException.class)
+    public ResponseEntity<Map<String, String>> throttled(AuthThrottledException e) {
+        return ResponseEntity.status(e.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+                .body(Map.of("message", e.getMessage()));
     }
 }
\ No newline at end of file
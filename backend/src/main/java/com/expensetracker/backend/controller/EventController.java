@@ -0,0 +1,38 @@
+package com.expensetracker.backend.controller;
+
+import com.expensetracker.backend.alert.AlertEngine;
+import com.expensetracker.backend.alert.AlertStreams;
+import com.expensetracker.backend.dto.SourceAlertDto;
+import com.expensetracker.backend.model.User;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+public class EventController {
+
+    private final AlertStreams alertStreams;
+    private final AlertEngine alertEngine;
+
+    // Server-sent events: a "source-alert" event (SourceAlertDto) whenever a source's balance drops
+    // below its alert threshold or recovers, starting with every source that is below it right now.
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> events(@AuthenticationPrincipal User user) {
+        AlertStreams.Connection connection = alertStreams.open(user.getId());
+        if (connection == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "30").build();
+        }
+        // Live alerts that reached the stream already are newer than this snapshot.
+        for (SourceAlertDto alert : alertEngine.track(user.getId())) {
+            connection.offer(alert, false);
+        }
+        return ResponseEntity.ok(connection.emitter());
+    }
+}
@@ -1,13 +1,36 @@
 package com.expensetracker.backend.controller;
 
 import com.expensetracker.backend.dto.CreateExpenseRequest;
+import com.expensetracker.backend.dto.ExpenseBatchRequest;
+import com.expensetracker.backend.dto.ExpenseBatchResultDto;
 import com.expensetracker.backend.dto.ExpenseDto;
+import com.expensetracker.backend.dto.ExpensePageDto;
+import com.expensetracker.backend.dto.ImportResultDto;
 import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.prediction.CategoryPrediction;
+import com.expensetracker.backend.prediction.CategoryPredictionService;
+import com.expensetracker.backend.receipt.ReceiptService;
+import com.expensetracker.backend.search.ExpenseSearchService;
+import com.expensetracker.backend.search.VendorSuggestionService;
+import com.expensetracker.backend.service.DataVersionService;
+import com.expensetracker.backend.service.ExpenseImportService;
 import com.expensetracker.backend.service.ExpenseService;
+import com.expensetracker.backend.service.InvalidCursorException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -16,15 +39,90 @@ import lombok.RequiredArgsConstructor;
 public class ExpenseController {
 
     private final ExpenseService expenseService;
+    private final ExpenseImportService expenseImportService;
+    private final DataVersionService dataVersionService;
+    private final ExpenseSearchService expenseSearchService;
+    private final VendorSuggestionService vendorSuggestionService;
+    private final CategoryPredictionService categoryPredictionService;
+    private final ReceiptService receiptService;
 
     @GetMapping
     public ResponseEntity<List<ExpenseDto>> getExpenses(
             @AuthenticationPrincipal User user,
             @RequestParam(defaultValue = "30") Integer dateRange,
             @RequestParam(required = false) String category,
-            @RequestParam(required = false) List<Integer> sourceIds) {
+            @RequestParam(required = false) List<Integer> sourceIds,
+            WebRequest request) {
+        // Answers If-None-Match with 304 before any expense query or serialization runs. The date
+        // is part of the tag because the window ends today, and Accept because the body format differs.
+        String etag = dataVersionService.etag(user.getId(), "expenses", dateRange, category, sourceIds, LocalDate.now(),
+                request.getHeader(HttpHeaders.ACCEPT));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<ExpenseDto> expenses = expenseService.getFilteredExpenses(user.getId(), dateRange, category, sourceIds);
-        return ResponseEntity.ok(expenses);
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).cacheControl(CacheControl.noCache().cachePrivate()).body(expenses);
+    }
+
+    // Keyset-paginated variant of GET /api/expenses. Pass the returned nextCursor to get the next page.
+    @GetMapping("/page")
+    public ResponseEntity<ExpensePageDto> getExpensePage(
+            @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "30") Integer dateRange,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) List<Integer> sourceIds,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") Integer limit) {
+        ExpensePageDto page = expenseService.getExpensePage(user.getId(), dateRange, category, sourceIds, cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    // Full-text search over vendor, category and description: every word must match, as a whole
+    // word, a prefix or with a typo. Best matches first.
+    @GetMapping("/search")
+    public ResponseEntity<List<ExpenseDto>> searchExpenses(
+            @AuthenticationPrincipal User user,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") Integer limit) {
+        return ResponseEntity.ok(expenseSearchService.search(user.getId(), q, limit));
+    }
+
+    // Autocomplete: the user's most frequently used vendors starting with the prefix.
+    @GetMapping("/vendors/suggest")
+    public ResponseEntity<List<String>> suggestVendors(
+            @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "10") Integer limit) {
+        return ResponseEntity.ok(vendorSuggestionService.suggest(user.getId(), prefix, limit));
+    }
+
+    // The category a new expense with this vendor and description would be filed under when it is
+    // created without one. category is null when no prediction is confident enough.
+    @GetMapping("/categories/suggest")
+    public ResponseEntity<Map<String, Object>> suggestCategory(
+            @AuthenticationPrincipal User user,
+            @RequestParam String vendor,
+            @RequestParam(required = false) String description) {
+        CategoryPrediction prediction = categoryPredictionService.predict(user.getId(), vendor, description);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("category", prediction != null ? prediction.category() : null);
+        body.put("confidence", prediction != null ? prediction.confidence() : 0.0);
+        body.put("basis", prediction != null ? prediction.basis() : null);
+        return ResponseEntity.ok(body);
+    }
+
+    // Streams every matching expense as newline-delimited JSON without building the list in memory.
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamExpenses(
+            @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "30") Integer dateRange,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) List<Integer> sourceIds) {
+        Integer userId = user.getId();
+        StreamingResponseBody body = out -> expenseService.streamFilteredExpenses(userId, dateRange, category, sourceIds, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @PostMapping
@@ -33,6 +131,46 @@ public class ExpenseController {
         return ResponseEntity.ok(newExpense);
     }
 
+    // Applies a list of create/update/delete operations in one transaction, e.g. offline edits
+    // synced by a mobile client. Results are returned in request order with per-item errors.
+    @PostMapping("/batch")
+    public ResponseEntity<ExpenseBatchResultDto> applyBatch(@AuthenticationPrincipal User user, @RequestBody ExpenseBatchRequest request) {
+        return ResponseEntity.ok(expenseService.applyBatch(user.getId(), request));
+    }
+
+    // Imports a CSV or OFX/QFX bank statement into the given source. The format is taken from the
+    // 'format' parameter or, failing that, the file extension.
+    @PostMapping("/import")
+    public ResponseEntity<ImportResultDto> importStatement(
+            @AuthenticationPrincipal User user,
+            @RequestParam Integer sourceId,
+            @RequestParam(required = false) String format,
+            @RequestParam("file") MultipartFile file) throws IOException {
+        String statementFormat = format != null ? format : extensionOf(file.getOriginalFilename());
+        try (InputStream input = file.getInputStream()) {
+            return ResponseEntity.ok(expenseImportService.importStatement(user.getId(), sourceId, statementFormat, input));
+        }
+    }
+
+    private static String extensionOf(String filename) {
+        if (filename == null || filename.lastIndexOf('.') < 0) {
+            return "csv";
+        }
+        return filename.substring(filename.lastIndexOf('.') + 1);
+    }
+
+    // Attaches a receipt (JPEG, PNG, WebP or PDF) to the expense, replacing any previous one. The
+    // expense's receiptImageUrl then points at /api/receipts/<key>.
+    @PostMapping("/{id}/receipt")
+    public ResponseEntity<ExpenseDto> attachReceipt(
+            @AuthenticationPrincipal User user,
+            @PathVariable Integer id,
+            @RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            return ResponseEntity.ok(receiptService.attach(user.getId(), id, input));
+        }
+    }
+
     // FIXED: Added the @PutMapping to handle updating an expense.
     // It takes the expense ID from the URL path (e.g., /api/expenses/1).
     @PutMapping("/{id}")
@@ -48,4 +186,9 @@ public class ExpenseController {
         expenseService.deleteExpense(user.getId(), id);
         return ResponseEntity.noContent().build();
     }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Map<String, String>> invalidCursor(InvalidCursorException e) {
+        return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+    }
 }
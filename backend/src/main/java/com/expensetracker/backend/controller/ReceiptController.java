@@ -0,0 +1,167 @@
+package com.expensetracker.backend.controller;
+
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.receipt.ReceiptService;
+import com.expensetracker.backend.receipt.ReceiptStore;
+import com.expensetracker.backend.receipt.ReceiptThumbnailer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Serves receipt files straight from the ReceiptStore. Receipt keys are content hashes, so a URL's
+// bytes never change: responses carry the key as ETag and may be cached for a year. Single byte
+// ranges are supported (PDF viewers, resumed downloads). The body goes out through Tomcat's
+// sendfile when the connector supports it, so the kernel copies it without touching the heap.
+// Otherwise it is streamed with FileChannel.transferTo into the response stream, which copies
+// through a small buffer; the file is never read into memory whole.
+@RestController
+@RequestMapping("/api/receipts")
+@RequiredArgsConstructor
+public class ReceiptController {
+
+    private static final String CACHE_FOREVER = "private, max-age=31536000, immutable";
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    private final ReceiptService receiptService;
+    private final ReceiptStore receiptStore;
+    private final ReceiptThumbnailer receiptThumbnailer;
+
+    // ?thumbnail=true serves the thumbnail, or the receipt itself (uncached) until it exists.
+    @GetMapping("/{key}")
+    public void getReceipt(@AuthenticationPrincipal User user, @PathVariable String key,
+                           @RequestParam(defaultValue = "false") boolean thumbnail,
+                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file;
+        try {
+            file = receiptStore.path(key);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        if (!receiptService.canRead(user.getId(), key)) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        String contentType = receiptStore.format(key).contentType();
+        String etag = "\"" + key + "\"";
+        String cacheControl = CACHE_FOREVER;
+        if (thumbnail && receiptStore.format(key).thumbnailable()) {
+            Path thumbnailFile = receiptStore.thumbnailPath(key);
+            if (Files.exists(thumbnailFile)) {
+                file = thumbnailFile;
+                contentType = "image/jpeg";
+                etag = "\"" + key + "-thumbnail\"";
+            } else {
+                receiptThumbnailer.request(key);
+                cacheControl = "private, no-cache";
+            }
+        }
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (NoSuchFileException e) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        long start = 0;
+        long end = size - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] bounds = parseRange(range, size);
+            if (bounds == null) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentType(contentType);
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute("org.apache.tomcat.sendfile.filename", file.toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", start);
+            request.setAttribute("org.apache.tomcat.sendfile.end", end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel output = Channels.newChannel(response.getOutputStream());
+            for (long position = start, remaining = length; remaining > 0; ) {
+                long sent = channel.transferTo(position, remaining, output);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    // {start, end} (inclusive) for a single "bytes=" range, an empty array to serve the whole file
+    // (multiple or malformed ranges, which may be ignored), or null if the range is unsatisfiable.
+    static long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            long start;
+            long end;
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash));
+                end = dash == spec.length() - 1 ? size - 1 : Math.min(size - 1, Long.parseLong(spec.substring(dash + 1)));
+                if (end < start) {
+                    return new long[0];
+                }
+            }
+            return start < size ? new long[]{start, end} : null;
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
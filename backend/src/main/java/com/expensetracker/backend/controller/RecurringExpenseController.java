@@ -0,0 +1,37 @@
+package com.expensetracker.backend.controller;
+
+import com.expensetracker.backend.dto.RecurringExpenseDto;
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.service.RecurringExpenseService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/recurring-expenses")
+@RequiredArgsConstructor
+public class RecurringExpenseController {
+
+    private final RecurringExpenseService recurringExpenseService;
+
+    @GetMapping
+    public ResponseEntity<List<RecurringExpenseDto>> getRecurringExpenses(@AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(recurringExpenseService.getRecurringExpenses(user.getId()));
+    }
+
+    @PostMapping
+    public ResponseEntity<RecurringExpenseDto> createRecurringExpense(@AuthenticationPrincipal User user,
+                                                                      @RequestBody RecurringExpenseDto request) {
+        return ResponseEntity.ok(recurringExpenseService.createRecurringExpense(user.getId(), request));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteRecurringExpense(@AuthenticationPrincipal User user, @PathVariable Integer id) {
+        recurringExpenseService.deleteRecurringExpense(user.getId(), id);
+        return ResponseEntity.ok(Map.of("message", "Recurring expense deleted"));
+    }
+}
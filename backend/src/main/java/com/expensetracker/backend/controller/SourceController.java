@@ -2,11 +2,16 @@ package com.expensetracker.backend.controller;
 
 import com.expensetracker.backend.dto.SourceDto;
 import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.service.DataVersionService;
 import com.expensetracker.backend.service.SourceService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -15,11 +20,16 @@ import lombok.RequiredArgsConstructor;
 public class SourceController {
 
     private final SourceService sourceService;
+    private final DataVersionService dataVersionService;
 
     @GetMapping
-    public ResponseEntity<List<SourceDto>> getAllSourcesForUser(@AuthenticationPrincipal User user) {
+    public ResponseEntity<List<SourceDto>> getAllSourcesForUser(@AuthenticationPrincipal User user, WebRequest request) {
+        String etag = dataVersionService.etag(user.getId(), "sources", request.getHeader(HttpHeaders.ACCEPT));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<SourceDto> sources = sourceService.getSourcesByUserId(user.getId());
-        return ResponseEntity.ok(sources);
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).cacheControl(CacheControl.noCache().cachePrivate()).body(sources);
     }
 
     @PostMapping
@@ -36,8 +46,8 @@ public class SourceController {
 
     // This is the endpoint that handles deleting a source.
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteSource(@AuthenticationPrincipal User user, @PathVariable Integer id) {
-        sourceService.deleteSource(user.getId(), id);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<?> deleteSource(@AuthenticationPrincipal User user, @PathVariable Integer id) {
+        long deletedExpenses = sourceService.deleteSource(user.getId(), id);
+        return ResponseEntity.ok(Map.of("deletedExpenses", deletedExpenses));
     }
 }
@@ -0,0 +1,27 @@
+package com.expensetracker.backend.controller;
+
+import com.expensetracker.backend.dto.SyncResponseDto;
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.service.SyncService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncService syncService;
+
+    // Changes to the user's expenses and sources since the token from the previous call. Start
+    // without a token (the response says to re-download everything) and follow nextToken.
+    @GetMapping
+    public ResponseEntity<SyncResponseDto> sync(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") Integer limit) {
+        return ResponseEntity.ok(syncService.sync(user.getId(), since, limit));
+    }
+}
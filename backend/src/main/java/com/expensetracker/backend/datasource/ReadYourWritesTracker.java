@@ -0,0 +1,63 @@
+package com.expensetracker.backend.datasource;
+
+import com.expensetracker.backend.cache.CacheInvalidationBroker;
+import com.expensetracker.backend.event.ExpenseChangedEvent;
+import com.expensetracker.backend.event.ExpensesBulkChangedEvent;
+import com.expensetracker.backend.event.SourceChangedEvent;
+import com.expensetracker.backend.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+
+// Remembers which users wrote within the read-your-writes window, so their reads stay on the
+// primary until replicas have caught up. Writes are recorded when the write's event is published
+// (inside its transaction) and, through the cache invalidation broker, when another node commits
+// a write for the user. The window must exceed the replicas' usual replication lag.
+public class ReadYourWritesTracker {
+
+    private final Cache<Integer, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window, CacheInvalidationBroker broker) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .build();
+        broker.subscribe(this::recordWrite);
+    }
+
+    public void recordWrite(Integer userId) {
+        if (userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    public boolean wroteRecently(Integer userId) {
+        return userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+
+    // Reads without an authenticated user (scheduled jobs) may always use a replica.
+    public boolean currentUserWroteRecently() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null
+                && authentication.getPrincipal() instanceof User user
+                && wroteRecently(user.getId());
+    }
+
+    @EventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        recordWrite(event.userId());
+    }
+
+    @EventListener
+    public void onExpensesBulkChanged(ExpensesBulkChangedEvent event) {
+        recordWrite(event.userId());
+    }
+
+    @EventListener
+    public void onSourceChanged(SourceChangedEvent event) {
+        recordWrite(event.userId());
+    }
+}
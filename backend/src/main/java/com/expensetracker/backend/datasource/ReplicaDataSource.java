@@ -0,0 +1,107 @@
+package com.expensetracker.backend.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// The read-only side of the routing DataSource (see ReplicaRoutingConfig). Hands out connections
+// from the replica pools round robin, and from the primary instead when the current user wrote
+// within the read-your-writes window or no replica is usable. A replica that fails to hand out a
+// connection is taken out of rotation until the periodic health check sees it answer again.
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+
+    public record Replica(String name, DataSource dataSource) {
+    }
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReadYourWritesTracker tracker;
+    private final Set<String> unhealthy = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaDataSource(DataSource primary, List<Replica> replicas, ReadYourWritesTracker tracker) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.tracker = tracker;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private interface Connector {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    private Connection route(Connector connector) throws SQLException {
+        if (!replicas.isEmpty() && !tracker.currentUserWroteRecently()) {
+            int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (unhealthy.contains(replica.name())) {
+                    continue;
+                }
+                try {
+                    return connector.connect(replica.dataSource());
+                } catch (SQLFeatureNotSupportedException e) {
+                    // The pool cannot do what was asked (e.g. Hikari with other credentials); the
+                    // replica itself is fine.
+                    throw e;
+                } catch (SQLException e) {
+                    if (unhealthy.add(replica.name())) {
+                        log.warn("Replica {} is unavailable, routing its reads to the primary: {}", replica.name(), e.getMessage());
+                    }
+                }
+            }
+        }
+        return connector.connect(primary);
+    }
+
+    public boolean isHealthy(String replicaName) {
+        return !unhealthy.contains(replicaName);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.health-check-interval-ms:10000}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource().getConnection()) {
+                healthy = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (healthy && unhealthy.remove(replica.name())) {
+                log.info("Replica {} is healthy again, routing reads to it", replica.name());
+            } else if (!healthy && unhealthy.add(replica.name())) {
+                log.warn("Replica {} failed its health check, routing its reads to the primary", replica.name());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.expensetracker.backend.datasource;
+
+import com.expensetracker.backend.cache.CacheInvalidationBroker;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Sends read-only transactions (@Transactional(readOnly = true) and read-only TransactionTemplates)
+// to the replica pools and everything else to the primary.
+//
+// The exposed DataSource is a LazyConnectionDataSourceProxy: Spring marks the transaction's
+// connection read-only before the first statement runs, and the proxy only then picks the real
+// connection, from ReplicaDataSource for read-only work and from the primary otherwise. Reads that
+// join a read-write transaction therefore always see that transaction's writes.
+//
+// A replica may lag behind by any amount, so reads that must see every committed write run in a
+// read-write transaction even though they write nothing: the in-memory state that is loaded once
+// and then only moved by deltas (search indexes, vendor tries, category models, alert totals),
+// and the sync change log, which relies on entries becoming visible within its settle window.
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${datasource.replicas.read-your-writes-window:5s}") Duration window,
+            CacheInvalidationBroker broker) {
+        return new ReadYourWritesTracker(window, broker);
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource,
+                                               ReadYourWritesTracker readYourWritesTracker,
+                                               DataSourceProperties properties,
+                                               MeterRegistry meterRegistry,
+                                               @Value("${datasource.replicas.urls}") List<String> urls,
+                                               @Value("${datasource.replicas.username:}") String username,
+                                               @Value("${datasource.replicas.password:}") String password,
+                                               @Value("${datasource.replicas.pool-size:20}") int poolSize) {
+        List<ReplicaDataSource.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            String name = "replica-" + (i + 1);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(name);
+            pool.setJdbcUrl(urls.get(i).trim());
+            pool.setDriverClassName(properties.determineDriverClassName());
+            pool.setUsername(username.isEmpty() ? properties.determineUsername() : username);
+            pool.setPassword(username.isEmpty() ? properties.determinePassword() : password);
+            pool.setMaximumPoolSize(poolSize);
+            pool.setReadOnly(true);
+            // Start even when a replica is down; the health check brings it into rotation later.
+            pool.setInitializationFailTimeout(-1);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new ReplicaDataSource.Replica(name, pool));
+        }
+        return new ReplicaDataSource(primaryDataSource, replicas, readYourWritesTracker);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primaryDataSource);
+        routing.setReadOnlyDataSource(replicaDataSource);
+        return routing;
+    }
+}
@@ -0,0 +1,32 @@
+package com.expensetracker.backend.datasource;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+// Replica routing picks a connection per transaction (see ReplicaRoutingConfig), which only works
+// if every transaction gets a connection of its own. Open-in-view keeps one EntityManager, and with
+// it its connection, for the whole request: a request's first read-only transaction would bind a
+// replica connection that its later writes then reuse. So when replicas are enabled, open-in-view
+// is switched off, overriding any other setting, and each transaction's EntityManager (and
+// connection) is closed with it.
+//
+// Hibernate's connection handling mode is left as Spring sets it (hold until the EntityManager
+// closes): Spring only marks a transaction's connection read-only, which is what routes it to a
+// replica, when the connection is held that way.
+public class ReplicaRoutingEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    static final String PROPERTY_SOURCE_NAME = "replicaRouting";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.getProperty("datasource.replicas.enabled", Boolean.class, false)) {
+            return;
+        }
+        environment.getPropertySources().addFirst(new MapPropertySource(PROPERTY_SOURCE_NAME, Map.of(
+                "spring.jpa.open-in-view", "false")));
+    }
+}
@@ -0,0 +1,18 @@
+package com.expensetracker.backend.dto;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsEntryDto {
+    // Month ("2024-05"), period start date, category name or source id, depending on the endpoint.
+    private String key;
+    // Human-readable name where the key isn't one (e.g. the source name).
+    private String label;
+    private BigDecimal total;
+    private long count;
+}
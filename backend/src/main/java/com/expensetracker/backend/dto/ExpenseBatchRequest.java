@@ -0,0 +1,19 @@
+package com.expensetracker.backend.dto;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class ExpenseBatchRequest {
+    private List<Operation> operations;
+
+    @Data
+    public static class Operation {
+        // CREATE, UPDATE or DELETE
+        private String op;
+        // Target expense for UPDATE and DELETE
+        private Integer id;
+        // Payload for CREATE and UPDATE
+        private CreateExpenseRequest expense;
+    }
+}
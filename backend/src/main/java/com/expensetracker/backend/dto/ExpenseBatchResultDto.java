@@ -0,0 +1,24 @@
+package com.expensetracker.backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class ExpenseBatchResultDto {
+    private int succeeded;
+    private int failed;
+    // One entry per requested operation, in request order.
+    private List<ItemResult> results = new ArrayList<>();
+
+    @Data
+    public static class ItemResult {
+        private int index;
+        private String op;
+        private boolean success;
+        private Integer id;
+        // Resulting expense for successful CREATE/UPDATE operations
+        private ExpenseDto expense;
+        private String error;
+    }
+}
@@ -2,9 +2,15 @@ package com.expensetracker.backend.dto;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
+// The all-args constructor is used by the JPQL constructor projections in ExpenseRepository,
+// so keep the field order in sync with ExpenseRepository.DTO_SELECT.
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class ExpenseDto {
     private Integer id;
     private Integer sourceId;
@@ -0,0 +1,11 @@
+package com.expensetracker.backend.dto;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class ExpensePageDto {
+    private List<ExpenseDto> items;
+    // Opaque token to pass back as ?cursor= for the next page; null when there are no more rows.
+    private String nextCursor;
+}
@@ -0,0 +1,20 @@
+package com.expensetracker.backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class ImportResultDto {
+    private int imported;
+    private int skipped;
+    private int failed;
+    // Per-row problems, capped so a completely malformed file can't produce a huge response.
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    public static class RowError {
+        private final long line;
+        private final String message;
+    }
+}
@@ -0,0 +1,22 @@
+package com.expensetracker.backend.dto;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class RecurringExpenseDto {
+    private Integer id;
+    private Integer sourceId;
+    private BigDecimal amount;
+    private String vendor;
+    private String category;
+    private String description;
+    // DAILY, WEEKLY, MONTHLY or CRON.
+    private String frequency;
+    // Six-field Spring cron expression, for CRON only.
+    private String cronExpression;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    // Next occurrence not yet created as an expense; null once the schedule has ended (read-only).
+    private LocalDate nextDueDate;
+}
@@ -0,0 +1,28 @@
+package com.expensetracker.backend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Sent on GET /api/events when a source's balance crosses its alert threshold.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SourceAlertDto {
+
+    public enum State {
+        // The balance is below the threshold.
+        BELOW,
+        // The balance is back at or above the threshold (or the threshold was removed).
+        RECOVERED
+    }
+
+    private Integer sourceId;
+    private String sourceName;
+    private BigDecimal currentBalance;
+    private BigDecimal alertThreshold;
+    private State state;
+    private LocalDateTime at;
+}
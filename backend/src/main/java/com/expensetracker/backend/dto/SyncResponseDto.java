@@ -0,0 +1,22 @@
+package com.expensetracker.backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class SyncResponseDto {
+    // Current state of every expense and source created or updated since the token.
+    private List<ExpenseDto> expenses = new ArrayList<>();
+    private List<SourceDto> sources = new ArrayList<>();
+    private List<Integer> deletedExpenseIds = new ArrayList<>();
+    // A deleted source's expenses are deleted with it; they are not listed in deletedExpenseIds.
+    private List<Integer> deletedSourceIds = new ArrayList<>();
+    // Pass back as ?since= on the next call.
+    private String nextToken;
+    // More changes are waiting; call again right away with nextToken.
+    private boolean hasMore;
+    // No token, or one older than the change log retention: re-download everything with
+    // GET /api/expenses and GET /api/sources, then continue syncing from nextToken.
+    private boolean resetRequired;
+}
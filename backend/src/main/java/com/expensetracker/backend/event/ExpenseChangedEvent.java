@@ -0,0 +1,11 @@
+package com.expensetracker.backend.event;
+
+import com.expensetracker.backend.service.ExpenseSnapshot;
+
+// Published for every single-expense write. 'before' is null for a create, 'after' is null for a delete.
+public record ExpenseChangedEvent(Integer userId, ExpenseSnapshot before, ExpenseSnapshot after) {
+
+    public Integer expenseId() {
+        return after != null ? after.id() : before.id();
+    }
+}
@@ -0,0 +1,17 @@
+package com.expensetracker.backend.event;
+
+import com.expensetracker.backend.service.ExpenseSnapshot;
+
+import java.util.List;
+
+// Published when many of a user's expenses changed at once (statement import, source or account
+// deletion) and listing them individually would be wasteful. Listeners should treat
+// everything they derived for the user (or only for sourceId, when it is not null) as stale.
+// When inserted is not null the change did nothing but insert those expenses, so listeners that
+// can fold them in cheaply may do that instead.
+public record ExpensesBulkChangedEvent(Integer userId, Integer sourceId, List<ExpenseSnapshot> inserted) {
+
+    public ExpensesBulkChangedEvent(Integer userId, Integer sourceId) {
+        this(userId, sourceId, null);
+    }
+}
@@ -0,0 +1,6 @@
+package com.expensetracker.backend.event;
+
+// Published when a user's daily_rollups were recomputed from their expenses. The expenses
+// themselves did not change, so only what was derived from the rollups (cached analytics) is stale.
+public record RollupsRebuiltEvent(Integer userId) {
+}
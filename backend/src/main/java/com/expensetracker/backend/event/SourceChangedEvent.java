@@ -0,0 +1,8 @@
+package com.expensetracker.backend.event;
+
+public record SourceChangedEvent(Integer userId, Integer sourceId, Type type) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
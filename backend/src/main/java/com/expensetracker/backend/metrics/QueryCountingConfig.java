@@ -0,0 +1,35 @@
+package com.expensetracker.backend.metrics;
+
+import org.hibernate.Interceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Hooks Hibernate so every prepared statement and every loaded entity is counted against the
+// current request (see RequestQueryStatsFilter). Hibernate's own Statistics are global to the
+// session factory, so they cannot attribute work to a single request.
+@Configuration
+public class QueryCountingConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountingCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                RequestQueryStats.statementPrepared();
+                return sql;
+            });
+            properties.put(AvailableSettings.INTERCEPTOR, new EntityLoadCountingInterceptor());
+        };
+    }
+
+    private static class EntityLoadCountingInterceptor implements Interceptor {
+        @Override
+        public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+            RequestQueryStats.entityLoaded();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.expensetracker.backend.metrics;
+
+// Per-thread tally of the SQL statements Hibernate prepares and the entities it loads, scoped to
+// one HTTP request by RequestQueryStatsFilter. Work done outside a request (scheduled jobs) and
+// plain JdbcTemplate statements (ExpenseBatchWriter) are not counted.
+final class RequestQueryStats {
+
+    static final class Counts {
+        long statements;
+        long entities;
+    }
+
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    private RequestQueryStats() {
+    }
+
+    static Counts start() {
+        Counts counts = new Counts();
+        CURRENT.set(counts);
+        return counts;
+    }
+
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    static void statementPrepared() {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.statements++;
+        }
+    }
+
+    static void entityLoaded() {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.entities++;
+        }
+    }
+}
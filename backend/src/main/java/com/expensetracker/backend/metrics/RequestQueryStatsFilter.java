@@ -0,0 +1,71 @@
+package com.expensetracker.backend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Records how many SQL statements each request ran and how many entities it loaded, as
+// http.server.requests.sql.statements / .entities summaries tagged like http.server.requests.
+// A request above either threshold is logged as a warning: that is what an N+1 query (one
+// statement per row) looks like from the outside.
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RequestQueryStatsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final long warnStatements;
+    private final long warnEntities;
+
+    public RequestQueryStatsFilter(MeterRegistry meterRegistry,
+                                   @Value("${metrics.sql.warn-statements:20}") long warnStatements,
+                                   @Value("${metrics.sql.warn-entities:1000}") long warnEntities) {
+        this.meterRegistry = meterRegistry;
+        this.warnStatements = warnStatements;
+        this.warnEntities = warnEntities;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestQueryStats.Counts counts = RequestQueryStats.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestQueryStats.stop();
+            record(request, counts);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestQueryStats.Counts counts) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(counts.statements);
+        DistributionSummary.builder("http.server.requests.sql.entities")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(counts.entities);
+
+        if (counts.statements > warnStatements || counts.entities > warnEntities) {
+            log.warn("{} {} ran {} SQL statements and loaded {} entities (possible N+1 query)",
+                    method, request.getRequestURI(), counts.statements, counts.entities);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.expensetracker.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Cold copy of an expense older than the archive horizon (see ExpenseArchiveService). Rows keep
+// their original ids and carry plain user/source ids instead of foreign keys, so the table has a
+// single secondary index and is never touched by expense writes: an archived expense is moved back
+// to the hot table before it is edited or deleted.
+@Data
+@Entity
+@Table(name = "expenses_archive",
+        indexes = @Index(name = "idx_expenses_archive_user_date", columnList = "user_id, transaction_date"))
+public class ArchivedExpense {
+
+    @Id
+    private Integer id;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "source_id", nullable = false)
+    private Integer sourceId;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private String vendor;
+
+    @Column(nullable = false)
+    private String category;
+
+    @Lob
+    private String description;
+
+    @Column(name = "transaction_date", nullable = false)
+    private LocalDate transactionDate;
+
+    @Column(name = "receipt_image_url")
+    private String receiptImageUrl;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
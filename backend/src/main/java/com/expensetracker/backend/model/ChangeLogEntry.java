@@ -0,0 +1,43 @@
+package com.expensetracker.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+// One row per expense or source write, in commit order per user. The id doubles as the sync
+// sequence number behind GET /api/sync; DELETE rows are the tombstones of deleted entities.
+@Data
+@Entity
+@Table(name = "change_log",
+        indexes = @Index(name = "idx_change_log_user_id", columnList = "user_id, id"))
+public class ChangeLogEntry {
+
+    public enum EntityType {
+        EXPENSE, SOURCE
+    }
+
+    public enum Operation {
+        UPSERT, DELETE
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 8)
+    private EntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Integer entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Operation operation;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt = LocalDateTime.now();
+}
@@ -0,0 +1,39 @@
+package com.expensetracker.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Pre-aggregated spend per user, day, source and category. Maintained alongside every expense
+// write so analytics queries scan O(days in range) rows instead of the raw expenses table.
+@Data
+@Entity
+@Table(name = "daily_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_daily_rollup_key",
+                columnNames = {"user_id", "rollup_date", "source_id", "category"}),
+        indexes = @Index(name = "idx_daily_rollup_user_date", columnList = "user_id, rollup_date"))
+public class DailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Column(name = "source_id", nullable = false)
+    private Integer sourceId;
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal total = BigDecimal.ZERO;
+
+    @Column(name = "expense_count", nullable = false)
+    private long expenseCount;
+}
@@ -0,0 +1,67 @@
+package com.expensetracker.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// A template that RecurringExpenseScheduler turns into one expense per occurrence. nextDueDate
+// is the first occurrence not yet materialized (null once past endDate); it only moves forward,
+// in the same transaction that inserts the expenses up to it, which makes every occurrence
+// materialize exactly once.
+@Data
+@Entity
+@Table(name = "recurring_expenses",
+        indexes = {
+                @Index(name = "idx_recurring_expenses_due", columnList = "next_due_date, id"),
+                @Index(name = "idx_recurring_expenses_user_id", columnList = "user_id"),
+                @Index(name = "idx_recurring_expenses_source_id", columnList = "source_id")
+        })
+public class RecurringExpense {
+
+    public enum Frequency {
+        DAILY, WEEKLY, MONTHLY, CRON
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "source_id", nullable = false)
+    private Integer sourceId;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private String vendor;
+
+    @Column(nullable = false)
+    private String category;
+
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Frequency frequency;
+
+    // Spring cron syntax (six fields, seconds first); only the dates it fires on matter.
+    @Column(name = "cron_expression", length = 100)
+    private String cronExpression;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    @Column(name = "next_due_date")
+    private LocalDate nextDueDate;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -0,0 +1,23 @@
+package com.expensetracker.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+// A named, time-limited claim on a piece of background work, so that only one node does it at a
+// time (see LeaseService). A lease whose leaseUntil has passed is free for any node to take.
+@Data
+@Entity
+@Table(name = "scheduler_leases")
+public class SchedulerLease {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false, length = 128)
+    private String owner;
+
+    @Column(name = "lease_until", nullable = false)
+    private LocalDateTime leaseUntil;
+}
@@ -32,6 +32,12 @@ public class Source {
     @Transient
     private BigDecimal currentBalance;
 
+    // Running sum of this source's expenses, kept current by ExpenseService when
+    // balances.running-total.enabled is set. Only ever written with native increments
+    // (see SourceRepository.adjustExpenseTotal), never by flushing the entity.
+    @Column(name = "expense_total", precision = 15, scale = 2, updatable = false)
+    private BigDecimal expenseTotal = BigDecimal.ZERO;
+
     private String color = "#3B82F6";
 
     @Column(name = "alert_threshold", precision = 15, scale = 2)
@@ -45,4 +51,13 @@ public class Source {
 
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = LocalDateTime.now();
+    }
 }
@@ -28,6 +28,11 @@ public class User implements UserDetails {
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Bumped by every write to the user's expenses or sources (see DataVersionService), in the same
+    // transaction. Only ever changed by that native increment, never by flushing the entity.
+    @Column(name = "data_version", updatable = false)
+    private Long dataVersion = 0L;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<Source> sources;
 
@@ -0,0 +1,199 @@
+package com.expensetracker.backend.prediction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Predicts an expense's category from its vendor and description, learning from expenses one at a
+// time (and unlearning deleted or edited ones). Two parts:
+//  - a vendor table: how often each normalized vendor was filed under each category;
+//  - a multinomial naive Bayes model over the words of vendor and description, with add-one smoothing.
+// Words and vendors are kept as 64-bit hashes in primitive maps, so a prediction hashes the text in
+// place and only allocates two small arrays.
+final class CategoryModel {
+
+    // Words looked at per expense; later words of long descriptions are ignored.
+    private static final int MAX_TOKENS = 64;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    // Vendor keys are hashed with a different seed than words, so "shell" the vendor and "shell"
+    // the word never share a slot.
+    private static final long VENDOR_SEED = 0x84222325cbf29ce4L;
+
+    private final List<String> categories = new ArrayList<>();
+    private final Map<String, Integer> categoryIndex = new HashMap<>();
+    private final List<LongIntMap> tokenCounts = new ArrayList<>();
+    private final List<LongIntMap> vendorCounts = new ArrayList<>();
+    private int[] docs = new int[8];
+    private long[] tokenTotals = new long[8];
+    // Number of categories each word occurs in; its size is the vocabulary size.
+    private final LongIntMap vocabulary = new LongIntMap();
+    private int totalDocs;
+
+    synchronized int size() {
+        return totalDocs;
+    }
+
+    // Counts the expense towards its category (delta 1) or takes it back out (delta -1).
+    synchronized void learn(String vendor, String description, String category, int delta) {
+        if (category == null || category.isBlank()) {
+            return;
+        }
+        int c = categoryIndex.computeIfAbsent(category, this::addCategory);
+        if (delta < 0 && docs[c] == 0) {
+            return;
+        }
+        docs[c] += delta;
+        totalDocs += delta;
+        long vendorKey = vendorKey(vendor);
+        if (vendorKey != 0) {
+            vendorCounts.get(c).add(vendorKey, delta);
+        }
+        long[] tokens = new long[MAX_TOKENS];
+        int count = tokenize(description, tokenize(vendor, 0, tokens), tokens);
+        LongIntMap counts = tokenCounts.get(c);
+        for (int i = 0; i < count; i++) {
+            int before = counts.get(tokens[i]);
+            int after = counts.add(tokens[i], delta);
+            tokenTotals[c] += after - before;
+            if (before == 0 && after > 0) {
+                vocabulary.add(tokens[i], 1);
+            } else if (before > 0 && after == 0) {
+                vocabulary.add(tokens[i], -1);
+            }
+        }
+    }
+
+    // The vendor table answers when the vendor has been seen at least minVendorCount times and
+    // mostly under one category; otherwise naive Bayes answers once the model has seen minDocs
+    // expenses. Null when neither is confident enough.
+    synchronized CategoryPrediction predict(String vendor, String description, int minVendorCount, int minDocs, double minConfidence) {
+        int categoryCount = categories.size();
+        if (totalDocs == 0) {
+            return null;
+        }
+        long vendorKey = vendorKey(vendor);
+        if (vendorKey != 0) {
+            int best = -1;
+            int bestCount = 0;
+            int total = 0;
+            for (int c = 0; c < categoryCount; c++) {
+                int n = vendorCounts.get(c).get(vendorKey);
+                total += n;
+                if (n > bestCount) {
+                    best = c;
+                    bestCount = n;
+                }
+            }
+            if (total >= minVendorCount && (double) bestCount / total >= minConfidence) {
+                return new CategoryPrediction(categories.get(best), (double) bestCount / total, CategoryPrediction.Basis.VENDOR);
+            }
+        }
+        if (totalDocs < minDocs) {
+            return null;
+        }
+
+        long[] tokens = new long[MAX_TOKENS];
+        int count = tokenize(description, tokenize(vendor, 0, tokens), tokens);
+        if (count == 0) {
+            return null;
+        }
+        double[] scores = new double[categoryCount];
+        int vocabularySize = vocabulary.size() + 1;
+        int activeCategories = 0;
+        for (int c = 0; c < categoryCount; c++) {
+            if (docs[c] > 0) {
+                activeCategories++;
+            }
+        }
+        int best = -1;
+        for (int c = 0; c < categoryCount; c++) {
+            if (docs[c] == 0) {
+                scores[c] = Double.NEGATIVE_INFINITY;
+                continue;
+            }
+            LongIntMap counts = tokenCounts.get(c);
+            double denominator = Math.log(tokenTotals[c] + vocabularySize);
+            double score = Math.log((docs[c] + 1.0) / (totalDocs + activeCategories));
+            for (int i = 0; i < count; i++) {
+                score += Math.log(counts.get(tokens[i]) + 1.0) - denominator;
+            }
+            scores[c] = score;
+            if (best < 0 || score > scores[best]) {
+                best = c;
+            }
+        }
+        double sum = 0;
+        for (int c = 0; c < categoryCount; c++) {
+            sum += Math.exp(scores[c] - scores[best]);
+        }
+        double confidence = 1 / sum;
+        return confidence >= minConfidence ? new CategoryPrediction(categories.get(best), confidence, CategoryPrediction.Basis.TEXT) : null;
+    }
+
+    private int addCategory(String category) {
+        int c = categories.size();
+        categories.add(category);
+        tokenCounts.add(new LongIntMap());
+        vendorCounts.add(new LongIntMap());
+        if (c == docs.length) {
+            docs = Arrays.copyOf(docs, c * 2);
+            tokenTotals = Arrays.copyOf(tokenTotals, c * 2);
+        }
+        return c;
+    }
+
+    // Hash of the whole vendor, lower-cased with runs of non-alphanumerics collapsed; 0 for none.
+    static long vendorKey(String vendor) {
+        if (vendor == null) {
+            return 0;
+        }
+        long hash = VENDOR_SEED;
+        boolean any = false;
+        boolean separator = false;
+        for (int i = 0; i < vendor.length(); i++) {
+            char ch = vendor.charAt(i);
+            if (Character.isLetterOrDigit(ch)) {
+                if (separator && any) {
+                    hash = (hash ^ ' ') * FNV_PRIME;
+                }
+                hash = (hash ^ Character.toLowerCase(ch)) * FNV_PRIME;
+                any = true;
+                separator = false;
+            } else {
+                separator = true;
+            }
+        }
+        return any ? nonZero(hash) : 0;
+    }
+
+    // Appends the hashes of the text's lower-cased words (two or more letters or digits) to tokens,
+    // starting at count, and returns the new count.
+    static int tokenize(String text, int count, long[] tokens) {
+        if (text == null) {
+            return count;
+        }
+        long hash = FNV_OFFSET;
+        int length = 0;
+        for (int i = 0; i <= text.length() && count < tokens.length; i++) {
+            char ch = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(ch)) {
+                hash = (hash ^ Character.toLowerCase(ch)) * FNV_PRIME;
+                length++;
+            } else {
+                if (length >= 2) {
+                    tokens[count++] = nonZero(hash);
+                }
+                hash = FNV_OFFSET;
+                length = 0;
+            }
+        }
+        return count;
+    }
+
+    private static long nonZero(long hash) {
+        return hash == 0 ? 1 : hash;
+    }
+}
@@ -0,0 +1,8 @@
+package com.expensetracker.backend.prediction;
+
+// A predicted category, how sure the model is (0..1), and whether the vendor table or the naive
+// Bayes model over the words produced it.
+public record CategoryPrediction(String category, double confidence, Basis basis) {
+
+    public enum Basis { VENDOR, TEXT }
+}
@@ -0,0 +1,239 @@
+package com.expensetracker.backend.prediction;
+
+import com.expensetracker.backend.cache.CacheInvalidationBroker;
+import com.expensetracker.backend.event.ExpenseChangedEvent;
+import com.expensetracker.backend.event.ExpensesBulkChangedEvent;
+import com.expensetracker.backend.repository.ArchivedExpenseRepository;
+import com.expensetracker.backend.repository.CategorySample;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.service.ExpenseSnapshot;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+// Suggests a category for an expense from the user's own history, falling back to a shared model
+// trained on the most recent expenses of all users. Runs entirely in memory: a user's model is
+// trained from their hot and archived expenses on a small background pool the first time it is
+// asked for, and the shared model answers until it is ready, so no request waits on training.
+// Every model learns from expense writes and statement imports once they commit; other bulk
+// changes and writes on another node drop the user's model instead. Expenses left at
+// DEFAULT_CATEGORY are not learned from, so the fallback never predicts itself. The shared model
+// is retrained daily and stops learning from writes at twice global-samples, which bounds it.
+//
+// A model trained while one of the user's writes commits may count that write twice or miss it;
+// that only nudges the statistics, so it is not guarded against.
+@Slf4j
+@Service
+public class CategoryPredictionService {
+
+    public static final String DEFAULT_CATEGORY = "Uncategorized";
+
+    private static final int USER_MIN_VENDOR_COUNT = 1;
+    private static final int USER_MIN_DOCS = 20;
+    private static final int GLOBAL_MIN_VENDOR_COUNT = 3;
+    private static final int GLOBAL_MIN_DOCS = 200;
+    private static final double MIN_CONFIDENCE = 0.6;
+
+    private final ExpenseRepository expenseRepository;
+    private final ArchivedExpenseRepository archivedExpenseRepository;
+    private final TransactionTemplate primaryRead;
+    private final Cache<Integer, CategoryModel> userModels;
+    private volatile CategoryModel globalModel = new CategoryModel();
+    private final int globalSamples;
+    private final ThreadPoolExecutor trainer;
+    private final Set<Integer> training = ConcurrentHashMap.newKeySet();
+    private final Counter rejected;
+
+    public CategoryPredictionService(ExpenseRepository expenseRepository,
+                                     ArchivedExpenseRepository archivedExpenseRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     CacheInvalidationBroker broker,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${prediction.category.max-expenses:2000000}") long maxExpenses,
+                                     @Value("${prediction.category.expire-after-access:1h}") Duration expireAfterAccess,
+                                     @Value("${prediction.category.global-samples:100000}") int globalSamples,
+                                     @Value("${prediction.category.training-threads:2}") int trainingThreads,
+                                     @Value("${prediction.category.training-queue-capacity:100}") int trainingQueueCapacity) {
+        this.expenseRepository = expenseRepository;
+        this.archivedExpenseRepository = archivedExpenseRepository;
+        // Read-write so training reads from the primary (see ReplicaRoutingConfig).
+        this.primaryRead = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.globalSamples = globalSamples;
+        this.userModels = Caffeine.newBuilder()
+                .maximumWeight(maxExpenses)
+                .weigher((Integer userId, CategoryModel model) -> Math.max(1, model.size()))
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, userModels, "prediction.category");
+        broker.subscribe(userModels::invalidate);
+        AtomicInteger threadIds = new AtomicInteger();
+        this.trainer = new ThreadPoolExecutor(trainingThreads, trainingThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(trainingQueueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "category-model-training-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.rejected = meterRegistry.counter("prediction.category.training.rejected");
+        Gauge.builder("prediction.category.training.queue", trainer, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        trainer.shutdownNow();
+    }
+
+    // The most likely category, or null when neither the user's model nor the shared one is
+    // confident enough.
+    public CategoryPrediction predict(Integer userId, String vendor, String description) {
+        CategoryModel userModel = userModel(userId);
+        CategoryPrediction prediction = userModel != null
+                ? userModel.predict(vendor, description, USER_MIN_VENDOR_COUNT, USER_MIN_DOCS, MIN_CONFIDENCE)
+                : null;
+        if (prediction == null) {
+            prediction = globalModel.predict(vendor, description, GLOBAL_MIN_VENDOR_COUNT, GLOBAL_MIN_DOCS, MIN_CONFIDENCE);
+        }
+        return prediction;
+    }
+
+    public String categoryFor(Integer userId, String vendor, String description) {
+        CategoryPrediction prediction = predict(userId, vendor, description);
+        return prediction != null ? prediction.category() : DEFAULT_CATEGORY;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        CategoryModel globalModel = this.globalModel;
+        learn(globalModel, event.before(), -1);
+        if (globalModel.size() < 2L * globalSamples) {
+            learn(globalModel, event.after(), 1);
+        }
+        CategoryModel userModel = userModels.getIfPresent(event.userId());
+        if (userModel != null) {
+            learn(userModel, event.before(), -1);
+            learn(userModel, event.after(), 1);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpensesBulkChanged(ExpensesBulkChangedEvent event) {
+        if (event.inserted() == null) {
+            userModels.invalidate(event.userId());
+            return;
+        }
+        CategoryModel globalModel = this.globalModel;
+        CategoryModel userModel = userModels.getIfPresent(event.userId());
+        for (ExpenseSnapshot expense : event.inserted()) {
+            if (globalModel.size() < 2L * globalSamples) {
+                learn(globalModel, expense, 1);
+            }
+            if (userModel != null) {
+                learn(userModel, expense, 1);
+            }
+        }
+    }
+
+    // Trains the shared model in the background; until then predictions use user models only.
+    @EventListener(ApplicationReadyEvent.class)
+    public void trainGlobalModel() {
+        Thread.ofVirtual().name("category-model-training-shared").start(this::retrainGlobalModel);
+    }
+
+    // Replaces the shared model with one trained on the most recent expenses, dropping whatever it
+    // learned from writes since the last training. The old model keeps answering meanwhile.
+    @Scheduled(cron = "${prediction.category.global-retrain-cron:0 45 3 * * *}")
+    public void retrainGlobalModel() {
+        CategoryModel trained = new CategoryModel();
+        try {
+            primaryRead.executeWithoutResult(status -> {
+                try (Stream<CategorySample> samples = expenseRepository.streamRecentCategorySamples(Limit.of(globalSamples))) {
+                    samples.forEach(sample -> learn(trained, sample));
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not train the shared category model", e);
+            return;
+        }
+        globalModel = trained;
+        log.info("Trained the shared category model on {} expenses", trained.size());
+    }
+
+    // The user's model, or null while it is (queued to be) trained.
+    private CategoryModel userModel(Integer userId) {
+        CategoryModel model = userModels.getIfPresent(userId);
+        if (model == null && training.add(userId)) {
+            try {
+                trainer.execute(() -> {
+                    try {
+                        train(userId);
+                    } finally {
+                        training.remove(userId);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                training.remove(userId);
+                rejected.increment();
+            }
+        }
+        return model;
+    }
+
+    private void train(Integer userId) {
+        CategoryModel trained = new CategoryModel();
+        try {
+            primaryRead.executeWithoutResult(status -> {
+                try (Stream<CategorySample> samples = expenseRepository.streamCategorySamples(userId)) {
+                    samples.forEach(sample -> learn(trained, sample));
+                }
+                try (Stream<CategorySample> samples = archivedExpenseRepository.streamCategorySamples(userId)) {
+                    samples.forEach(sample -> learn(trained, sample));
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not train the category model of user {}", userId, e);
+            return;
+        }
+        userModels.asMap().putIfAbsent(userId, trained);
+    }
+
+    private static void learn(CategoryModel model, CategorySample sample) {
+        learn(model, sample.getVendor(), sample.getDescription(), sample.getCategory(), 1);
+    }
+
+    private static void learn(CategoryModel model, ExpenseSnapshot expense, int delta) {
+        if (expense != null) {
+            learn(model, expense.vendor(), expense.description(), expense.category(), delta);
+        }
+    }
+
+    private static void learn(CategoryModel model, String vendor, String description, String category, int delta) {
+        if (!DEFAULT_CATEGORY.equals(category)) {
+            model.learn(vendor, description, category, delta);
+        }
+    }
+}
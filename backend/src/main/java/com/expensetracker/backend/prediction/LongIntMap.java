@@ -0,0 +1,96 @@
+package com.expensetracker.backend.prediction;
+
+// Open-addressing map from non-zero long keys (token hashes) to positive int counts, with linear
+// probing and backward-shift deletion. Lookups neither box nor allocate.
+final class LongIntMap {
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    LongIntMap() {
+        keys = new long[16];
+        values = new int[16];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(long key) {
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+        return 0;
+    }
+
+    // Adds delta to the key's count and returns the new count; a count that drops to zero or
+    // below removes the key.
+    int add(long key, int delta) {
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (keys[i] != 0 && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == 0) {
+            if (delta <= 0) {
+                return 0;
+            }
+            keys[i] = key;
+            values[i] = delta;
+            if (++size * 4 > keys.length * 3) {
+                resize();
+            }
+            return delta;
+        }
+        int value = values[i] + delta;
+        if (value > 0) {
+            values[i] = value;
+            return value;
+        }
+        remove(i, mask);
+        return 0;
+    }
+
+    private void remove(int i, int mask) {
+        size--;
+        int gap = i;
+        for (int j = (i + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+            int home = slot(keys[j], mask);
+            // Move the entry back into the gap unless its home slot lies cyclically in (gap, j].
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = 0;
+        values[gap] = 0;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != 0) {
+                int i = slot(oldKeys[j], mask);
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,77 @@
+package com.expensetracker.backend.receipt;
+
+import com.expensetracker.backend.dto.ExpenseDto;
+import com.expensetracker.backend.repository.ArchivedExpenseRepository;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.service.ExpenseService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+// Attaches uploaded receipts to expenses and decides who may download them. An expense stores
+// only its receipt's URL (/api/receipts/<key>); the bytes stay in the ReceiptStore and never pass
+// through JPA or JSON. Since receipts are shared between users who uploaded the same file, a user
+// may read a receipt if one of their own expenses points at it.
+@Service
+public class ReceiptService {
+
+    public static final String URL_PREFIX = "/api/receipts/";
+
+    private final ReceiptStore store;
+    private final ReceiptThumbnailer thumbnailer;
+    private final ExpenseService expenseService;
+    private final ExpenseRepository expenseRepository;
+    private final ArchivedExpenseRepository archivedExpenseRepository;
+    // "userId:key" for recent successful checks, so repeated downloads skip the query. A receipt
+    // stays readable for up to the expiry after its expense is deleted or re-pointed.
+    private final Cache<String, Boolean> readable;
+
+    public ReceiptService(ReceiptStore store,
+                          ReceiptThumbnailer thumbnailer,
+                          ExpenseService expenseService,
+                          ExpenseRepository expenseRepository,
+                          ArchivedExpenseRepository archivedExpenseRepository,
+                          @Value("${receipts.access-cache.expire-after-write:10m}") Duration accessExpiry) {
+        this.store = store;
+        this.thumbnailer = thumbnailer;
+        this.expenseService = expenseService;
+        this.expenseRepository = expenseRepository;
+        this.archivedExpenseRepository = archivedExpenseRepository;
+        this.readable = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(accessExpiry)
+                .build();
+    }
+
+    public ExpenseDto attach(Integer userId, Integer expenseId, InputStream receipt) throws IOException {
+        // Checked before anything is written, so nobody can fill the store with unreferenced files.
+        if (!expenseRepository.existsByIdAndUserId(expenseId, userId)
+                && !archivedExpenseRepository.existsByIdAndUserId(expenseId, userId)) {
+            throw new IllegalArgumentException("Expense not found or user not authorized");
+        }
+        ReceiptStore.StoredReceipt stored = store.store(receipt);
+        ExpenseDto expense = expenseService.attachReceipt(userId, expenseId, URL_PREFIX + stored.key());
+        readable.put(userId + ":" + stored.key(), Boolean.TRUE);
+        thumbnailer.request(stored.key());
+        return expense;
+    }
+
+    public boolean canRead(Integer userId, String key) {
+        String cacheKey = userId + ":" + key;
+        if (readable.getIfPresent(cacheKey) != null) {
+            return true;
+        }
+        String url = URL_PREFIX + key;
+        boolean allowed = expenseRepository.existsByUserIdAndReceiptImageUrl(userId, url)
+                || archivedExpenseRepository.existsByUserIdAndReceiptImageUrl(userId, url);
+        if (allowed) {
+            readable.put(cacheKey, Boolean.TRUE);
+        }
+        return allowed;
+    }
+}
@@ -0,0 +1,173 @@
+package com.expensetracker.backend.receipt;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+// Receipt files on local disk, content-addressed: a receipt's key is the SHA-256 of its bytes plus
+// an extension for its format, so the same file uploaded by several users (or twice) is stored
+// once, and a stored file never changes. Files live under <root>/<first two hex digits>/<key>,
+// with their thumbnail (if any) next to them as <hash>.thumb.jpg.
+//
+// Uploads are streamed to a temporary file while hashed, then renamed into place. Nothing ever
+// holds a whole receipt in memory.
+@Component
+public class ReceiptStore {
+
+    public enum Format {
+        JPEG("jpg", "image/jpeg", true),
+        PNG("png", "image/png", true),
+        WEBP("webp", "image/webp", false),
+        PDF("pdf", "application/pdf", false);
+
+        private final String extension;
+        private final String contentType;
+        private final boolean thumbnailable;
+
+        Format(String extension, String contentType, boolean thumbnailable) {
+            this.extension = extension;
+            this.contentType = contentType;
+            this.thumbnailable = thumbnailable;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public boolean thumbnailable() {
+            return thumbnailable;
+        }
+
+        // Recognizes the format from the file's first bytes; the client's content type is not trusted.
+        static Format detect(byte[] head, int length) {
+            if (length >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF) {
+                return JPEG;
+            }
+            if (length >= 8 && (head[0] & 0xFF) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G') {
+                return PNG;
+            }
+            if (length >= 12 && head[0] == 'R' && head[1] == 'I' && head[2] == 'F' && head[3] == 'F'
+                    && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+                return WEBP;
+            }
+            if (length >= 5 && head[0] == '%' && head[1] == 'P' && head[2] == 'D' && head[3] == 'F' && head[4] == '-') {
+                return PDF;
+            }
+            return null;
+        }
+
+        static Format ofExtension(String extension) {
+            for (Format format : values()) {
+                if (format.extension.equals(extension)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unknown receipt format: " + extension);
+        }
+    }
+
+    public record StoredReceipt(String key, Format format, long size) {
+    }
+
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}\\.(jpg|png|webp|pdf)");
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int HEAD_SIZE = 12;
+
+    private final Path root;
+    private final Path incoming;
+    private final long maxSize;
+
+    public ReceiptStore(@Value("${receipts.store.path:data/receipts}") Path root,
+                        @Value("${receipts.max-size:10MB}") DataSize maxSize) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        this.incoming = this.root.resolve("incoming");
+        this.maxSize = maxSize.toBytes();
+        Files.createDirectories(incoming);
+    }
+
+    // Stores the stream's bytes (or finds them already stored) and returns their key. Throws
+    // IllegalArgumentException for files that are too large or not a supported format.
+    public StoredReceipt store(InputStream input) throws IOException {
+        Path temp = Files.createTempFile(incoming, "upload-", ".tmp");
+        try {
+            MessageDigest sha256 = sha256();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            byte[] head = new byte[HEAD_SIZE];
+            int headLength = 0;
+            long size = 0;
+            try (OutputStream output = Files.newOutputStream(temp)) {
+                for (int n; (n = input.read(buffer)) >= 0; ) {
+                    if (headLength < HEAD_SIZE) {
+                        int copied = Math.min(n, HEAD_SIZE - headLength);
+                        System.arraycopy(buffer, 0, head, headLength, copied);
+                        headLength += copied;
+                    }
+                    size += n;
+                    if (size > maxSize) {
+                        throw new IllegalArgumentException("Receipts may be at most " + DataSize.ofBytes(maxSize).toMegabytes() + " MB");
+                    }
+                    sha256.update(buffer, 0, n);
+                    output.write(buffer, 0, n);
+                }
+            }
+            Format format = Format.detect(head, headLength);
+            if (format == null) {
+                throw new IllegalArgumentException("Receipts must be JPEG, PNG, WebP or PDF files");
+            }
+
+            String key = HexFormat.of().formatHex(sha256.digest()) + "." + format.extension;
+            Path target = path(key);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                // Another upload of the same bytes may get there first; replacing it changes nothing.
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return new StoredReceipt(key, format, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Throws IllegalArgumentException unless the key is one this store could have produced, so
+    // keys taken from URLs can never reach outside the store.
+    public Path path(String key) {
+        if (key == null || !KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid receipt key");
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    public Path thumbnailPath(String key) {
+        Path original = path(key);
+        return original.resolveSibling(key.substring(0, key.indexOf('.')) + ".thumb.jpg");
+    }
+
+    public Format format(String key) {
+        path(key);
+        return Format.ofExtension(key.substring(key.indexOf('.') + 1));
+    }
+
+    // A fresh temporary file on the store's file system, for writers that rename into place.
+    Path createTempFile() throws IOException {
+        return Files.createTempFile(incoming, "write-", ".tmp");
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.expensetracker.backend.receipt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Makes JPEG thumbnails of image receipts on a small pool with a bounded queue. When the queue is
+// full the request is dropped (and counted); the thumbnail is requested again the next time it is
+// asked for and missing. Images are decoded subsampled, close to twice the thumbnail size, so even
+// a huge photo never needs its full-resolution bitmap in memory.
+@Slf4j
+@Component
+public class ReceiptThumbnailer {
+
+    static final int MAX_DIMENSION = 320;
+
+    private final ReceiptStore store;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    // Receipts whose image could not be decoded recently, so they are not retried on every request.
+    private final Cache<String, Boolean> failed = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+    private final Counter rejected;
+
+    public ReceiptThumbnailer(ReceiptStore store,
+                              @Value("${receipts.thumbnails.threads:2}") int threads,
+                              @Value("${receipts.thumbnails.queue-capacity:200}") int queueCapacity,
+                              MeterRegistry meterRegistry) {
+        this.store = store;
+        AtomicInteger threadIds = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "receipt-thumbnails-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.rejected = meterRegistry.counter("receipts.thumbnails.rejected");
+        Gauge.builder("receipts.thumbnails.queue", executor, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    // Queues a thumbnail for the receipt unless it has one, cannot have one, or is already queued.
+    public void request(String key) {
+        if (!store.format(key).thumbnailable() || Files.exists(store.thumbnailPath(key))
+                || failed.getIfPresent(key) != null || !pending.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(key);
+                } finally {
+                    pending.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(key);
+            rejected.increment();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void generate(String key) {
+        Path temp = null;
+        try (ImageInputStream input = ImageIO.createImageInputStream(store.path(key).toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                failed.put(key, Boolean.TRUE);
+                return;
+            }
+            ImageReader reader = readers.next();
+            BufferedImage image;
+            try {
+                reader.setInput(input, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longest / (MAX_DIMENSION * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                image = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+
+            double scale = Math.min(1.0, (double) MAX_DIMENSION / Math.max(image.getWidth(), image.getHeight()));
+            int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+            int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+            BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = thumbnail.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(image, 0, 0, width, height, Color.WHITE, null);
+            } finally {
+                graphics.dispose();
+            }
+
+            temp = store.createTempFile();
+            if (ImageIO.write(thumbnail, "jpg", temp.toFile())) {
+                Files.move(temp, store.thumbnailPath(key), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            // E.g. CMYK JPEGs, which ImageIO cannot read; such receipts are shown without a thumbnail.
+            failed.put(key, Boolean.TRUE);
+            log.debug("Could not make a thumbnail for receipt {}: {}", key, e.toString());
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Only a stray temporary file.
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.expensetracker.backend.repository;
+
+import com.expensetracker.backend.dto.ExpenseDto;
+import com.expensetracker.backend.model.ArchivedExpense;
+import com.expensetracker.backend.service.ExpenseSnapshot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Archive-side counterparts of the ExpenseRepository queries. ExpenseService, BalanceService and
+// RollupService combine them with the hot table whenever a query can reach archived dates.
+public interface ArchivedExpenseRepository extends JpaRepository<ArchivedExpense, Integer> {
+
+    String DTO_SELECT = "SELECT new com.expensetracker.backend.dto.ExpenseDto(" +
+            "a.id, s.id, s.name, a.amount, a.vendor, a.category, a.description, a.transactionDate, a.receiptImageUrl) " +
+            "FROM ArchivedExpense a JOIN Source s ON s.id = a.sourceId ";
+
+    String FILTER = "WHERE a.userId = :userId " +
+            "AND a.transactionDate BETWEEN :startDate AND :endDate " +
+            "AND (:category IS NULL OR a.category = :category) " +
+            "AND (:allSources = true OR a.sourceId IN :sourceIds) ";
+
+    // One seek on idx_expenses_archive_user_date.
+    @Query("SELECT MAX(a.transactionDate) FROM ArchivedExpense a WHERE a.userId = :userId")
+    LocalDate findLatestTransactionDate(@Param("userId") Integer userId);
+
+    @Query(DTO_SELECT + "WHERE a.userId = :userId AND a.id IN :ids")
+    List<ExpenseDto> findByUserIdAndIdIn(@Param("userId") Integer userId, @Param("ids") List<Integer> ids);
+
+    @Query(DTO_SELECT + FILTER + "ORDER BY a.transactionDate DESC, a.id DESC")
+    List<ExpenseDto> findFiltered(@Param("userId") Integer userId,
+                                  @Param("startDate") LocalDate startDate,
+                                  @Param("endDate") LocalDate endDate,
+                                  @Param("category") String category,
+                                  @Param("allSources") boolean allSources,
+                                  @Param("sourceIds") List<Integer> sourceIds);
+
+    @Query(DTO_SELECT + FILTER +
+            "AND (a.transactionDate < :afterDate OR (a.transactionDate = :afterDate AND a.id < :afterId)) " +
+            "ORDER BY a.transactionDate DESC, a.id DESC")
+    List<ExpenseDto> findPageAfter(@Param("userId") Integer userId,
+                                   @Param("startDate") LocalDate startDate,
+                                   @Param("endDate") LocalDate endDate,
+                                   @Param("category") String category,
+                                   @Param("allSources") boolean allSources,
+                                   @Param("sourceIds") List<Integer> sourceIds,
+                                   @Param("afterDate") LocalDate afterDate,
+                                   @Param("afterId") Integer afterId,
+                                   Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(DTO_SELECT + FILTER + "ORDER BY a.transactionDate DESC, a.id DESC")
+    Stream<ExpenseDto> streamFiltered(@Param("userId") Integer userId,
+                                      @Param("startDate") LocalDate startDate,
+                                      @Param("endDate") LocalDate endDate,
+                                      @Param("category") String category,
+                                      @Param("allSources") boolean allSources,
+                                      @Param("sourceIds") List<Integer> sourceIds);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.vendor AS vendor, a.description AS description, a.category AS category FROM ArchivedExpense a " +
+            "WHERE a.userId = :userId")
+    Stream<CategorySample> streamCategorySamples(@Param("userId") Integer userId);
+
+    @Query("SELECT a.vendor AS vendor, COUNT(a) AS count FROM ArchivedExpense a WHERE a.userId = :userId GROUP BY a.vendor")
+    List<VendorCount> countByVendorForUser(@Param("userId") Integer userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.expensetracker.backend.service.ExpenseSnapshot(a.id, a.userId, a.sourceId, a.amount, " +
+            "a.vendor, a.category, a.description, a.transactionDate) FROM ArchivedExpense a WHERE a.userId = :userId")
+    Stream<ExpenseSnapshot> streamSearchSnapshots(@Param("userId") Integer userId);
+
+    @Query("SELECT COALESCE(SUM(a.amount), 0) FROM ArchivedExpense a WHERE a.sourceId = :sourceId")
+    BigDecimal sumAmountBySourceId(@Param("sourceId") Integer sourceId);
+
+    @Query("SELECT a.sourceId AS sourceId, SUM(a.amount) AS total FROM ArchivedExpense a " +
+            "WHERE a.userId = :userId GROUP BY a.sourceId")
+    List<SourceTotal> sumAmountsGroupedBySourceForUser(@Param("userId") Integer userId);
+
+    @Query("SELECT a.sourceId AS sourceId, SUM(a.amount) AS total FROM ArchivedExpense a " +
+            "WHERE a.sourceId IN :sourceIds GROUP BY a.sourceId")
+    List<SourceTotal> sumAmountsGroupedBySourceIds(@Param("sourceIds") List<Integer> sourceIds);
+
+    @Query("SELECT a.transactionDate AS day, a.sourceId AS sourceId, a.category AS category, " +
+            "SUM(a.amount) AS total, COUNT(a) AS count FROM ArchivedExpense a WHERE a.userId = :userId " +
+            "GROUP BY a.transactionDate, a.sourceId, a.category")
+    List<RollupTotals.ByKey> aggregateDailyByUserId(@Param("userId") Integer userId);
+
+    // Copies hot rows into the archive. The date condition is repeated here and in
+    // ExpenseRepository.deleteArchived so a row re-dated after it was selected stays hot.
+    @Modifying
+    @Query(value = "INSERT INTO expenses_archive " +
+            "(id, user_id, source_id, amount, vendor, category, description, transaction_date, receipt_image_url, created_at) " +
+            "SELECT id, user_id, source_id, amount, vendor, category, description, transaction_date, receipt_image_url, created_at " +
+            "FROM expenses WHERE id IN (:ids) AND transaction_date < :cutoff", nativeQuery = true)
+    int copyFromExpenses(@Param("ids") List<Integer> ids, @Param("cutoff") LocalDate cutoff);
+
+    // Copies the user's archived rows back into the hot table (see ExpenseArchiveService.restore).
+    @Modifying
+    @Query(value = "INSERT INTO expenses " +
+            "(id, user_id, source_id, amount, vendor, category, description, transaction_date, receipt_image_url, created_at) " +
+            "SELECT id, user_id, source_id, amount, vendor, category, description, transaction_date, receipt_image_url, created_at " +
+            "FROM expenses_archive WHERE user_id = :userId AND id IN (:ids)", nativeQuery = true)
+    int copyToExpenses(@Param("userId") Integer userId, @Param("ids") Collection<Integer> ids);
+
+    @Modifying
+    @Query("DELETE FROM ArchivedExpense a WHERE a.userId = :userId AND a.id IN :ids")
+    int deleteRestored(@Param("userId") Integer userId, @Param("ids") Collection<Integer> ids);
+
+    // --- Bulk deletes (see BulkDeleter) ---
+
+    @Query("SELECT a.id FROM ArchivedExpense a WHERE a.sourceId = :sourceId ORDER BY a.id")
+    List<Integer> findIdsBySourceId(@Param("sourceId") Integer sourceId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ArchivedExpense a WHERE a.sourceId = :sourceId AND a.id <= :maxId")
+    int deleteBySourceIdUpTo(@Param("sourceId") Integer sourceId, @Param("maxId") Integer maxId);
+
+    @Modifying
+    @Query("DELETE FROM ArchivedExpense a WHERE a.sourceId = :sourceId")
+    int deleteAllBySourceId(@Param("sourceId") Integer sourceId);
+
+    @Query("SELECT a.id FROM ArchivedExpense a WHERE a.userId = :userId ORDER BY a.id")
+    List<Integer> findIdsByUserId(@Param("userId") Integer userId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ArchivedExpense a WHERE a.userId = :userId AND a.id <= :maxId")
+    int deleteByUserIdUpTo(@Param("userId") Integer userId, @Param("maxId") Integer maxId);
+
+    @Modifying
+    @Query("DELETE FROM ArchivedExpense a WHERE a.userId = :userId")
+    int deleteAllByUserId(@Param("userId") Integer userId);
+
+    @Query("SELECT COUNT(a) > 0 FROM ArchivedExpense a WHERE a.id = :id AND a.userId = :userId")
+    boolean existsByIdAndUserId(@Param("id") Integer id, @Param("userId") Integer userId);
+
+    @Query("SELECT COUNT(a) > 0 FROM ArchivedExpense a WHERE a.userId = :userId AND a.receiptImageUrl = :url")
+    boolean existsByUserIdAndReceiptImageUrl(@Param("userId") Integer userId, @Param("url") String url);
+}
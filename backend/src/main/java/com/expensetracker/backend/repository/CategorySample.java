@@ -0,0 +1,10 @@
+package com.expensetracker.backend.repository;
+
+// Projection of the fields category prediction learns from.
+public interface CategorySample {
+    String getVendor();
+
+    String getDescription();
+
+    String getCategory();
+}
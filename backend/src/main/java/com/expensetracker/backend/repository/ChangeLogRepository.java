@@ -0,0 +1,41 @@
+package com.expensetracker.backend.repository;
+
+import com.expensetracker.backend.model.ChangeLogEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+    // Keyset page of a user's changes after the given sequence number.
+    @Query("SELECT c FROM ChangeLogEntry c WHERE c.userId = :userId AND c.id > :afterId ORDER BY c.id")
+    List<ChangeLogEntry> findPageAfter(@Param("userId") Integer userId, @Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM ChangeLogEntry c WHERE c.userId = :userId")
+    Long findLatestId(@Param("userId") Integer userId);
+
+    @Query("SELECT MIN(c.id) FROM ChangeLogEntry c WHERE c.userId = :userId AND c.changedAt > :changedAt")
+    Long findFirstIdChangedAfter(@Param("userId") Integer userId, @Param("changedAt") LocalDateTime changedAt);
+
+    // One statement per import batch instead of one insert per expense.
+    @Modifying
+    @Query(value = "INSERT INTO change_log (user_id, entity_type, entity_id, operation, changed_at) " +
+            "SELECT user_id, 'EXPENSE', id, 'UPSERT', :changedAt FROM expenses WHERE id IN (:ids)", nativeQuery = true)
+    int insertExpenseUpserts(@Param("ids") List<Integer> ids, @Param("changedAt") LocalDateTime changedAt);
+
+    @Query("SELECT c.id FROM ChangeLogEntry c WHERE c.changedAt < :cutoff ORDER BY c.id")
+    List<Long> findIdsOlderThan(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM ChangeLogEntry c WHERE c.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM ChangeLogEntry c WHERE c.userId = :userId")
+    int deleteAllByUserId(@Param("userId") Integer userId);
+}
@@ -0,0 +1,87 @@
+package com.expensetracker.backend.repository;
+
+import com.expensetracker.backend.model.DailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyRollupRepository extends JpaRepository<DailyRollup, Long> {
+
+    @Modifying
+    @Query("UPDATE DailyRollup r SET r.total = r.total + :delta, r.expenseCount = r.expenseCount + :count " +
+            "WHERE r.userId = :userId AND r.rollupDate = :day AND r.sourceId = :sourceId AND r.category = :category")
+    int increment(@Param("userId") Integer userId,
+                  @Param("day") LocalDate day,
+                  @Param("sourceId") Integer sourceId,
+                  @Param("category") String category,
+                  @Param("delta") BigDecimal delta,
+                  @Param("count") long count);
+
+    // Adds to the key's row, creating it if missing, in one statement inside the caller's transaction.
+    // RollupService picks the variant for the database.
+    @Modifying
+    @Query(value = "INSERT INTO daily_rollups (user_id, rollup_date, source_id, category, total, expense_count) " +
+            "VALUES (:userId, :day, :sourceId, :category, :delta, :count) " +
+            "ON DUPLICATE KEY UPDATE total = total + :delta, expense_count = expense_count + :count", nativeQuery = true)
+    int upsertMySql(@Param("userId") Integer userId,
+                    @Param("day") LocalDate day,
+                    @Param("sourceId") Integer sourceId,
+                    @Param("category") String category,
+                    @Param("delta") BigDecimal delta,
+                    @Param("count") long count);
+
+    @Modifying
+    @Query(value = "INSERT INTO daily_rollups (user_id, rollup_date, source_id, category, total, expense_count) " +
+            "VALUES (:userId, :day, :sourceId, :category, :delta, :count) " +
+            "ON CONFLICT (user_id, rollup_date, source_id, category) DO UPDATE " +
+            "SET total = daily_rollups.total + EXCLUDED.total, expense_count = daily_rollups.expense_count + EXCLUDED.expense_count",
+            nativeQuery = true)
+    int upsertPostgres(@Param("userId") Integer userId,
+                       @Param("day") LocalDate day,
+                       @Param("sourceId") Integer sourceId,
+                       @Param("category") String category,
+                       @Param("delta") BigDecimal delta,
+                       @Param("count") long count);
+
+    @Query("SELECT r.rollupDate AS day, SUM(r.total) AS total, SUM(r.expenseCount) AS count FROM DailyRollup r " +
+            "WHERE r.userId = :userId AND r.rollupDate BETWEEN :from AND :to " +
+            "GROUP BY r.rollupDate ORDER BY r.rollupDate")
+    List<RollupTotals.ByDay> sumByDay(@Param("userId") Integer userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT r.category AS category, SUM(r.total) AS total, SUM(r.expenseCount) AS count FROM DailyRollup r " +
+            "WHERE r.userId = :userId AND r.rollupDate BETWEEN :from AND :to " +
+            "GROUP BY r.category ORDER BY SUM(r.total) DESC")
+    List<RollupTotals.ByCategory> sumByCategory(@Param("userId") Integer userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT r.sourceId AS sourceId, SUM(r.total) AS total, SUM(r.expenseCount) AS count FROM DailyRollup r " +
+            "WHERE r.userId = :userId AND r.rollupDate BETWEEN :from AND :to " +
+            "GROUP BY r.sourceId ORDER BY SUM(r.total) DESC")
+    List<RollupTotals.BySource> sumBySource(@Param("userId") Integer userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT r.rollupDate AS day, r.sourceId AS sourceId, r.category AS category, r.total AS total, r.expenseCount AS count " +
+            "FROM DailyRollup r WHERE r.userId = :userId AND r.expenseCount <> 0")
+    List<RollupTotals.ByKey> findNonEmptyByUserId(@Param("userId") Integer userId);
+
+    @Modifying
+    @Query("DELETE FROM DailyRollup r WHERE r.userId = :userId")
+    int deleteAllByUserId(@Param("userId") Integer userId);
+
+    @Modifying
+    @Query("DELETE FROM DailyRollup r WHERE r.sourceId = :sourceId")
+    int deleteAllBySourceId(@Param("sourceId") Integer sourceId);
+
+    // Recomputes a user's rollups straight from the expenses and expenses_archive tables in one statement.
+    @Modifying
+    @Query(value = "INSERT INTO daily_rollups (user_id, rollup_date, source_id, category, total, expense_count) " +
+            "SELECT user_id, transaction_date, source_id, category, SUM(amount), COUNT(*) FROM (" +
+            "SELECT user_id, transaction_date, source_id, category, amount FROM expenses WHERE user_id = :userId " +
+            "UNION ALL " +
+            "SELECT user_id, transaction_date, source_id, category, amount FROM expenses_archive WHERE user_id = :userId" +
+            ") e GROUP BY user_id, transaction_date, source_id, category", nativeQuery = true)
+    int rebuildForUser(@Param("userId") Integer userId);
+}
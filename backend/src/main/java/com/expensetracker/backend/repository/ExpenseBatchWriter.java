@@ -0,0 +1,91 @@
+package com.expensetracker.backend.repository;
+
+import com.expensetracker.backend.service.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Inserts expenses with a single JDBC batch per call. Expense uses IDENTITY ids, which makes
+// Hibernate insert one row per statement, so high-volume paths (statement import, recurring
+// expenses) write here instead of going through ExpenseRepository.save.
+@Repository
+@RequiredArgsConstructor
+public class ExpenseBatchWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO expenses (user_id, source_id, amount, vendor, category, description, transaction_date, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // amountCents: see Money.
+    public record Row(long amountCents, String vendor, String category, String description, LocalDate transactionDate) {
+    }
+
+    // A row together with the user and source it belongs to, for batches that span several.
+    public record OwnedRow(Integer userId, Integer sourceId, Row row) {
+    }
+
+    // Must run inside a transaction. Returns the generated ids in the same order as rows.
+    public List<Integer> insert(Integer userId, Integer sourceId, List<Row> rows) {
+        return insert(rows.stream().map(row -> new OwnedRow(userId, sourceId, row)).toList());
+    }
+
+    // Same, for rows of any number of users and sources (recurring expenses).
+    public List<Integer> insert(List<OwnedRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keys = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        OwnedRow owned = rows.get(i);
+                        Row row = owned.row();
+                        ps.setInt(1, owned.userId());
+                        ps.setInt(2, owned.sourceId());
+                        ps.setBigDecimal(3, Money.toBigDecimal(row.amountCents()));
+                        ps.setString(4, row.vendor());
+                        ps.setString(5, row.category());
+                        if (row.description() == null) {
+                            ps.setNull(6, Types.CLOB);
+                        } else {
+                            ps.setString(6, row.description());
+                        }
+                        ps.setObject(7, row.transactionDate());
+                        ps.setTimestamp(8, now);
+                        ps.setTimestamp(9, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                },
+                keys);
+
+        List<Integer> ids = new ArrayList<>(rows.size());
+        for (Map<String, Object> key : keys.getKeyList()) {
+            Object id = key.values().iterator().next();
+            ids.add(((Number) id).intValue());
+        }
+        return ids;
+    }
+}
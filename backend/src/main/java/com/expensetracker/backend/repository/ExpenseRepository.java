@@ -1,25 +1,168 @@
 package com.expensetracker.backend.repository;
 
+import com.expensetracker.backend.dto.ExpenseDto;
 import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.service.ExpenseSnapshot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ExpenseRepository extends JpaRepository<Expense, Integer> {
 
-    List<Expense> findByUserIdAndTransactionDateBetween(Integer userId, LocalDate startDate, LocalDate endDate);
+    // Read paths select straight into ExpenseDto with a single join on Source, so listings never
+    // create managed Expense entities or lazy Source proxies (and need no open session to render).
+    String DTO_SELECT = "SELECT new com.expensetracker.backend.dto.ExpenseDto(" +
+            "e.id, s.id, s.name, e.amount, e.vendor, e.category, e.description, e.transactionDate, e.receiptImageUrl) " +
+            "FROM Expense e JOIN e.source s ";
 
-    List<Expense> findByUserIdAndCategoryAndTransactionDateBetween(Integer userId, String category, LocalDate startDate, LocalDate endDate);
+    @Query(DTO_SELECT + "WHERE e.user.id = :userId AND e.transactionDate BETWEEN :startDate AND :endDate")
+    List<ExpenseDto> findByUserIdAndTransactionDateBetween(@Param("userId") Integer userId,
+                                                           @Param("startDate") LocalDate startDate,
+                                                           @Param("endDate") LocalDate endDate);
 
-    List<Expense> findByUserIdAndSourceIdInAndTransactionDateBetween(Integer userId, List<Integer> sourceIds, LocalDate startDate, LocalDate endDate);
+    @Query(DTO_SELECT + "WHERE e.user.id = :userId AND e.category = :category " +
+            "AND e.transactionDate BETWEEN :startDate AND :endDate")
+    List<ExpenseDto> findByUserIdAndCategoryAndTransactionDateBetween(@Param("userId") Integer userId,
+                                                                      @Param("category") String category,
+                                                                      @Param("startDate") LocalDate startDate,
+                                                                      @Param("endDate") LocalDate endDate);
+
+    @Query(DTO_SELECT + "WHERE e.user.id = :userId AND s.id IN :sourceIds " +
+            "AND e.transactionDate BETWEEN :startDate AND :endDate")
+    List<ExpenseDto> findByUserIdAndSourceIdInAndTransactionDateBetween(@Param("userId") Integer userId,
+                                                                        @Param("sourceIds") List<Integer> sourceIds,
+                                                                        @Param("startDate") LocalDate startDate,
+                                                                        @Param("endDate") LocalDate endDate);
+
+    @Query(DTO_SELECT + "WHERE e.user.id = :userId AND e.id IN :ids")
+    List<ExpenseDto> findByUserIdAndIdIn(@Param("userId") Integer userId, @Param("ids") List<Integer> ids);
+
+    @Query("SELECT e.vendor AS vendor, COUNT(e) AS count FROM Expense e WHERE e.user.id = :userId GROUP BY e.vendor")
+    List<VendorCount> countByVendorForUser(@Param("userId") Integer userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT e.vendor AS vendor, e.description AS description, e.category AS category FROM Expense e " +
+            "WHERE e.user.id = :userId")
+    Stream<CategorySample> streamCategorySamples(@Param("userId") Integer userId);
+
+    // The most recent expenses of all users, for the shared category model.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT e.vendor AS vendor, e.description AS description, e.category AS category FROM Expense e " +
+            "ORDER BY e.id DESC")
+    Stream<CategorySample> streamRecentCategorySamples(Limit limit);
+
+    // Everything the search index needs for a user's expenses. Must be consumed inside a transaction.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.expensetracker.backend.service.ExpenseSnapshot(e.id, e.user.id, e.source.id, e.amount, " +
+            "e.vendor, e.category, e.description, e.transactionDate) FROM Expense e WHERE e.user.id = :userId")
+    Stream<ExpenseSnapshot> streamSearchSnapshots(@Param("userId") Integer userId);
+
+    // Raw equivalent of a user's daily_rollups, used to check the rollups for drift.
+    @Query("SELECT e.transactionDate AS day, e.source.id AS sourceId, e.category AS category, " +
+            "SUM(e.amount) AS total, COUNT(e) AS count FROM Expense e WHERE e.user.id = :userId " +
+            "GROUP BY e.transactionDate, e.source.id, e.category")
+    List<RollupTotals.ByKey> aggregateDailyByUserId(@Param("userId") Integer userId);
+
+    // --- Bulk deletes ---
+    // Large deletes run in chunks: look up the id at offset chunkSize-1 (the chunk boundary),
+    // then delete every row up to it with one statement. See BulkDeleter.
+
+    @Query("SELECT e.id FROM Expense e WHERE e.source.id = :sourceId ORDER BY e.id")
+    List<Integer> findIdsBySourceId(@Param("sourceId") Integer sourceId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Expense e WHERE e.source.id = :sourceId AND e.id <= :maxId")
+    int deleteBySourceIdUpTo(@Param("sourceId") Integer sourceId, @Param("maxId") Integer maxId);
+
+    @Modifying
+    @Query("DELETE FROM Expense e WHERE e.source.id = :sourceId")
+    int deleteAllBySourceId(@Param("sourceId") Integer sourceId);
+
+    @Query("SELECT e.id FROM Expense e WHERE e.user.id = :userId ORDER BY e.id")
+    List<Integer> findIdsByUserId(@Param("userId") Integer userId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Expense e WHERE e.user.id = :userId AND e.id <= :maxId")
+    int deleteByUserIdUpTo(@Param("userId") Integer userId, @Param("maxId") Integer maxId);
+
+    @Modifying
+    @Query("DELETE FROM Expense e WHERE e.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") Integer userId);
+
+    // --- Archival (see ExpenseArchiveService) ---
+
+    @Query("SELECT e.id FROM Expense e WHERE e.transactionDate < :cutoff ORDER BY e.id")
+    List<Integer> findIdsOlderThan(@Param("cutoff") LocalDate cutoff, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM Expense e WHERE e.id IN :ids AND e.transactionDate < :cutoff")
+    int deleteArchived(@Param("ids") List<Integer> ids, @Param("cutoff") LocalDate cutoff);
+
+    // Keyset page over (transactionDate DESC, id DESC): returns the rows strictly after the
+    // (afterDate, afterId) cursor. A null category means "any"; allSources ignores sourceIds.
+    @Query(DTO_SELECT + "WHERE e.user.id = :userId " +
+            "AND e.transactionDate BETWEEN :startDate AND :endDate " +
+            "AND (:category IS NULL OR e.category = :category) " +
+            "AND (:allSources = true OR s.id IN :sourceIds) " +
+            "AND (e.transactionDate < :afterDate OR (e.transactionDate = :afterDate AND e.id < :afterId)) " +
+            "ORDER BY e.transactionDate DESC, e.id DESC")
+    List<ExpenseDto> findPageAfter(@Param("userId") Integer userId,
+                                @Param("startDate") LocalDate startDate,
+                                @Param("endDate") LocalDate endDate,
+                                @Param("category") String category,
+                                @Param("allSources") boolean allSources,
+                                @Param("sourceIds") List<Integer> sourceIds,
+                                @Param("afterDate") LocalDate afterDate,
+                                @Param("afterId") Integer afterId,
+                                Limit limit);
+
+    // Same filters as findPageAfter, but read through a cursor with a bounded fetch size so the
+    // driver never materializes the whole result. Must be consumed inside a transaction.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(DTO_SELECT + "WHERE e.user.id = :userId " +
+            "AND e.transactionDate BETWEEN :startDate AND :endDate " +
+            "AND (:category IS NULL OR e.category = :category) " +
+            "AND (:allSources = true OR s.id IN :sourceIds) " +
+            "ORDER BY e.transactionDate DESC, e.id DESC")
+    Stream<ExpenseDto> streamFiltered(@Param("userId") Integer userId,
+                                   @Param("startDate") LocalDate startDate,
+                                   @Param("endDate") LocalDate endDate,
+                                   @Param("category") String category,
+                                   @Param("allSources") boolean allSources,
+                                   @Param("sourceIds") List<Integer> sourceIds);
 
     // FIXED: Added a dedicated query to sum expenses for a specific source.
     // This is more efficient and reliable. It tells the database to sum the 'amount' column
     // for all expenses that match the given source ID. COALESCE ensures it returns 0 if there are no expenses.
     @Query("SELECT COALESCE(SUM(e.amount), 0) FROM Expense e WHERE e.source.id = :sourceId")
     BigDecimal sumAmountBySourceId(@Param("sourceId") Integer sourceId);
+
+    // One grouped aggregate for all of a user's sources instead of one SUM per source.
+    // Sources without expenses are simply absent from the result.
+    @Query("SELECT e.source.id AS sourceId, SUM(e.amount) AS total FROM Expense e " +
+            "WHERE e.user.id = :userId GROUP BY e.source.id")
+    List<SourceTotal> sumAmountsGroupedBySourceForUser(@Param("userId") Integer userId);
+
+    @Query("SELECT e.source.id AS sourceId, SUM(e.amount) AS total FROM Expense e " +
+            "WHERE e.source.id IN :sourceIds GROUP BY e.source.id")
+    List<SourceTotal> sumAmountsGroupedBySourceIds(@Param("sourceIds") List<Integer> sourceIds);
+
+    // Whether the user has an expense pointing at the receipt (receipts are shared between users
+    // who uploaded the same file).
+    @Query("SELECT COUNT(e) > 0 FROM Expense e WHERE e.user.id = :userId AND e.receiptImageUrl = :url")
+    boolean existsByUserIdAndReceiptImageUrl(@Param("userId") Integer userId, @Param("url") String url);
+
+    @Query("SELECT COUNT(e) > 0 FROM Expense e WHERE e.id = :id AND e.user.id = :userId")
+    boolean existsByIdAndUserId(@Param("id") Integer id, @Param("userId") Integer userId);
 }
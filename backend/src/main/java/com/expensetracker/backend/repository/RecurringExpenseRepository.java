@@ -0,0 +1,40 @@
+package com.expensetracker.backend.repository;
+
+import com.expensetracker.backend.model.RecurringExpense;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface RecurringExpenseRepository extends JpaRepository<RecurringExpense, Integer> {
+
+    List<RecurringExpense> findByUserIdOrderByIdAsc(Integer userId);
+
+    // Keyset page of the templates in one user shard (user_id mod shards) that are due by the date.
+    @Query("SELECT r FROM RecurringExpense r WHERE r.nextDueDate <= :date AND MOD(r.userId, :shards) = :shard " +
+            "AND r.id > :afterId ORDER BY r.id")
+    List<RecurringExpense> findDueInShard(@Param("date") LocalDate date, @Param("shards") int shards,
+                                          @Param("shard") int shard, @Param("afterId") Integer afterId, Limit limit);
+
+    // Moves nextDueDate on only if it still is what the caller materialized from; 0 means another
+    // run (or an edit or delete) got there first. Locks the row until the transaction ends.
+    @Modifying
+    @Query("UPDATE RecurringExpense r SET r.nextDueDate = :next WHERE r.id = :id AND r.nextDueDate = :expected")
+    int advance(@Param("id") Integer id, @Param("expected") LocalDate expected, @Param("next") LocalDate next);
+
+    @Modifying
+    @Query("DELETE FROM RecurringExpense r WHERE r.id = :id AND r.userId = :userId")
+    int deleteByIdAndUserId(@Param("id") Integer id, @Param("userId") Integer userId);
+
+    @Modifying
+    @Query("DELETE FROM RecurringExpense r WHERE r.sourceId = :sourceId")
+    int deleteAllBySourceId(@Param("sourceId") Integer sourceId);
+
+    @Modifying
+    @Query("DELETE FROM RecurringExpense r WHERE r.userId = :userId")
+    int deleteAllByUserId(@Param("userId") Integer userId);
+}
@@ -0,0 +1,38 @@
+package com.expensetracker.backend.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Projections for grouped queries over daily_rollups (and the raw expenses table when checking them).
+public final class RollupTotals {
+
+    private RollupTotals() {
+    }
+
+    public interface Total {
+        BigDecimal getTotal();
+
+        Long getCount();
+    }
+
+    public interface ByDay extends Total {
+        LocalDate getDay();
+    }
+
+    public interface ByCategory extends Total {
+        String getCategory();
+    }
+
+    public interface BySource extends Total {
+        Integer getSourceId();
+    }
+
+    // Finest grain: one row per rollup key.
+    public interface ByKey extends Total {
+        LocalDate getDay();
+
+        Integer getSourceId();
+
+        String getCategory();
+    }
+}
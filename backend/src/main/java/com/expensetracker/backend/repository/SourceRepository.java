@@ -2,9 +2,37 @@ package com.expensetracker.backend.repository;
 
 
 import com.expensetracker.backend.model.Source;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
 import java.util.List;
 
 public interface SourceRepository extends JpaRepository<Source, Integer> {
     List<Source> findByUserId(Integer userId);
-}
\ No newline at end of file
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Source> findByIdInOrderById(List<Integer> ids);
+
+    @Query("SELECT s.id FROM Source s WHERE s.id > :afterId ORDER BY s.id")
+    List<Integer> findIdsAfter(@Param("afterId") Integer afterId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Source s WHERE s.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") Integer userId);
+
+    // Native on purpose: expense_total is not updatable through the entity, so a stale
+    // Source loaded elsewhere can never overwrite a concurrent increment on flush.
+    @Modifying
+    @Query(value = "UPDATE sources SET expense_total = COALESCE(expense_total, 0) + :delta WHERE id = :sourceId", nativeQuery = true)
+    int adjustExpenseTotal(@Param("sourceId") Integer sourceId, @Param("delta") BigDecimal delta);
+
+    @Modifying
+    @Query(value = "UPDATE sources SET expense_total = :total WHERE id = :sourceId", nativeQuery = true)
+    int setExpenseTotal(@Param("sourceId") Integer sourceId, @Param("total") BigDecimal total);
+}
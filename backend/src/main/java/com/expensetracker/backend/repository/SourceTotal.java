@@ -0,0 +1,10 @@
+package com.expensetracker.backend.repository;
+
+import java.math.BigDecimal;
+
+// Projection for the grouped "sum of expenses per source" queries.
+public interface SourceTotal {
+    Integer getSourceId();
+
+    BigDecimal getTotal();
+}
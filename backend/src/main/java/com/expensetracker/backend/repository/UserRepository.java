@@ -1,9 +1,31 @@
 package com.expensetracker.backend.repository;
 
 import com.expensetracker.backend.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Integer> {
     Optional<User> findByEmail(String email);
+
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Integer> findIdsAfter(@Param("afterId") Integer afterId, Pageable pageable);
+
+    @Query("SELECT COALESCE(u.dataVersion, 0) FROM User u WHERE u.id = :userId")
+    Long findDataVersion(@Param("userId") Integer userId);
+
+    @Modifying
+    @Query(value = "UPDATE users SET data_version = COALESCE(data_version, 0) + 1 WHERE id = :userId", nativeQuery = true)
+    int incrementDataVersion(@Param("userId") Integer userId);
+
+    // Bypasses the CascadeType.ALL collections on User, which would load every source and expense
+    // just to delete them one by one. Callers must delete the children first.
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id = :userId")
+    int deleteByIdInBulk(@Param("userId") Integer userId);
 }
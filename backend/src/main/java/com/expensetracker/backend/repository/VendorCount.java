@@ -0,0 +1,8 @@
+package com.expensetracker.backend.repository;
+
+// Projection for the grouped "expenses per vendor" queries.
+public interface VendorCount {
+    String getVendor();
+
+    Long getCount();
+}
@@ -0,0 +1,306 @@
+package com.expensetracker.backend.search;
+
+import com.expensetracker.backend.service.ExpenseSnapshot;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Inverted index over one user's expenses (vendor, category, description). Each term maps to a
+// posting list: expense ids in ascending order with a field-weighted term frequency. Terms are kept
+// sorted, so a prefix is a range scan; fuzzy matching walks the vocabulary with a bounded edit distance.
+//
+// Changes are queued and applied under the write lock, either right away or, when the lock is busy
+// (a load from the database, another change), before the next search. A change queued while the index
+// is being loaded is applied on top of the loaded rows; applying the same change twice is harmless.
+final class ExpenseSearchIndex {
+
+    static final int VENDOR_WEIGHT = 3;
+    static final int CATEGORY_WEIGHT = 2;
+    static final int DESCRIPTION_WEIGHT = 1;
+
+    // Long descriptions add little ranking signal past this point and would bloat the postings.
+    private static final int MAX_DESCRIPTION_TERMS = 200;
+    private static final int MAX_TERM_LENGTH = 32;
+    // Bounds the work done for one query term when it is expanded by prefix or edit distance.
+    private static final int MAX_EXPANSIONS = 64;
+
+    private static final float PREFIX_FACTOR = 0.5f;
+    private static final float FUZZY_FACTOR = 0.3f;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    record Change(Integer expenseId, ExpenseSnapshot after) {
+    }
+
+    record Hit(Integer expenseId, float score) {
+    }
+
+    private record Doc(String[] terms, LocalDate transactionDate) {
+    }
+
+    private static final class Postings {
+        int[] ids = new int[2];
+        short[] weights = new short[2];
+        int size;
+
+        void put(int id, int weight) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                weights[at] = (short) weight;
+                return;
+            }
+            at = -at - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            System.arraycopy(weights, at, weights, at + 1, size - at);
+            ids[at] = id;
+            weights[at] = (short) weight;
+            size++;
+        }
+
+        void remove(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+                System.arraycopy(weights, at + 1, weights, at, size - at - 1);
+                size--;
+            }
+        }
+    }
+
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Integer, Doc> docs = new HashMap<>();
+    private final Queue<Change> pending = new ConcurrentLinkedQueue<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loaded;
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    int size() {
+        return docs.size();
+    }
+
+    // Adds every row the supplier streams and marks the index as loaded. Runs under the write
+    // lock, so searches (and other loaders, which then find it loaded) wait while changes are queued.
+    void load(Supplier<Stream<ExpenseSnapshot>> rows) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            try (Stream<ExpenseSnapshot> stream = rows.get()) {
+                stream.forEach(this::put);
+            }
+            drain();
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void apply(Change change) {
+        pending.add(change);
+        if (loaded && lock.writeLock().tryLock()) {
+            try {
+                drain();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // Ranked matches for every term of the query (AND). Each query term matches an indexed term
+    // exactly, as a prefix, or within one edit (two for terms of eight or more characters); the
+    // best match per expense counts, weighted by field and by how rare the term is. Ties go to the
+    // most recent expense.
+    List<Hit> search(String query, int limit) {
+        List<String> queryTerms = tokenize(query, Integer.MAX_VALUE).stream().distinct().toList();
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+        if (!pending.isEmpty()) {
+            lock.writeLock().lock();
+            try {
+                drain();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        lock.readLock().lock();
+        try {
+            Map<Integer, Float> scores = null;
+            for (String queryTerm : queryTerms) {
+                Map<Integer, Float> termScores = score(queryTerm);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    Map<Integer, Float> both = new HashMap<>();
+                    for (Map.Entry<Integer, Float> entry : scores.entrySet()) {
+                        Float other = termScores.get(entry.getKey());
+                        if (other != null) {
+                            both.put(entry.getKey(), entry.getValue() + other);
+                        }
+                    }
+                    scores = both;
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            Comparator<Map.Entry<Integer, Float>> ranking = Map.Entry.<Integer, Float>comparingByValue().reversed()
+                    .thenComparing(entry -> docs.get(entry.getKey()).transactionDate(), Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+            return scores.entrySet().stream()
+                    .sorted(ranking)
+                    .limit(limit)
+                    .map(entry -> new Hit(entry.getKey(), entry.getValue()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Integer, Float> score(String queryTerm) {
+        Map<Integer, Float> scores = new HashMap<>();
+        Postings exact = terms.get(queryTerm);
+        if (exact != null) {
+            addScores(scores, exact, 1f);
+        }
+        int expansions = 0;
+        for (Map.Entry<String, Postings> entry : terms.tailMap(queryTerm, false).entrySet()) {
+            if (!entry.getKey().startsWith(queryTerm) || expansions++ == MAX_EXPANSIONS) {
+                break;
+            }
+            addScores(scores, entry.getValue(), PREFIX_FACTOR);
+        }
+        if (queryTerm.length() >= 4) {
+            int maxEdits = queryTerm.length() >= 8 ? 2 : 1;
+            expansions = 0;
+            for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+                String term = entry.getKey();
+                if (term.equals(queryTerm) || term.startsWith(queryTerm)) {
+                    continue;
+                }
+                int edits = editDistance(queryTerm, term, maxEdits);
+                if (edits <= maxEdits) {
+                    addScores(scores, entry.getValue(), FUZZY_FACTOR / edits);
+                    if (++expansions == MAX_EXPANSIONS) {
+                        break;
+                    }
+                }
+            }
+        }
+        return scores;
+    }
+
+    private void addScores(Map<Integer, Float> scores, Postings postings, float factor) {
+        float idf = (float) Math.log(1 + (double) docs.size() / postings.size);
+        for (int i = 0; i < postings.size; i++) {
+            scores.merge(postings.ids[i], factor * postings.weights[i] * idf, Math::max);
+        }
+    }
+
+    private void drain() {
+        Change change;
+        while ((change = pending.poll()) != null) {
+            remove(change.expenseId());
+            if (change.after() != null) {
+                put(change.after());
+            }
+        }
+    }
+
+    private void put(ExpenseSnapshot expense) {
+        remove(expense.id());
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        tokenize(expense.vendor(), Integer.MAX_VALUE).forEach(term -> weights.merge(term, VENDOR_WEIGHT, Integer::sum));
+        tokenize(expense.category(), Integer.MAX_VALUE).forEach(term -> weights.merge(term, CATEGORY_WEIGHT, Integer::sum));
+        tokenize(expense.description(), MAX_DESCRIPTION_TERMS).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+        weights.forEach((term, weight) ->
+                terms.computeIfAbsent(term, t -> new Postings()).put(expense.id(), Math.min(weight, Short.MAX_VALUE)));
+        docs.put(expense.id(), new Doc(weights.keySet().toArray(String[]::new), expense.transactionDate()));
+    }
+
+    private void remove(Integer expenseId) {
+        Doc doc = docs.remove(expenseId);
+        if (doc == null) {
+            return;
+        }
+        for (String term : doc.terms()) {
+            Postings postings = terms.get(term);
+            if (postings != null) {
+                postings.remove(expenseId);
+                if (postings.size == 0) {
+                    terms.remove(term);
+                }
+            }
+        }
+    }
+
+    // Lower-cased words with accents stripped, so "Café" is found by "cafe".
+    static List<String> tokenize(String text, int maxTerms) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        for (String token : NON_WORD.split(folded)) {
+            if (tokens.size() == maxTerms) {
+                break;
+            }
+            if (!token.isEmpty()) {
+                tokens.add(token.length() > MAX_TERM_LENGTH ? token.substring(0, MAX_TERM_LENGTH) : token);
+            }
+        }
+        return tokens;
+    }
+
+    // Levenshtein distance, or maxEdits + 1 as soon as it is known to exceed maxEdits.
+    static int editDistance(String a, String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return maxEdits + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
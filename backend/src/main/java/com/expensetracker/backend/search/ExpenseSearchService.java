@@ -0,0 +1,161 @@
+package com.expensetracker.backend.search;
+
+import com.expensetracker.backend.cache.CacheInvalidationBroker;
+import com.expensetracker.backend.dto.ExpenseDto;
+import com.expensetracker.backend.event.ExpenseChangedEvent;
+import com.expensetracker.backend.event.ExpensesBulkChangedEvent;
+import com.expensetracker.backend.repository.ArchivedExpenseRepository;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Full-text search over expenses through one in-memory ExpenseSearchIndex per user. An index is
+// loaded from the database (hot and archived expenses) on startup or on the user's first search,
+// follows single-expense writes once they commit, and is dropped and reloaded after bulk changes
+// or writes made on another node. Indexes are evicted by total expense count.
+@Slf4j
+@Service
+public class ExpenseSearchService {
+
+    private static final int MAX_RESULTS = 100;
+
+    private final ExpenseRepository expenseRepository;
+    private final ArchivedExpenseRepository archivedExpenseRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnly;
+    private final TransactionTemplate primaryRead;
+    private final boolean warmOnStartup;
+    private final long maxDocuments;
+    private final Cache<Integer, ExpenseSearchIndex> indexes;
+
+    public ExpenseSearchService(ExpenseRepository expenseRepository,
+                                ArchivedExpenseRepository archivedExpenseRepository,
+                                UserRepository userRepository,
+                                TransactionTemplate transactionTemplate,
+                                CacheInvalidationBroker broker,
+                                MeterRegistry meterRegistry,
+                                @Value("${search.index.max-documents:2000000}") long maxDocuments,
+                                @Value("${search.index.expire-after-access:6h}") Duration expireAfterAccess,
+                                @Value("${search.index.warm-on-startup:true}") boolean warmOnStartup) {
+        this.expenseRepository = expenseRepository;
+        this.archivedExpenseRepository = archivedExpenseRepository;
+        this.userRepository = userRepository;
+        this.readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnly.setReadOnly(true);
+        // Read-write so index loads read from the primary (see ReplicaRoutingConfig).
+        this.primaryRead = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.warmOnStartup = warmOnStartup;
+        this.maxDocuments = maxDocuments;
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(maxDocuments)
+                .weigher((Integer userId, ExpenseSearchIndex index) -> Math.max(1, index.size()))
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, indexes, "search.index");
+        broker.subscribe(indexes::invalidate);
+    }
+
+    // Expenses matching every word of the query, best match first.
+    public List<ExpenseDto> search(Integer userId, String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        List<ExpenseSearchIndex.Hit> hits = indexFor(userId).search(query, Math.max(1, Math.min(limit, MAX_RESULTS)));
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        List<Integer> ids = hits.stream().map(ExpenseSearchIndex.Hit::expenseId).toList();
+        Map<Integer, ExpenseDto> byId = new HashMap<>();
+        readOnly.executeWithoutResult(status -> {
+            expenseRepository.findByUserIdAndIdIn(userId, ids).forEach(expense -> byId.put(expense.getId(), expense));
+            if (byId.size() < ids.size()) {
+                List<Integer> missing = ids.stream().filter(id -> !byId.containsKey(id)).toList();
+                archivedExpenseRepository.findByUserIdAndIdIn(userId, missing).forEach(expense -> byId.put(expense.getId(), expense));
+            }
+        });
+        // A hit can be gone if it was deleted after the search ran.
+        List<ExpenseDto> results = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            ExpenseDto expense = byId.get(id);
+            if (expense != null) {
+                results.add(expense);
+            }
+        }
+        return results;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        ExpenseSearchIndex index = indexes.getIfPresent(event.userId());
+        if (index != null) {
+            index.apply(new ExpenseSearchIndex.Change(event.expenseId(), event.after()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpensesBulkChanged(ExpensesBulkChangedEvent event) {
+        indexes.invalidate(event.userId());
+    }
+
+    // Loads indexes for users in id order until the document budget is half used, in the
+    // background, so the first searches after a restart do not pay for the load.
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!warmOnStartup) {
+            return;
+        }
+        Thread.ofVirtual().name("search-index-warm-up").start(() -> {
+            long started = System.nanoTime();
+            int users = 0;
+            Integer afterId = 0;
+            try {
+                while (indexes.policy().eviction().orElseThrow().weightedSize().orElse(0) < maxDocuments / 2) {
+                    List<Integer> userIds = userRepository.findIdsAfter(afterId, PageRequest.of(0, 100));
+                    if (userIds.isEmpty()) {
+                        break;
+                    }
+                    for (Integer userId : userIds) {
+                        indexFor(userId);
+                        users++;
+                    }
+                    afterId = userIds.get(userIds.size() - 1);
+                }
+                log.info("Loaded search indexes for {} users in {} ms", users, Duration.ofNanos(System.nanoTime() - started).toMillis());
+            } catch (RuntimeException e) {
+                log.warn("Search index warm-up stopped after {} users; the rest load on first search", users, e);
+            }
+        });
+    }
+
+    private ExpenseSearchIndex indexFor(Integer userId) {
+        ExpenseSearchIndex index = indexes.get(userId, id -> new ExpenseSearchIndex());
+        if (!index.isLoaded()) {
+            // The archive query runs only once the hot rows are consumed: one open cursor at a time.
+            primaryRead.executeWithoutResult(status -> index.load(() -> Stream.concat(
+                    expenseRepository.streamSearchSnapshots(userId),
+                    Stream.of(userId).flatMap(archivedExpenseRepository::streamSearchSnapshots))));
+            // Re-weigh now that the index has content, unless it was invalidated meanwhile.
+            indexes.asMap().replace(userId, index, index);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,117 @@
+package com.expensetracker.backend.search;
+
+import com.expensetracker.backend.cache.CacheInvalidationBroker;
+import com.expensetracker.backend.cache.InFlightExpenseWrites;
+import com.expensetracker.backend.event.ExpenseChangedEvent;
+import com.expensetracker.backend.event.ExpensesBulkChangedEvent;
+import com.expensetracker.backend.repository.ArchivedExpenseRepository;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+// Vendor autocomplete from one in-memory VendorTrie per user, built with two grouped queries on the
+// first suggestion request and kept current from expense writes after they commit. Cold users are
+// evicted by total vendor count and idle time.
+//
+// Counts are not idempotent, so a trie loaded while one of the user's writes was in flight (see
+// InFlightExpenseWrites) is used for that request but not cached.
+@Service
+public class VendorSuggestionService {
+
+    private final ExpenseRepository expenseRepository;
+    private final ArchivedExpenseRepository archivedExpenseRepository;
+    private final TransactionTemplate primaryRead;
+    private final Cache<Integer, VendorTrie> tries;
+    private final InFlightExpenseWrites.Tracker writes;
+
+    public VendorSuggestionService(ExpenseRepository expenseRepository,
+                                   ArchivedExpenseRepository archivedExpenseRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   CacheInvalidationBroker broker,
+                                   InFlightExpenseWrites inFlightWrites,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${search.vendors.max-vendors:1000000}") long maxVendors,
+                                   @Value("${search.vendors.expire-after-access:1h}") Duration expireAfterAccess) {
+        this.expenseRepository = expenseRepository;
+        this.archivedExpenseRepository = archivedExpenseRepository;
+        // Read-write so the load reads from the primary (see ReplicaRoutingConfig).
+        this.primaryRead = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.tries = Caffeine.newBuilder()
+                .maximumWeight(maxVendors)
+                .weigher((Integer userId, VendorTrie trie) -> Math.max(1, trie.size()))
+                .expireAfterAccess(expireAfterAccess)
+                .removalListener(this::onRemoval)
+                .recordStats()
+                .build();
+        this.writes = inFlightWrites.register(tries.asMap()::containsKey);
+        CaffeineCacheMetrics.monitor(meterRegistry, tries, "search.vendors");
+        broker.subscribe(this::invalidate);
+    }
+
+    public List<String> suggest(Integer userId, String prefix, int limit) {
+        int count = Math.max(1, Math.min(limit, VendorTrie.MAX_SUGGESTIONS));
+        VendorTrie trie = tries.getIfPresent(userId);
+        if (trie == null) {
+            trie = load(userId);
+        }
+        return trie.suggest(prefix, count);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        tries.asMap().compute(event.userId(), (userId, trie) -> {
+            if (trie != null) {
+                if (event.before() != null) {
+                    trie.add(event.before().vendor(), -1);
+                }
+                if (event.after() != null) {
+                    trie.add(event.after().vendor(), 1);
+                }
+            }
+            writes.completed(userId);
+            return trie;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpensesBulkChanged(ExpensesBulkChangedEvent event) {
+        invalidate(event.userId());
+    }
+
+    private VendorTrie load(Integer userId) {
+        InFlightExpenseWrites.Tracker.Snapshot snapshot = writes.snapshot(userId);
+        VendorTrie loaded = new VendorTrie();
+        primaryRead.executeWithoutResult(status -> {
+            expenseRepository.countByVendorForUser(userId).forEach(row -> loaded.add(row.getVendor(), row.getCount().intValue()));
+            archivedExpenseRepository.countByVendorForUser(userId).forEach(row -> loaded.add(row.getVendor(), row.getCount().intValue()));
+        });
+        VendorTrie cached = tries.asMap().compute(userId, (id, existing) ->
+                existing != null ? existing : writes.unchangedSince(id, snapshot) ? loaded : null);
+        if (cached == null) {
+            writes.prune(userId);
+        }
+        return cached != null ? cached : loaded;
+    }
+
+    private void onRemoval(Integer userId, VendorTrie trie, RemovalCause cause) {
+        if (userId != null && cause != RemovalCause.REPLACED) {
+            writes.prune(userId);
+        }
+    }
+
+    private void invalidate(Integer userId) {
+        writes.changed(userId);
+        tries.invalidate(userId);
+        writes.prune(userId);
+    }
+}
@@ -0,0 +1,143 @@
+package com.expensetracker.backend.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+// One user's vendors in a trie keyed by the normalized vendor name, with the number of expenses per
+// vendor. Every node keeps its subtree's most frequent vendors, so a suggestion is a walk down the
+// prefix and a copy; a count change refreshes those lists along one path only.
+final class VendorTrie {
+
+    static final int MAX_SUGGESTIONS = 10;
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_NODES = new Node[0];
+
+    private static final Comparator<Node> MOST_FREQUENT = Comparator.<Node>comparingInt(node -> node.count).reversed()
+            .thenComparing(node -> node.vendor, String.CASE_INSENSITIVE_ORDER);
+
+    private static final class Node {
+        char[] labels = NO_LABELS;
+        Node[] children = NO_NODES;
+        // Spelling last written for the vendor ending here; null when no expense has it.
+        String vendor;
+        int count;
+        Node[] top = NO_NODES;
+
+        Node child(char label) {
+            int at = Arrays.binarySearch(labels, label);
+            return at >= 0 ? children[at] : null;
+        }
+
+        Node addChild(char label) {
+            int at = -Arrays.binarySearch(labels, label) - 1;
+            Node child = new Node();
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newLabels[at] = label;
+            newChildren[at] = child;
+            System.arraycopy(labels, at, newLabels, at + 1, labels.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+
+        void removeChild(char label) {
+            int at = Arrays.binarySearch(labels, label);
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            System.arraycopy(labels, at + 1, newLabels, at, labels.length - at - 1);
+            System.arraycopy(children, at + 1, newChildren, at, children.length - at - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+    }
+
+    private final Node root = new Node();
+    private int vendors;
+
+    synchronized int size() {
+        return vendors;
+    }
+
+    // Adds delta expenses to the vendor's count; the vendor disappears when its count reaches zero.
+    synchronized void add(String vendor, int delta) {
+        String key = normalize(vendor);
+        if (key.isEmpty() || delta == 0) {
+            return;
+        }
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            Node next = path[i].child(key.charAt(i));
+            if (next == null) {
+                if (delta < 0) {
+                    return;
+                }
+                next = path[i].addChild(key.charAt(i));
+            }
+            path[i + 1] = next;
+        }
+
+        Node last = path[key.length()];
+        boolean existed = last.count > 0;
+        last.count = Math.max(0, last.count + delta);
+        if (last.count == 0) {
+            last.vendor = null;
+        } else if (delta > 0) {
+            last.vendor = vendor.trim().replaceAll("\\s+", " ");
+        }
+        vendors += (last.count > 0 ? 1 : 0) - (existed ? 1 : 0);
+
+        for (int i = key.length(); i >= 0; i--) {
+            Node node = path[i];
+            if (i < key.length()) {
+                Node child = path[i + 1];
+                if (child.count == 0 && child.children.length == 0) {
+                    node.removeChild(key.charAt(i));
+                }
+            }
+            refreshTop(node);
+        }
+    }
+
+    // The user's most frequent vendors starting with the prefix (ignoring case and repeated spaces).
+    synchronized List<String> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        List<String> suggestions = new ArrayList<>();
+        if (node != null) {
+            for (int i = 0; i < Math.min(limit, node.top.length); i++) {
+                suggestions.add(node.top[i].vendor);
+            }
+        }
+        return suggestions;
+    }
+
+    private static void refreshTop(Node node) {
+        List<Node> candidates = new ArrayList<>();
+        if (node.count > 0) {
+            candidates.add(node);
+        }
+        for (Node child : node.children) {
+            candidates.addAll(Arrays.asList(child.top));
+        }
+        candidates.sort(MOST_FREQUENT);
+        node.top = candidates.subList(0, Math.min(MAX_SUGGESTIONS, candidates.size())).toArray(NO_NODES);
+    }
+
+    static String normalize(String vendor) {
+        return vendor == null ? "" : vendor.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
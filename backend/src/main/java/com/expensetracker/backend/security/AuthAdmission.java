@@ -0,0 +1,125 @@
+package com.expensetracker.backend.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// CPU budget for /api/auth. BCrypt (checking a login, hashing a new password) runs on a small
+// dedicated pool instead of the request thread, so a flood of logins can use at most that many
+// cores and the rest stay free for authenticated traffic (which only checks JWTs). Before any
+// hashing, a client address may make at most ip.per-minute auth requests and an account may see at
+// most account.per-minute failed logins; requests over either rate, or arriving while the pool's
+// queue is full, are refused at once with Retry-After instead of waiting for a core.
+@Component
+public class AuthAdmission {
+
+    private final ThreadPoolExecutor hashing;
+    private final long maxWaitMillis;
+    private final RateLimiter perClient;
+    private final RateLimiter perAccount;
+    private final MeterRegistry meterRegistry;
+
+    public AuthAdmission(@Value("${auth.hashing.threads:0}") int threads,
+                         @Value("${auth.hashing.queue-capacity:32}") int queueCapacity,
+                         @Value("${auth.hashing.max-wait:2s}") Duration maxWait,
+                         @Value("${auth.rate-limit.ip.per-minute:30}") int clientPerMinute,
+                         @Value("${auth.rate-limit.ip.burst:10}") int clientBurst,
+                         @Value("${auth.rate-limit.account.per-minute:5}") int accountPerMinute,
+                         @Value("${auth.rate-limit.account.burst:10}") int accountBurst,
+                         @Value("${auth.rate-limit.max-keys:100000}") long maxKeys,
+                         MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadIds = new AtomicInteger();
+        this.hashing = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "password-hashing-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.maxWaitMillis = maxWait.toMillis();
+        this.perClient = new RateLimiter(clientPerMinute, clientBurst, maxKeys);
+        this.perAccount = new RateLimiter(accountPerMinute, accountBurst, maxKeys);
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("auth.hashing.queue", hashing, executor -> executor.getQueue().size()).register(meterRegistry);
+        Gauge.builder("auth.hashing.active", hashing, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    // Takes a permit for the client address; throws when it has used up its rate.
+    public void admitClient(String clientAddress) {
+        long waitNanos = perClient.tryAcquire(clientAddress);
+        if (waitNanos > 0) {
+            throw throttled("ip", HttpStatus.TOO_MANY_REQUESTS, waitNanos, "Too many attempts. Please try again later.");
+        }
+    }
+
+    // Throws when the account has had too many failed logins recently.
+    public void admitAccount(String email) {
+        long waitNanos = perAccount.waitTime(accountKey(email));
+        if (waitNanos > 0) {
+            throw throttled("account", HttpStatus.TOO_MANY_REQUESTS, waitNanos, "Too many failed logins. Please try again later.");
+        }
+    }
+
+    public void loginFailed(String email) {
+        perAccount.charge(accountKey(email));
+    }
+
+    // Runs the work on the hashing pool and waits for it. Throws when the pool's queue is full or
+    // the work has not finished within max-wait.
+    public <T> T hash(Supplier<T> work) {
+        Future<T> future;
+        try {
+            future = hashing.submit(work::get);
+        } catch (RejectedExecutionException e) {
+            throw throttled("hashing", HttpStatus.SERVICE_UNAVAILABLE, 0, "Server busy. Please try again shortly.");
+        }
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Only drops work still queued; a hash already running cannot be interrupted.
+            future.cancel(false);
+            throw throttled("hashing", HttpStatus.SERVICE_UNAVAILABLE, 0, "Server busy. Please try again shortly.");
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw throttled("hashing", HttpStatus.SERVICE_UNAVAILABLE, 0, "Server busy. Please try again shortly.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashing.shutdownNow();
+    }
+
+    private AuthThrottledException throttled(String reason, HttpStatus status, long waitNanos, String message) {
+        meterRegistry.counter("auth.admission.rejected", "reason", reason).increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        return new AuthThrottledException(status, retryAfterSeconds, message);
+    }
+
+    private static String accountKey(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,19 @@
+package com.expensetracker.backend.security;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+// A login or signup turned away by AuthAdmission: 429 when the client or account is over its rate,
+// 503 when the hashing pool is saturated. retryAfterSeconds goes into the Retry-After header.
+@Getter
+public class AuthThrottledException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final long retryAfterSeconds;
+
+    public AuthThrottledException(HttpStatus status, long retryAfterSeconds, String message) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,101 @@
+package com.expensetracker.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+// Caches the outcome of verifying a JWT (its claims and the resolved principal) so that
+// repeat requests with the same token skip the HMAC check and the users lookup.
+// Entries are keyed by a SHA-256 digest of the token and expire exactly at the token's 'exp'.
+@Component
+public class AuthTokenCache {
+
+    public record VerifiedToken(Claims claims, UserDetails principal, Instant expiresAt) {
+    }
+
+    private final Cache<String, VerifiedToken> cache;
+
+    public AuthTokenCache(@Value("${security.token-cache.max-size:10000}") long maxSize, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.token");
+    }
+
+    public VerifiedToken get(String token) {
+        VerifiedToken verified = cache.getIfPresent(digest(token));
+        // Caffeine expiry is amortized, so double-check rather than trust a just-expired entry.
+        if (verified != null && !verified.expiresAt().isAfter(Instant.now())) {
+            invalidateToken(token);
+            return null;
+        }
+        return verified;
+    }
+
+    public VerifiedToken put(String token, Claims claims, UserDetails principal) {
+        VerifiedToken verified = new VerifiedToken(claims, principal, claims.getExpiration().toInstant());
+        cache.put(digest(token), verified);
+        return verified;
+    }
+
+    // --- Invalidation hooks ---
+
+    public void invalidateToken(String token) {
+        cache.invalidate(digest(token));
+    }
+
+    // Drops every cached token of a user, e.g. after the account is deleted or its password changes.
+    public void invalidateUser(String username) {
+        cache.asMap().values().removeIf(v -> v.principal().getUsername().equals(username));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -2,6 +2,10 @@ package com.expensetracker.backend.security;
 
 import com.expensetracker.backend.service.JwtService;
 import com.expensetracker.backend.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,6 +26,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsServiceImpl userDetailsService;
+    private final AuthTokenCache tokenCache;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -29,7 +35,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -37,11 +42,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUserName(jwt);
 
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Timed separately from the rest of the chain: auth.jwt.filter{cache=hit|miss}.
+            Timer.Sample sample = Timer.start(meterRegistry);
+            AuthTokenCache.VerifiedToken verified = tokenCache.get(jwt);
+            String cache = verified != null ? "hit" : "miss";
+            if (verified == null) {
+                verified = verify(jwt);
+            }
+            sample.stop(meterRegistry.timer("auth.jwt.filter", "cache", cache));
+            if (verified != null) {
+                UserDetails userDetails = verified.principal();
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -53,4 +65,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    // Cache miss: parse and verify the token a single time, resolve the user, and remember both
+    // until the token expires. Returns null for tokens that fail verification.
+    private AuthTokenCache.VerifiedToken verify(String jwt) {
+        Claims claims;
+        try {
+            claims = jwtService.parseClaims(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        String userEmail = claims.getSubject();
+        if (userEmail == null) {
+            return null;
+        }
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+        return tokenCache.put(jwt, claims, userDetails);
+    }
 }
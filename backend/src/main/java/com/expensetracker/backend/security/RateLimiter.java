@@ -0,0 +1,99 @@
+package com.expensetracker.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// A token bucket per key (client address, account), kept as a single "theoretical arrival time"
+// (the generic cell rate algorithm): a key may act as long as its arrival time is at most a burst
+// ahead of now, and every permit pushes it one interval further. Each key is one AtomicLong updated
+// by compare-and-set, so checks never lock. A key whose arrival time has passed has its whole burst
+// again, so dropping it then is the same as keeping it.
+final class RateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier clock;
+    private final Cache<String, AtomicLong> arrivals;
+
+    RateLimiter(int permitsPerMinute, int burst, long maxKeys) {
+        this(permitsPerMinute, burst, maxKeys, System::nanoTime);
+    }
+
+    RateLimiter(int permitsPerMinute, int burst, long maxKeys, LongSupplier clock) {
+        if (permitsPerMinute <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Rate limits must be positive.");
+        }
+        this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / permitsPerMinute;
+        this.burstNanos = intervalNanos * burst;
+        this.clock = clock;
+        this.arrivals = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .ticker(clock::getAsLong)
+                .expireAfter(new UntilArrival())
+                .build();
+    }
+
+    // Takes a permit for the key. 0 when granted, otherwise the nanoseconds until one is available
+    // (and nothing is taken).
+    long tryAcquire(String key) {
+        long now = clock.getAsLong();
+        AtomicLong arrival = arrivals.get(key, k -> new AtomicLong(now));
+        while (true) {
+            long current = arrival.get();
+            long next = (current - now > 0 ? current : now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Nanoseconds until the key has a permit, without taking one.
+    long waitTime(String key) {
+        AtomicLong arrival = arrivals.getIfPresent(key);
+        if (arrival == null) {
+            return 0;
+        }
+        long now = clock.getAsLong();
+        long current = arrival.get();
+        return Math.max(0, (current - now > 0 ? current : now) + intervalNanos - now - burstNanos);
+    }
+
+    // Takes a permit for the key even if none is left, so that later checks wait longer.
+    void charge(String key) {
+        long now = clock.getAsLong();
+        AtomicLong arrival = arrivals.get(key, k -> new AtomicLong(now));
+        long current;
+        do {
+            current = arrival.get();
+        } while (!arrival.compareAndSet(current, (current - now > 0 ? current : now) + intervalNanos));
+    }
+
+    // Expiry is computed when an entry is created or read, before the caller moves its arrival time.
+    // charge() can push that time past now + burst, and concurrent callers can move it several
+    // intervals, so entries are kept a burst beyond the arrival time they were read with.
+    private class UntilArrival implements Expiry<String, AtomicLong> {
+        @Override
+        public long expireAfterCreate(String key, AtomicLong arrival, long currentTime) {
+            return Math.max(0, arrival.get() - currentTime) + burstNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, AtomicLong arrival, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, arrival, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, AtomicLong arrival, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, arrival, currentTime);
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package com.expensetracker.backend.security;
 
 import com.expensetracker.backend.service.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementPortType;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -23,18 +29,32 @@ import static org.springframework.security.config.Customizer.withDefaults; // Im
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    // BCrypt work factor for stored password hashes (also used by the benchmarks).
+    public static final int BCRYPT_STRENGTH = 10;
+
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final UserDetailsServiceImpl userDetailsService;
+    private final Environment environment;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+        // Actuator endpoints other than health are only served on the management port, which is not
+        // exposed publicly. If it is ever folded back into the API port they are refused outright.
+        boolean separateManagementPort = ManagementPortType.get(environment) == ManagementPortType.DIFFERENT;
+
         http
                 .csrf(csrf -> csrf.disable())
                 // --- ADD THIS LINE ---
                 // This tells Spring Security to apply the CORS configuration from WebConfig
                 .cors(withDefaults())
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches (streamed and SSE responses) belong to a request that was
+                        // already authorized; the JWT is not re-read for them.
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll() // Allow access to auth endpoints
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                        .requestMatchers(EndpointRequest.toAnyEndpoint())
+                        .access((authentication, context) -> new AuthorizationDecision(separateManagementPort))
                         .anyRequest().authenticated() // Secure all other endpoints
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -46,7 +66,7 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(BCRYPT_STRENGTH);
     }
 
     @Bean
@@ -0,0 +1,69 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.event.ExpensesBulkChangedEvent;
+import com.expensetracker.backend.repository.ArchivedExpenseRepository;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.repository.RecurringExpenseRepository;
+import com.expensetracker.backend.repository.SourceRepository;
+import com.expensetracker.backend.repository.UserRepository;
+import com.expensetracker.backend.security.AuthTokenCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class AccountService {
+
+    private final UserRepository userRepository;
+    private final SourceRepository sourceRepository;
+    private final ExpenseRepository expenseRepository;
+    private final ArchivedExpenseRepository archivedExpenseRepository;
+    private final RecurringExpenseRepository recurringExpenseRepository;
+    private final BulkDeleter bulkDeleter;
+    private final TransactionTemplate transactionTemplate;
+    private final AuthTokenCache authTokenCache;
+    private final RollupService rollupService;
+    private final ChangeLogService changeLogService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Removes the user and all of their data with set-based DELETEs (children first) rather than
+    // letting the User entity's cascades load and delete every row individually.
+    // Returns how many rows of each kind were removed.
+    public Map<String, Long> deleteAccount(Integer userId) {
+        String email = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"))
+                .getEmail();
+
+        // As for sources: no recurring expense may be created while the user's expenses are deleted.
+        transactionTemplate.executeWithoutResult(status -> recurringExpenseRepository.deleteAllByUserId(userId));
+
+        long deletedExpenses = bulkDeleter.deleteFullChunks(
+                page -> expenseRepository.findIdsByUserId(userId, page),
+                maxId -> expenseRepository.deleteByUserIdUpTo(userId, maxId));
+        deletedExpenses += bulkDeleter.deleteFullChunks(
+                page -> archivedExpenseRepository.findIdsByUserId(userId, page),
+                maxId -> archivedExpenseRepository.deleteByUserIdUpTo(userId, maxId));
+
+        Map<String, Long> counts = transactionTemplate.execute(status -> {
+            Map<String, Long> result = new LinkedHashMap<>();
+            result.put("deletedExpenses", (long) expenseRepository.deleteAllByUserId(userId)
+                    + archivedExpenseRepository.deleteAllByUserId(userId));
+            result.put("deletedSources", (long) sourceRepository.deleteAllByUserId(userId));
+            rollupService.removeUser(userId);
+            changeLogService.removeUser(userId);
+            userRepository.deleteByIdInBulk(userId);
+            eventPublisher.publishEvent(new ExpensesBulkChangedEvent(userId, null));
+            return result;
+        });
+        counts.merge("deletedExpenses", deletedExpenses, Long::sum);
+
+        // Tokens issued to this account must stop authenticating immediately.
+        authTokenCache.invalidateUser(email);
+        return counts;
+    }
+}
@@ -0,0 +1,137 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.cache.UserReadCache;
+import com.expensetracker.backend.dto.AnalyticsEntryDto;
+import com.expensetracker.backend.model.Source;
+import com.expensetracker.backend.repository.DailyRollupRepository;
+import com.expensetracker.backend.repository.RollupTotals;
+import com.expensetracker.backend.repository.SourceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// All analytics are answered from daily_rollups, so their cost depends on the number of days
+// (and sources/categories) in the range, not on how many expenses the user has. Results are
+// kept in the per-user read cache until the user's next write or rollup rebuild.
+@Service
+@RequiredArgsConstructor
+public class AnalyticsService {
+
+    // Region group of every analytics entry in the read cache (see UserReadCache).
+    public static final String CACHE_GROUP = "analytics";
+
+    private static final int MAX_RANGE_DAYS = 3660;
+
+    private final DailyRollupRepository rollupRepository;
+    private final SourceRepository sourceRepository;
+    private final UserReadCache readCache;
+
+    private static final int ENTRY_WEIGHT = 120;
+
+    public enum Granularity {
+        DAY, WEEK, MONTH
+    }
+
+    private record Range(LocalDate from, LocalDate to, Granularity granularity) {
+    }
+
+    public List<AnalyticsEntryDto> monthlyTotals(Integer userId, LocalDate from, LocalDate to) {
+        return readCache.get(userId, CACHE_GROUP + ".monthly", new Range(from, to, null),
+                UserReadCache.listWeigher(ENTRY_WEIGHT), () -> loadMonthlyTotals(userId, from, to));
+    }
+
+    public List<AnalyticsEntryDto> categoryBreakdown(Integer userId, LocalDate from, LocalDate to) {
+        return readCache.get(userId, CACHE_GROUP + ".categories", new Range(from, to, null),
+                UserReadCache.listWeigher(ENTRY_WEIGHT), () -> loadCategoryBreakdown(userId, from, to));
+    }
+
+    public List<AnalyticsEntryDto> sourceBreakdown(Integer userId, LocalDate from, LocalDate to) {
+        return readCache.get(userId, CACHE_GROUP + ".sources", new Range(from, to, null),
+                UserReadCache.listWeigher(ENTRY_WEIGHT), () -> loadSourceBreakdown(userId, from, to));
+    }
+
+    public List<AnalyticsEntryDto> trend(Integer userId, LocalDate from, LocalDate to, Granularity granularity) {
+        return readCache.get(userId, CACHE_GROUP + ".trend", new Range(from, to, granularity),
+                UserReadCache.listWeigher(ENTRY_WEIGHT), () -> loadTrend(userId, from, to, granularity));
+    }
+
+    private List<AnalyticsEntryDto> loadMonthlyTotals(Integer userId, LocalDate from, LocalDate to) {
+        List<AnalyticsEntryDto> months = loadTrend(userId, from, to, Granularity.MONTH);
+        for (AnalyticsEntryDto month : months) {
+            month.setKey(YearMonth.from(LocalDate.parse(month.getKey())).toString());
+        }
+        return months;
+    }
+
+    private List<AnalyticsEntryDto> loadCategoryBreakdown(Integer userId, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return rollupRepository.sumByCategory(userId, from, to).stream()
+                .map(row -> new AnalyticsEntryDto(row.getCategory(), row.getCategory(), row.getTotal(), row.getCount()))
+                .collect(Collectors.toList());
+    }
+
+    private List<AnalyticsEntryDto> loadSourceBreakdown(Integer userId, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        Map<Integer, String> names = sourceRepository.findByUserId(userId).stream()
+                .collect(Collectors.toMap(Source::getId, Source::getName));
+        return rollupRepository.sumBySource(userId, from, to).stream()
+                .map(row -> new AnalyticsEntryDto(String.valueOf(row.getSourceId()), names.get(row.getSourceId()),
+                        row.getTotal(), row.getCount()))
+                .collect(Collectors.toList());
+    }
+
+    // Totals per day, week (starting Monday) or month across the range, with empty periods
+    // included as zero so charts get a continuous series. Keys are the period start dates.
+    private List<AnalyticsEntryDto> loadTrend(Integer userId, LocalDate from, LocalDate to, Granularity granularity) {
+        checkRange(from, to);
+        Function<LocalDate, LocalDate> periodStart = switch (granularity) {
+            case DAY -> Function.identity();
+            case WEEK -> day -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day -> day.withDayOfMonth(1);
+        };
+
+        // Periods are summed in cents (see Money) and turned into DTOs once at the end.
+        Map<LocalDate, Integer> periodIndex = new LinkedHashMap<>();
+        for (LocalDate start = periodStart.apply(from); !start.isAfter(to); start = next(start, granularity)) {
+            periodIndex.put(start, periodIndex.size());
+        }
+        long[] totals = new long[periodIndex.size()];
+        long[] counts = new long[periodIndex.size()];
+        for (RollupTotals.ByDay row : rollupRepository.sumByDay(userId, from, to)) {
+            int period = periodIndex.get(periodStart.apply(row.getDay()));
+            totals[period] = Money.add(totals[period], Money.cents(row.getTotal()));
+            counts[period] += row.getCount();
+        }
+        List<AnalyticsEntryDto> entries = new ArrayList<>(periodIndex.size());
+        periodIndex.forEach((start, period) -> entries.add(
+                new AnalyticsEntryDto(start.toString(), null, Money.toBigDecimal(totals[period]), counts[period])));
+        return entries;
+    }
+
+    private static LocalDate next(LocalDate start, Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> start.plusDays(1);
+            case WEEK -> start.plusWeeks(1);
+            case MONTH -> start.plusMonths(1);
+        };
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (from.plusDays(MAX_RANGE_DAYS).isBefore(to)) {
+            throw new IllegalArgumentException("Range may span at most " + MAX_RANGE_DAYS + " days");
+        }
+    }
+}
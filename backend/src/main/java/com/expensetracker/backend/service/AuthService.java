@@ -6,8 +6,13 @@ import com.expensetracker.backend.dto.LoginRequest;
 import com.expensetracker.backend.dto.JwtAuthenticationResponse;
 import com.expensetracker.backend.model.User;
 import com.expensetracker.backend.repository.UserRepository;
+import com.expensetracker.backend.security.AuthAdmission;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import lombok.RequiredArgsConstructor;
@@ -22,18 +27,26 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final MeterRegistry meterRegistry;
+    private final AuthAdmission authAdmission;
 
-    public void signUp(SignUpRequest signUpRequest) {
+    public void signUp(SignUpRequest signUpRequest, String clientAddress) {
+        authAdmission.admitClient(clientAddress);
         User user = new User();
         user.setEmail(signUpRequest.getEmail());
-        user.setPassword(passwordEncoder.encode(signUpRequest.getPassword()));
+        user.setPassword(authAdmission.hash(() -> passwordEncoder.encode(signUpRequest.getPassword())));
         userRepository.save(user);
     }
 
-    public JwtAuthenticationResponse login(LoginRequest loginRequest) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword())
-        );
+    public JwtAuthenticationResponse login(LoginRequest loginRequest, String clientAddress) {
+        authAdmission.admitClient(clientAddress);
+        authAdmission.admitAccount(loginRequest.getEmail());
+        try {
+            authAdmission.hash(() -> authenticate(loginRequest));
+        } catch (AuthenticationException e) {
+            authAdmission.loginFailed(loginRequest.getEmail());
+            throw e;
+        }
 
         User user = userRepository.findByEmail(loginRequest.getEmail())
                 .orElseThrow(() -> new IllegalArgumentException("Invalid email or password."));
@@ -45,5 +58,21 @@ public class AuthService {
 
         return response;
     }
+
+    // The user lookup plus BCrypt check, timed as auth.password.check{outcome=success|failure}
+    // (excluding the wait for the hashing pool).
+    private Authentication authenticate(LoginRequest loginRequest) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            Authentication authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword())
+            );
+            outcome = "success";
+            return authentication;
+        } finally {
+            sample.stop(meterRegistry.timer("auth.password.check", "outcome", outcome));
+        }
+    }
 }
 
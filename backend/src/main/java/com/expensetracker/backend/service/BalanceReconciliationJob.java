@@ -0,0 +1,115 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.model.Source;
+import com.expensetracker.backend.repository.ArchivedExpenseRepository;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.repository.SourceRepository;
+import com.expensetracker.backend.repository.SourceTotal;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Checks the incrementally maintained sources.expense_total values against a full recompute
+// from the expenses table, and repairs any drift (e.g. rows written before the feature was on).
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BalanceReconciliationJob {
+
+    private final SourceRepository sourceRepository;
+    private final ExpenseRepository expenseRepository;
+    private final ArchivedExpenseRepository archivedExpenseRepository;
+    private final BalanceService balanceService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${balances.reconciliation.batch-size:500}")
+    private int batchSize;
+
+    @Value("${balances.reconciliation.repair:true}")
+    private boolean repair;
+
+    public record Report(int checked, int mismatched, int repaired) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if (balanceService.isRunningTotalEnabled()) {
+            reconcile();
+        }
+    }
+
+    @Scheduled(cron = "${balances.reconciliation.cron:0 30 3 * * *}")
+    public void scheduledReconcile() {
+        if (balanceService.isRunningTotalEnabled()) {
+            reconcile();
+        }
+    }
+
+    public Report reconcile() {
+        int checked = 0;
+        int mismatched = 0;
+        int repaired = 0;
+        Integer afterId = 0;
+
+        while (true) {
+            List<Integer> ids = sourceRepository.findIdsAfter(afterId, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            Report batch = transactionTemplate.execute(status -> reconcileBatch(ids));
+            checked += batch.checked();
+            mismatched += batch.mismatched();
+            repaired += batch.repaired();
+            afterId = ids.get(ids.size() - 1);
+        }
+
+        if (mismatched > 0) {
+            log.warn("Balance reconciliation: {} of {} sources had drifted running totals, {} repaired",
+                    mismatched, checked, repaired);
+        } else {
+            log.info("Balance reconciliation: all {} source running totals match", checked);
+        }
+        return new Report(checked, mismatched, repaired);
+    }
+
+    private Report reconcileBatch(List<Integer> ids) {
+        // Lock the batch's source rows so concurrent expense writes queue behind the repair
+        // and apply their increments on top of the recomputed value.
+        List<Source> sources = sourceRepository.findByIdInOrderById(ids);
+
+        Map<Integer, BigDecimal> actual = new HashMap<>();
+        for (SourceTotal row : expenseRepository.sumAmountsGroupedBySourceIds(ids)) {
+            actual.put(row.getSourceId(), BalanceService.nullToZero(row.getTotal()));
+        }
+        for (SourceTotal row : archivedExpenseRepository.sumAmountsGroupedBySourceIds(ids)) {
+            actual.merge(row.getSourceId(), BalanceService.nullToZero(row.getTotal()), BigDecimal::add);
+        }
+
+        int mismatched = 0;
+        int repaired = 0;
+        for (Source source : sources) {
+            BigDecimal expected = actual.getOrDefault(source.getId(), BigDecimal.ZERO);
+            BigDecimal stored = BalanceService.nullToZero(source.getExpenseTotal());
+            if (stored.compareTo(expected) != 0) {
+                mismatched++;
+                log.debug("Source {} running total {} does not match recomputed {}", source.getId(), stored, expected);
+                if (repair) {
+                    sourceRepository.setExpenseTotal(source.getId(), expected);
+                    repaired++;
+                }
+            }
+        }
+        return new Report(sources.size(), mismatched, repaired);
+    }
+}
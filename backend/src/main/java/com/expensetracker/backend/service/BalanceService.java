@@ -0,0 +1,83 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.model.Source;
+import com.expensetracker.backend.repository.ArchivedExpenseRepository;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.repository.SourceRepository;
+import com.expensetracker.backend.repository.SourceTotal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class BalanceService {
+
+    private final ExpenseRepository expenseRepository;
+    private final ArchivedExpenseRepository archivedExpenseRepository;
+    private final SourceRepository sourceRepository;
+
+    // When enabled, balances are read from sources.expense_total (maintained on every expense
+    // write) instead of being aggregated from the expenses table.
+    @Value("${balances.running-total.enabled:false}")
+    private boolean runningTotalEnabled;
+
+    public boolean isRunningTotalEnabled() {
+        return runningTotalEnabled;
+    }
+
+    // Returns the sum of expenses for each of the given sources (all owned by userId),
+    // using at most one query regardless of how many sources or expenses there are.
+    public Map<Integer, BigDecimal> expenseTotals(Integer userId, List<Source> sources) {
+        Map<Integer, BigDecimal> totals = new HashMap<>();
+        if (sources.isEmpty()) {
+            return totals;
+        }
+        if (runningTotalEnabled) {
+            for (Source source : sources) {
+                totals.put(source.getId(), nullToZero(source.getExpenseTotal()));
+            }
+            return totals;
+        }
+        for (SourceTotal row : expenseRepository.sumAmountsGroupedBySourceForUser(userId)) {
+            totals.put(row.getSourceId(), nullToZero(row.getTotal()));
+        }
+        // Archived expenses still count towards balances (see ExpenseArchiveService).
+        for (SourceTotal row : archivedExpenseRepository.sumAmountsGroupedBySourceForUser(userId)) {
+            totals.merge(row.getSourceId(), nullToZero(row.getTotal()), BigDecimal::add);
+        }
+        for (Source source : sources) {
+            totals.putIfAbsent(source.getId(), BigDecimal.ZERO);
+        }
+        return totals;
+    }
+
+    public BigDecimal expenseTotal(Source source) {
+        if (source.getId() == null) {
+            return BigDecimal.ZERO;
+        }
+        if (runningTotalEnabled) {
+            return nullToZero(source.getExpenseTotal());
+        }
+        return expenseRepository.sumAmountBySourceId(source.getId())
+                .add(archivedExpenseRepository.sumAmountBySourceId(source.getId()));
+    }
+
+    // Must be called inside the transaction that writes the expense so the stored total
+    // commits (or rolls back) together with it.
+    public void adjust(Integer sourceId, BigDecimal delta) {
+        if (!runningTotalEnabled || sourceId == null || delta == null || delta.signum() == 0) {
+            return;
+        }
+        sourceRepository.adjustExpenseTotal(sourceId, delta);
+    }
+
+    static BigDecimal nullToZero(BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value;
+    }
+}
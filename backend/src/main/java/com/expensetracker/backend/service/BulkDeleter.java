@@ -0,0 +1,41 @@
+package com.expensetracker.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+// Deletes large row sets in short, separately committed chunks so no single transaction holds
+// row locks on tens of thousands of rows. Each chunk is two statements: one to find the id at
+// the chunk boundary and one set-based DELETE up to that id.
+@Component
+@RequiredArgsConstructor
+class BulkDeleter {
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${bulk-delete.chunk-size:5000}")
+    private int chunkSize;
+
+    // Deletes full chunks until fewer than chunkSize rows remain and returns how many were removed.
+    // The remainder is left for the caller to delete in its final transaction.
+    long deleteFullChunks(Function<Pageable, List<Integer>> idsInOrder, ToIntFunction<Integer> deleteUpTo) {
+        long deleted = 0;
+        Pageable boundary = PageRequest.of(chunkSize - 1, 1);
+        while (true) {
+            List<Integer> ids = idsInOrder.apply(boundary);
+            if (ids.isEmpty()) {
+                return deleted;
+            }
+            Integer maxId = ids.get(0);
+            Integer removed = transactionTemplate.execute(status -> deleteUpTo.applyAsInt(maxId));
+            deleted += removed == null ? 0 : removed;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.event.ExpenseChangedEvent;
+import com.expensetracker.backend.event.SourceChangedEvent;
+import com.expensetracker.backend.model.ChangeLogEntry;
+import com.expensetracker.backend.repository.ChangeLogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Appends every expense and source write to change_log inside the writing transaction, so the
+// log never shows a change that rolled back. Entries older than the retention are purged nightly;
+// clients whose sync token predates the retention are told to re-download (see SyncService).
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChangeLogService {
+
+    private final ChangeLogRepository changeLogRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${sync.change-log.retention-days:90}")
+    private int retentionDays;
+
+    @Value("${sync.change-log.purge-batch-size:5000}")
+    private int purgeBatchSize;
+
+    public int getRetentionDays() {
+        return retentionDays;
+    }
+
+    @EventListener
+    @Transactional
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        record(event.userId(), ChangeLogEntry.EntityType.EXPENSE, event.expenseId(),
+                event.after() == null ? ChangeLogEntry.Operation.DELETE : ChangeLogEntry.Operation.UPSERT);
+    }
+
+    // Deleting a source also deletes its expenses; the source's tombstone stands for all of them.
+    @EventListener
+    @Transactional
+    public void onSourceChanged(SourceChangedEvent event) {
+        record(event.userId(), ChangeLogEntry.EntityType.SOURCE, event.sourceId(),
+                event.type() == SourceChangedEvent.Type.DELETED ? ChangeLogEntry.Operation.DELETE : ChangeLogEntry.Operation.UPSERT);
+    }
+
+    // Statement import inserts expenses without per-row events. Must be called inside the
+    // transaction that inserted them.
+    public void recordInserted(List<Integer> expenseIds) {
+        if (!expenseIds.isEmpty()) {
+            changeLogRepository.insertExpenseUpserts(expenseIds, LocalDateTime.now());
+        }
+    }
+
+    public void removeUser(Integer userId) {
+        changeLogRepository.deleteAllByUserId(userId);
+    }
+
+    @Scheduled(cron = "${sync.change-log.purge-cron:0 15 4 * * *}")
+    public void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        long purged = 0;
+        while (true) {
+            List<Long> ids = changeLogRepository.findIdsOlderThan(cutoff, Limit.of(purgeBatchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer deleted = transactionTemplate.execute(status -> changeLogRepository.deleteByIdIn(ids));
+            purged += deleted == null ? 0 : deleted;
+        }
+        log.info("Purged {} change log entries older than {}", purged, cutoff);
+    }
+
+    private void record(Integer userId, ChangeLogEntry.EntityType type, Integer entityId, ChangeLogEntry.Operation operation) {
+        ChangeLogEntry entry = new ChangeLogEntry();
+        entry.setUserId(userId);
+        entry.setEntityType(type);
+        entry.setEntityId(entityId);
+        entry.setOperation(operation);
+        changeLogRepository.save(entry);
+    }
+}
@@ -0,0 +1,74 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.cache.UserReadCache;
+import com.expensetracker.backend.event.ExpenseChangedEvent;
+import com.expensetracker.backend.event.ExpensesBulkChangedEvent;
+import com.expensetracker.backend.event.SourceChangedEvent;
+import com.expensetracker.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.StringJoiner;
+
+// Per-user data version behind the ETags of GET /api/expenses and GET /api/sources. Every write
+// event bumps users.data_version inside the writing transaction, so a version is never visible
+// before the data it describes. Reads go through the per-user read cache, which drops the cached
+// version once the write commits (on every node), so a conditional GET costs no database query.
+@Service
+@RequiredArgsConstructor
+public class DataVersionService {
+
+    private static final int VERSION_WEIGHT = 64;
+
+    private final UserRepository userRepository;
+    private final UserReadCache readCache;
+
+    public long current(Integer userId) {
+        return readCache.get(userId, "data-version", null, version -> VERSION_WEIGHT, () -> {
+            Long version = userRepository.findDataVersion(userId);
+            return version == null ? 0L : version;
+        });
+    }
+
+    // Weak ETag for a response computed from the user's data and the given query parameters.
+    // Weak because the same data is sent in several encodings (gzip or not), and because Tomcat
+    // refuses to compress a response that carries a strong ETag; If-None-Match still gives 304.
+    // Read it before running the query: a write that lands in between then only makes the tag
+    // older than the body, which costs a refetch later but never a wrong 304.
+    public String etag(Integer userId, Object... queryParams) {
+        StringJoiner key = new StringJoiner("|");
+        for (Object param : queryParams) {
+            key.add(String.valueOf(param));
+        }
+        String hash = DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)).substring(0, 16);
+        return "W/\"" + current(userId) + "-" + hash + "\"";
+    }
+
+    @EventListener
+    @Transactional
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        bump(event.userId());
+    }
+
+    @EventListener
+    @Transactional
+    public void onExpensesBulkChanged(ExpensesBulkChangedEvent event) {
+        bump(event.userId());
+    }
+
+    @EventListener
+    @Transactional
+    public void onSourceChanged(SourceChangedEvent event) {
+        bump(event.userId());
+    }
+
+    private void bump(Integer userId) {
+        if (userId != null) {
+            userRepository.incrementDataVersion(userId);
+        }
+    }
+}
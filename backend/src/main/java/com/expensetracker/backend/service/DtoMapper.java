@@ -0,0 +1,45 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.ExpenseDto;
+import com.expensetracker.backend.dto.SourceDto;
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.Source;
+
+import java.math.BigDecimal;
+
+// Entity-to-DTO mapping shared by the services (and benchmarked on its own in backend-benchmarks).
+public final class DtoMapper {
+
+    private DtoMapper() {
+    }
+
+    public static ExpenseDto toDto(Expense expense) {
+        ExpenseDto dto = new ExpenseDto();
+        dto.setId(expense.getId());
+        dto.setSourceId(expense.getSource().getId());
+        dto.setSourceName(expense.getSource().getName());
+        dto.setAmount(expense.getAmount());
+        dto.setVendor(expense.getVendor());
+        dto.setCategory(expense.getCategory());
+        dto.setDescription(expense.getDescription());
+        dto.setTransactionDate(expense.getTransactionDate());
+        dto.setReceiptImageUrl(expense.getReceiptImageUrl());
+        return dto;
+    }
+
+    public static SourceDto toDto(Source source, BigDecimal totalExpenses) {
+        SourceDto dto = new SourceDto();
+        dto.setId(source.getId());
+        dto.setName(source.getName());
+        dto.setType(source.getType().name());
+        dto.setInitialBalance(source.getInitialBalance());
+        dto.setColor(source.getColor());
+        dto.setAlertThreshold(source.getAlertThreshold());
+        dto.setActive(source.isActive());
+        dto.setDescription(source.getDescription());
+
+        dto.setCurrentBalance(source.getInitialBalance().subtract(totalExpenses));
+
+        return dto;
+    }
+}
@@ -0,0 +1,113 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.repository.ArchivedExpenseRepository;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+// Moves expenses older than the horizon from the hot expenses table into expenses_archive, in
+// separately committed batches. Archived rows keep counting towards balances and rollups, and
+// listings whose date range reaches back far enough read both tables (see ExpenseService).
+// Editing or deleting an archived expense first moves it back to the hot table (restore); if it
+// is still older than the horizon, the next run archives it again.
+//
+// Archiving may run on any node or in a separate --expenses.archive process, so whether a
+// listing must read the archive is asked of the database each time, per user, rather than
+// remembered in this JVM. Runs are serialized across nodes by a lease.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExpenseArchiveService {
+
+    private static final String LEASE = "expense-archive";
+
+    private final ExpenseRepository expenseRepository;
+    private final ArchivedExpenseRepository archivedExpenseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LeaseService leaseService;
+
+    @Value("${expenses.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${expenses.archive.horizon-days:730}")
+    private int horizonDays;
+
+    @Value("${expenses.archive.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${expenses.archive.lease-ttl:10m}")
+    private Duration leaseTtl;
+
+    // True when the user's listing starting at startDate has to read the archive as well. Call it
+    // after reading the hot table: a row archived in between is then found in the archive.
+    public boolean reaches(Integer userId, LocalDate startDate) {
+        LocalDate through = archivedExpenseRepository.findLatestTransactionDate(userId);
+        return through != null && !startDate.isAfter(through);
+    }
+
+    // Moves the user's archived expenses with these ids back into the hot table, in the caller's
+    // transaction, and returns how many were moved. Ids that are not archived, or not the user's,
+    // are ignored. Balances and rollups already count archived rows, so they are not touched.
+    public int restore(Integer userId, Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int restored = archivedExpenseRepository.copyToExpenses(userId, ids);
+        if (restored > 0) {
+            archivedExpenseRepository.deleteRestored(userId, ids);
+        }
+        return restored;
+    }
+
+    @Scheduled(cron = "${expenses.archive.cron:0 0 4 * * *}")
+    public void scheduledArchive() {
+        if (enabled) {
+            archive();
+        }
+    }
+
+    // Returns the number of rows moved; 0 without doing anything if another node is archiving.
+    public long archive() {
+        if (!leaseService.tryAcquire(LEASE, leaseTtl)) {
+            log.info("Skipping expense archiving: another node holds the lease");
+            return 0;
+        }
+        LocalDate cutoff = LocalDate.now().minusDays(horizonDays);
+        long moved = 0;
+        try {
+            while (true) {
+                List<Integer> ids = expenseRepository.findIdsOlderThan(cutoff, Limit.of(batchSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                Integer count = transactionTemplate.execute(status -> {
+                    archivedExpenseRepository.copyFromExpenses(ids, cutoff);
+                    return expenseRepository.deleteArchived(ids, cutoff);
+                });
+                moved += count == null ? 0 : count;
+                if (count == null || count == 0) {
+                    // Every selected row was re-dated or deleted meanwhile; leave the rest to the next run.
+                    break;
+                }
+                if (!leaseService.tryAcquire(LEASE, leaseTtl)) {
+                    log.warn("Lost the expense archive lease; stopping after this batch");
+                    break;
+                }
+            }
+        } finally {
+            leaseService.release(LEASE);
+        }
+        log.info("Archived {} expenses dated before {}", moved, cutoff);
+        return moved;
+    }
+}
@@ -0,0 +1,32 @@
+package com.expensetracker.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Position in the (transactionDate DESC, id DESC) ordering of a user's expenses.
+// Encoded as an opaque URL-safe token so clients cannot depend on its layout.
+record ExpenseCursor(LocalDate transactionDate, Integer id) {
+
+    // Sorts before every real row, i.e. the start of the first page.
+    static ExpenseCursor first(LocalDate endDate) {
+        return new ExpenseCursor(endDate.plusDays(1), 0);
+    }
+
+    String encode() {
+        String raw = transactionDate + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ExpenseCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new ExpenseCursor(LocalDate.parse(raw.substring(0, separator)),
+                    Integer.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidCursorException();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.ImportResultDto;
+import com.expensetracker.backend.event.ExpensesBulkChangedEvent;
+import com.expensetracker.backend.prediction.CategoryPredictionService;
+import com.expensetracker.backend.repository.ExpenseBatchWriter;
+import com.expensetracker.backend.repository.SourceRepository;
+import com.expensetracker.backend.statement.StatementParser;
+import com.expensetracker.backend.statement.StatementRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class ExpenseImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("dd/MM/yyyy"),
+            DateTimeFormatter.ofPattern("dd-MM-yyyy"));
+
+    private final SourceRepository sourceRepository;
+    private final ExpenseBatchWriter expenseBatchWriter;
+    private final BalanceService balanceService;
+    private final RollupService rollupService;
+    private final ChangeLogService changeLogService;
+    private final CategoryPredictionService categoryPredictionService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${expenses.import.batch-size:500}")
+    private int batchSize;
+
+    // Parses the statement as a stream and writes valid rows in batches of expenses.import.batch-size,
+    // each batch in its own transaction. Invalid rows are reported and skipped; they never abort the file.
+    public ImportResultDto importStatement(Integer userId, Integer sourceId, String format, InputStream input) throws IOException {
+        sourceRepository.findById(sourceId)
+                .filter(s -> s.getUser().getId().equals(userId))
+                .orElseThrow(() -> new IllegalArgumentException("Source not found or user not authorized"));
+
+        StatementParser parser = StatementParser.forFormat(format);
+        ImportResultDto result = new ImportResultDto();
+        Batch batch = new Batch(batchSize);
+
+        parser.parse(new InputStreamReader(input, StandardCharsets.UTF_8), new StatementParser.Handler() {
+            @Override
+            public void row(StatementRow row) {
+                ExpenseBatchWriter.Row expense;
+                try {
+                    expense = validate(userId, row);
+                } catch (IllegalArgumentException e) {
+                    fail(result, row.line(), e.getMessage());
+                    return;
+                }
+                batch.add(row.line(), expense);
+                if (batch.size() >= batchSize) {
+                    write(userId, sourceId, batch, result);
+                }
+            }
+
+            @Override
+            public void error(long line, String message) {
+                fail(result, line, message);
+            }
+
+            @Override
+            public void skipped(long line) {
+                result.setSkipped(result.getSkipped() + 1);
+            }
+        });
+        write(userId, sourceId, batch, result);
+        return result;
+    }
+
+    private void write(Integer userId, Integer sourceId, Batch batch, ImportResultDto result) {
+        if (batch.size() == 0) {
+            return;
+        }
+        long total = 0;
+        RollupService.Changes rollupChanges = new RollupService.Changes();
+        for (ExpenseBatchWriter.Row row : batch.rows) {
+            total = Money.add(total, row.amountCents());
+            rollupChanges.add(new RollupService.Key(userId, row.transactionDate(), sourceId, row.category()), row.amountCents(), 1);
+        }
+        BigDecimal batchTotal = Money.toBigDecimal(total);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Integer> ids = expenseBatchWriter.insert(userId, sourceId, batch.rows);
+                changeLogService.recordInserted(ids);
+                balanceService.adjust(sourceId, batchTotal);
+                rollupService.apply(rollupChanges);
+                eventPublisher.publishEvent(new ExpensesBulkChangedEvent(userId, sourceId, snapshots(userId, sourceId, ids, batch.rows)));
+            });
+            result.setImported(result.getImported() + batch.size());
+        } catch (DataAccessException e) {
+            for (Long line : batch.lines) {
+                fail(result, line, "Could not be saved: " + e.getMostSpecificCause().getMessage());
+            }
+        }
+        batch.clear();
+    }
+
+    private static List<ExpenseSnapshot> snapshots(Integer userId, Integer sourceId, List<Integer> ids, List<ExpenseBatchWriter.Row> rows) {
+        List<ExpenseSnapshot> snapshots = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            ExpenseBatchWriter.Row row = rows.get(i);
+            snapshots.add(new ExpenseSnapshot(ids.get(i), userId, sourceId, Money.toBigDecimal(row.amountCents()),
+                    row.vendor(), row.category(), row.description(), row.transactionDate()));
+        }
+        return snapshots;
+    }
+
+    private ExpenseBatchWriter.Row validate(Integer userId, StatementRow row) {
+        LocalDate date = parseDate(row.date());
+        long amount = parseAmount(row.amount());
+        String vendor = row.vendor() != null ? row.vendor() : row.description();
+        if (vendor == null) {
+            throw new IllegalArgumentException("Missing vendor");
+        }
+        String category = row.category() != null ? row.category()
+                : categoryPredictionService.categoryFor(userId, vendor, row.description());
+        return new ExpenseBatchWriter.Row(amount, truncate(vendor), truncate(category), row.description(), date);
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing date");
+        }
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(value, format);
+            } catch (DateTimeParseException ignored) {
+                // try the next format
+            }
+        }
+        throw new IllegalArgumentException("Unrecognized date: " + value);
+    }
+
+    // In cents.
+    private static long parseAmount(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing amount");
+        }
+        long amount;
+        try {
+            amount = Money.parse(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(e.getMessage() + ": " + value);
+        }
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Amount must be positive: " + value);
+        }
+        return amount;
+    }
+
+    private static String truncate(String value) {
+        return value.length() <= MAX_TEXT_LENGTH ? value : value.substring(0, MAX_TEXT_LENGTH);
+    }
+
+    private static void fail(ImportResultDto result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new ImportResultDto.RowError(line, message));
+        }
+    }
+
+    private static class Batch {
+        private final List<Long> lines;
+        private final List<ExpenseBatchWriter.Row> rows;
+
+        Batch(int capacity) {
+            this.lines = new ArrayList<>(capacity);
+            this.rows = new ArrayList<>(capacity);
+        }
+
+        void add(long line, ExpenseBatchWriter.Row row) {
+            lines.add(line);
+            rows.add(row);
+        }
+
+        int size() {
+            return rows.size();
+        }
+
+        void clear() {
+            lines.clear();
+            rows.clear();
+        }
+    }
+}
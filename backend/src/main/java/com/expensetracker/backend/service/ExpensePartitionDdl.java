@@ -0,0 +1,121 @@
+package com.expensetracker.backend.service;
+
+import java.time.LocalDate;
+import java.util.StringJoiner;
+
+// Generates the DDL that converts the expenses table into one range-partitioned by
+// transaction_date (one partition per year plus a catch-all), and the DDL that later splits the
+// next year out of the catch-all. Hibernate's ddl-auto cannot create partitioned tables, so run
+// the output by hand (see ExpenseStorageRunner) and switch spring.jpa.hibernate.ddl-auto to
+// 'validate' afterwards.
+//
+// Both databases require the partition column in the primary key, so the key becomes
+// (id, transaction_date). MySQL does not support foreign keys on partitioned tables, so on MySQL
+// the expenses -> users/sources foreign keys are dropped; the application deletes expenses before
+// their source or user (see SourceService.deleteSource and AccountService.deleteAccount).
+//
+// The conversion copies every row and then drops the old table (keeping it would keep its rows'
+// foreign keys, and every later source or account delete would fail on them). Writes to expenses
+// must be stopped for the whole conversion: on MySQL a row written after the copy would be lost,
+// so stop the application first; on PostgreSQL the script locks the table and writers wait.
+public final class ExpensePartitionDdl {
+
+    public enum Dialect {
+        MYSQL, POSTGRESQL
+    }
+
+    private ExpensePartitionDdl() {
+    }
+
+    public static String convert(Dialect dialect, int fromYear, int toYear) {
+        if (fromYear > toYear) {
+            throw new IllegalArgumentException("fromYear must not be after toYear");
+        }
+        return dialect == Dialect.MYSQL ? mysql(fromYear, toYear) : postgresql(fromYear, toYear);
+    }
+
+    public static String addYear(Dialect dialect, int year) {
+        if (dialect == Dialect.MYSQL) {
+            return "ALTER TABLE expenses REORGANIZE PARTITION p_future INTO (\n" +
+                    "    PARTITION " + mysqlPartition(year) + ",\n" +
+                    "    PARTITION p_future VALUES LESS THAN (MAXVALUE));\n";
+        }
+        // Rows of that year already in the default partition must move with it.
+        return "BEGIN;\n" +
+                "CREATE TABLE expenses_p" + year + " (LIKE expenses INCLUDING DEFAULTS);\n" +
+                "WITH moved AS (DELETE FROM expenses_p_default WHERE " + range(year, "transaction_date") + " RETURNING *)\n" +
+                "INSERT INTO expenses_p" + year + " SELECT * FROM moved;\n" +
+                "ALTER TABLE expenses ATTACH PARTITION expenses_p" + year + " FOR VALUES FROM ('" + start(year) +
+                "') TO ('" + start(year + 1) + "');\n" +
+                "COMMIT;\n";
+    }
+
+    private static String mysql(int fromYear, int toYear) {
+        StringJoiner partitions = new StringJoiner(",\n");
+        partitions.add("    PARTITION p_old VALUES LESS THAN ('" + start(fromYear) + "')");
+        for (int year = fromYear; year <= toYear; year++) {
+            partitions.add("    PARTITION " + mysqlPartition(year));
+        }
+        partitions.add("    PARTITION p_future VALUES LESS THAN (MAXVALUE)");
+
+        return "-- expenses: range partitions by transaction_date, " + fromYear + " to " + toYear + "\n" +
+                "-- Stop the application (every writer to expenses) before running this: rows written\n" +
+                "-- after the INSERT ... SELECT below would be lost with the old table.\n" +
+                "CREATE TABLE expenses_partitioned LIKE expenses;\n" +
+                "ALTER TABLE expenses_partitioned\n" +
+                "    DROP PRIMARY KEY,\n" +
+                "    ADD PRIMARY KEY (id, transaction_date),\n" +
+                "    ADD INDEX idx_expenses_user_date (user_id, transaction_date);\n" +
+                "ALTER TABLE expenses_partitioned PARTITION BY RANGE COLUMNS (transaction_date) (\n" +
+                partitions + ");\n" +
+                "INSERT INTO expenses_partitioned SELECT * FROM expenses;\n" +
+                "RENAME TABLE expenses TO expenses_unpartitioned, expenses_partitioned TO expenses;\n" +
+                "DROP TABLE expenses_unpartitioned;\n" +
+                "\n" +
+                "-- expenses_archive is append-only and rarely read: store it compressed.\n" +
+                "ALTER TABLE expenses_archive ROW_FORMAT=COMPRESSED;\n";
+    }
+
+    private static String postgresql(int fromYear, int toYear) {
+        StringBuilder ddl = new StringBuilder();
+        ddl.append("-- expenses: range partitions by transaction_date, ").append(fromYear).append(" to ").append(toYear).append('\n');
+        ddl.append("BEGIN;\n");
+        // Blocks writers (readers continue) until COMMIT, so no row is written after the copy.
+        ddl.append("LOCK TABLE expenses IN EXCLUSIVE MODE;\n");
+        ddl.append("CREATE TABLE expenses_partitioned (LIKE expenses INCLUDING DEFAULTS) PARTITION BY RANGE (transaction_date);\n");
+        // Identity columns are not allowed on partitioned tables before PostgreSQL 17; use a sequence.
+        ddl.append("CREATE SEQUENCE expenses_partitioned_id_seq OWNED BY expenses_partitioned.id;\n");
+        ddl.append("SELECT setval('expenses_partitioned_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM expenses), false);\n");
+        ddl.append("ALTER TABLE expenses_partitioned ALTER COLUMN id SET DEFAULT nextval('expenses_partitioned_id_seq');\n");
+        ddl.append("ALTER TABLE expenses_partitioned ADD PRIMARY KEY (id, transaction_date);\n");
+        ddl.append("ALTER TABLE expenses_partitioned ADD FOREIGN KEY (user_id) REFERENCES users (id);\n");
+        ddl.append("ALTER TABLE expenses_partitioned ADD FOREIGN KEY (source_id) REFERENCES sources (id);\n");
+        ddl.append("CREATE INDEX idx_expenses_user_date ON expenses_partitioned (user_id, transaction_date);\n");
+        ddl.append("CREATE INDEX idx_expenses_source ON expenses_partitioned (source_id);\n");
+        ddl.append("CREATE TABLE expenses_p_old PARTITION OF expenses_partitioned FOR VALUES FROM (MINVALUE) TO ('")
+                .append(start(fromYear)).append("');\n");
+        for (int year = fromYear; year <= toYear; year++) {
+            ddl.append("CREATE TABLE expenses_p").append(year).append(" PARTITION OF expenses_partitioned FOR VALUES FROM ('")
+                    .append(start(year)).append("') TO ('").append(start(year + 1)).append("');\n");
+        }
+        ddl.append("CREATE TABLE expenses_p_default PARTITION OF expenses_partitioned DEFAULT;\n");
+        ddl.append("INSERT INTO expenses_partitioned SELECT * FROM expenses;\n");
+        ddl.append("ALTER TABLE expenses RENAME TO expenses_unpartitioned;\n");
+        ddl.append("ALTER TABLE expenses_partitioned RENAME TO expenses;\n");
+        ddl.append("DROP TABLE expenses_unpartitioned;\n");
+        ddl.append("COMMIT;\n");
+        return ddl.toString();
+    }
+
+    private static String mysqlPartition(int year) {
+        return "p" + year + " VALUES LESS THAN ('" + start(year + 1) + "')";
+    }
+
+    private static String range(int year, String column) {
+        return column + " >= '" + start(year) + "' AND " + column + " < '" + start(year + 1) + "'";
+    }
+
+    private static LocalDate start(int year) {
+        return LocalDate.of(year, 1, 1);
+    }
+}
@@ -3,33 +3,91 @@ package com.expensetracker.backend.service;
 
 import com.expensetracker.backend.dto.ExpenseDto;
 import com.expensetracker.backend.dto.CreateExpenseRequest;
+import com.expensetracker.backend.dto.ExpenseBatchRequest;
+import com.expensetracker.backend.dto.ExpenseBatchResultDto;
+import com.expensetracker.backend.dto.ExpensePageDto;
+import com.expensetracker.backend.event.ExpenseChangedEvent;
 import com.expensetracker.backend.model.Expense;
 import com.expensetracker.backend.model.Source;
 import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.prediction.CategoryPredictionService;
+import com.expensetracker.backend.repository.ArchivedExpenseRepository;
 import com.expensetracker.backend.repository.ExpenseRepository;
 import com.expensetracker.backend.repository.SourceRepository;
 import com.expensetracker.backend.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ExpenseService {
 
     private final ExpenseRepository expenseRepository;
+    private final ArchivedExpenseRepository archivedExpenseRepository;
+    private final ExpenseArchiveService expenseArchiveService;
     private final UserRepository userRepository;
     private final SourceRepository sourceRepository;
+    private final BalanceService balanceService;
+    private final RollupService rollupService;
+    private final CategoryPredictionService categoryPredictionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_OPERATIONS = 500;
+    private static final int STREAM_FLUSH_EVERY = 500;
+    private static final Comparator<ExpenseDto> NEWEST_FIRST =
+            Comparator.comparing(ExpenseDto::getTransactionDate).thenComparing(ExpenseDto::getId).reversed();
+
+    // Normalized form of the listing query parameters shared by the page and stream endpoints.
+    // Mirrors getFilteredExpenses: a source filter takes precedence over the category filter.
+    private record ListingFilter(LocalDate startDate, LocalDate endDate, String category,
+                                 boolean allSources, List<Integer> sourceIds) {
+
+        static ListingFilter of(int dateRange, String category, List<Integer> sourceIds) {
+            LocalDate endDate = LocalDate.now();
+            LocalDate startDate = endDate.minusDays(dateRange);
+            boolean allSources = sourceIds == null || sourceIds.isEmpty();
+            String categoryFilter = !allSources || category == null || category.equalsIgnoreCase("all") ? null : category;
+            // The IN list must not be empty even when it is ignored.
+            return new ListingFilter(startDate, endDate, categoryFilter, allSources, allSources ? List.of(-1) : sourceIds);
+        }
+    }
+
+    @Transactional(readOnly = true)
     public List<ExpenseDto> getFilteredExpenses(Integer userId, int dateRange, String category, List<Integer> sourceIds) {
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusDays(dateRange);
 
-        List<Expense> expenses;
-
+        List<ExpenseDto> expenses;
         if (sourceIds != null && !sourceIds.isEmpty()) {
             expenses = expenseRepository.findByUserIdAndSourceIdInAndTransactionDateBetween(userId, sourceIds, startDate, endDate);
         } else if (category != null && !category.equalsIgnoreCase("all")) {
@@ -37,10 +95,86 @@ public class ExpenseService {
         } else {
             expenses = expenseRepository.findByUserIdAndTransactionDateBetween(userId, startDate, endDate);
         }
+        if (!expenseArchiveService.reaches(userId, startDate)) {
+            return expenses;
+        }
+        ListingFilter filter = ListingFilter.of(dateRange, category, sourceIds);
+        List<ExpenseDto> combined = new ArrayList<>(expenses);
+        combined.addAll(archivedExpenseRepository.findFiltered(userId, startDate, endDate,
+                filter.category(), filter.allSources(), filter.sourceIds()));
+        return combined;
+    }
+
+    @Transactional(readOnly = true)
+    public ExpensePageDto getExpensePage(Integer userId, int dateRange, String category, List<Integer> sourceIds,
+                                         String cursor, int limit) {
+        ListingFilter filter = ListingFilter.of(dateRange, category, sourceIds);
+        ExpenseCursor after = cursor == null || cursor.isBlank()
+                ? ExpenseCursor.first(filter.endDate())
+                : ExpenseCursor.decode(cursor);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // Ask for one extra row to learn whether another page exists without a COUNT query.
+        List<ExpenseDto> rows = expenseRepository.findPageAfter(userId, filter.startDate(), filter.endDate(),
+                filter.category(), filter.allSources(), filter.sourceIds(),
+                after.transactionDate(), after.id(), Limit.of(pageSize + 1));
+        if (expenseArchiveService.reaches(userId, filter.startDate())) {
+            List<ExpenseDto> archived = archivedExpenseRepository.findPageAfter(userId, filter.startDate(), filter.endDate(),
+                    filter.category(), filter.allSources(), filter.sourceIds(),
+                    after.transactionDate(), after.id(), Limit.of(pageSize + 1));
+            List<ExpenseDto> merged = new ArrayList<>(pageSize + 1);
+            Iterator<ExpenseDto> both = newestFirst(rows.iterator(), archived.iterator());
+            while (both.hasNext() && merged.size() <= pageSize) {
+                merged.add(both.next());
+            }
+            rows = merged;
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ExpenseDto> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        ExpensePageDto dto = new ExpensePageDto();
+        dto.setItems(List.copyOf(page));
+        if (hasMore) {
+            ExpenseDto last = page.get(page.size() - 1);
+            dto.setNextCursor(new ExpenseCursor(last.getTransactionDate(), last.getId()).encode());
+        }
+        return dto;
+    }
+
+    // Writes the matching expenses to 'out' as newline-delimited JSON, one row at a time, so heap
+    // use stays flat regardless of how many rows match.
+    public void streamFilteredExpenses(Integer userId, int dateRange, String category, List<Integer> sourceIds,
+                                       OutputStream out) {
+        ListingFilter filter = ListingFilter.of(dateRange, category, sourceIds);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
 
-        return expenses.stream().map(this::convertToDto).collect(Collectors.toList());
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<ExpenseDto> expenses = expenseRepository.streamFiltered(userId, filter.startDate(), filter.endDate(),
+                    filter.category(), filter.allSources(), filter.sourceIds());
+                 Stream<ExpenseDto> archived = expenseArchiveService.reaches(userId, filter.startDate())
+                         ? archivedExpenseRepository.streamFiltered(userId, filter.startDate(), filter.endDate(),
+                                 filter.category(), filter.allSources(), filter.sourceIds())
+                         : Stream.empty();
+                 JsonGenerator generator = objectMapper.createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                int written = 0;
+                Iterator<ExpenseDto> rows = newestFirst(expenses.iterator(), archived.iterator());
+                for (ExpenseDto expense : (Iterable<ExpenseDto>) () -> rows) {
+                    generator.writeObject(expense);
+                    generator.writeRaw('\n');
+                    if (++written % STREAM_FLUSH_EVERY == 0) {
+                        generator.flush();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
     }
 
+    @Transactional
     public ExpenseDto addExpense(Integer userId, CreateExpenseRequest request) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
@@ -49,56 +183,261 @@ public class ExpenseService {
 
         Expense expense = new Expense();
         expense.setUser(user);
-        expense.setSource(source);
-        expense.setAmount(request.getAmount());
-        expense.setVendor(request.getVendor());
-        expense.setCategory(request.getCategory());
-        expense.setDescription(request.getDescription());
-        expense.setTransactionDate(request.getTransactionDate());
+        fillCategory(userId, request);
+        applyRequest(expense, source, request);
 
         Expense savedExpense = expenseRepository.save(expense);
-        return convertToDto(savedExpense);
+        balanceService.adjust(source.getId(), savedExpense.getAmount());
+        ExpenseSnapshot after = ExpenseSnapshot.of(savedExpense);
+        rollupService.record(null, after);
+        eventPublisher.publishEvent(new ExpenseChangedEvent(userId, null, after));
+        return DtoMapper.toDto(savedExpense);
     }
 
+    @Transactional
     public ExpenseDto updateExpense(Integer userId, Integer expenseId, CreateExpenseRequest request) {
-        Expense expense = expenseRepository.findById(expenseId)
-                .filter(e -> e.getUser().getId().equals(userId))
-                .orElseThrow(() -> new IllegalArgumentException("Expense not found or user not authorized"));
+        Expense expense = findOwnExpense(userId, expenseId);
 
         Source source = sourceRepository.findById(request.getSourceId())
                 .orElseThrow(() -> new IllegalArgumentException("Source not found"));
 
+        ExpenseSnapshot before = ExpenseSnapshot.of(expense);
+        Integer previousSourceId = before.sourceId();
+        BigDecimal previousAmount = before.amount();
+
+        fillCategory(userId, request);
+        applyRequest(expense, source, request);
+
+        Expense updatedExpense = expenseRepository.save(expense);
+        if (previousSourceId.equals(source.getId())) {
+            balanceService.adjust(source.getId(), nullToZero(updatedExpense.getAmount()).subtract(nullToZero(previousAmount)));
+        } else {
+            balanceService.adjust(previousSourceId, nullToZero(previousAmount).negate());
+            balanceService.adjust(source.getId(), updatedExpense.getAmount());
+        }
+        ExpenseSnapshot after = ExpenseSnapshot.of(updatedExpense);
+        rollupService.record(before, after);
+        eventPublisher.publishEvent(new ExpenseChangedEvent(userId, before, after));
+        return DtoMapper.toDto(updatedExpense);
+    }
+
+    // Points the expense at a stored receipt (see ReceiptService); only the URL goes through JPA.
+    @Transactional
+    public ExpenseDto attachReceipt(Integer userId, Integer expenseId, String receiptImageUrl) {
+        Expense expense = findOwnExpense(userId, expenseId);
+
+        ExpenseSnapshot snapshot = ExpenseSnapshot.of(expense);
+        expense.setReceiptImageUrl(receiptImageUrl);
+        Expense updatedExpense = expenseRepository.save(expense);
+        // Nothing the snapshot covers changed, but listings and sync have to see the new URL.
+        eventPublisher.publishEvent(new ExpenseChangedEvent(userId, snapshot, ExpenseSnapshot.of(updatedExpense)));
+        return DtoMapper.toDto(updatedExpense);
+    }
+
+    @Transactional
+    public void deleteExpense(Integer userId, Integer expenseId) {
+        Expense expense = findOwnExpense(userId, expenseId);
+
+        expenseRepository.delete(expense);
+        balanceService.adjust(expense.getSource().getId(), nullToZero(expense.getAmount()).negate());
+        ExpenseSnapshot before = ExpenseSnapshot.of(expense);
+        rollupService.record(before, null);
+        eventPublisher.publishEvent(new ExpenseChangedEvent(userId, before, null));
+    }
+
+    // Applies a mixed list of creates, updates and deletes in one transaction. The user, every
+    // referenced source and every targeted expense are each resolved with a single query up front.
+    // Operations that fail validation are reported individually and do not affect the others.
+    @Transactional
+    public ExpenseBatchResultDto applyBatch(Integer userId, ExpenseBatchRequest request) {
+        List<ExpenseBatchRequest.Operation> operations =
+                request.getOperations() == null ? List.of() : request.getOperations();
+        if (operations.size() > MAX_BATCH_OPERATIONS) {
+            throw new IllegalArgumentException("A batch may contain at most " + MAX_BATCH_OPERATIONS + " operations");
+        }
+
+        Set<Integer> sourceIds = new HashSet<>();
+        Set<Integer> expenseIds = new HashSet<>();
+        for (ExpenseBatchRequest.Operation op : operations) {
+            if (op == null) {
+                continue;
+            }
+            if (op.getExpense() != null && op.getExpense().getSourceId() != null) {
+                sourceIds.add(op.getExpense().getSourceId());
+            }
+            if (op.getId() != null) {
+                expenseIds.add(op.getId());
+            }
+        }
+
+        User user = userRepository.getReferenceById(userId);
+        Map<Integer, Source> sources = sourceRepository.findAllById(sourceIds).stream()
+                .filter(s -> s.getUser().getId().equals(userId))
+                .collect(Collectors.toMap(Source::getId, Function.identity()));
+        // Ids missing from the hot table may be archived expenses; they are moved back first.
+        List<Expense> found = new ArrayList<>(expenseRepository.findAllById(expenseIds));
+        Set<Integer> missing = new HashSet<>(expenseIds);
+        found.forEach(e -> missing.remove(e.getId()));
+        if (expenseArchiveService.restore(userId, missing) > 0) {
+            found.addAll(expenseRepository.findAllById(missing));
+        }
+        Map<Integer, Expense> expenses = found.stream()
+                .filter(e -> e.getUser().getId().equals(userId))
+                .collect(Collectors.toMap(Expense::getId, Function.identity()));
+        Map<Integer, BigDecimal> balanceDeltas = new HashMap<>();
+        RollupService.Changes rollupChanges = new RollupService.Changes();
+
+        ExpenseBatchResultDto result = new ExpenseBatchResultDto();
+        for (int i = 0; i < operations.size(); i++) {
+            ExpenseBatchRequest.Operation op = operations.get(i);
+            ExpenseBatchResultDto.ItemResult item = new ExpenseBatchResultDto.ItemResult();
+            item.setIndex(i);
+            try {
+                if (op == null || op.getOp() == null) {
+                    throw new IllegalArgumentException("Missing op");
+                }
+                item.setOp(op.getOp().toUpperCase(Locale.ROOT));
+                item.setId(op.getId());
+                switch (item.getOp()) {
+                    case "CREATE" -> {
+                        Source source = resolveSource(sources, op.getExpense());
+                        fillCategory(userId, op.getExpense());
+                        Expense expense = new Expense();
+                        expense.setUser(user);
+                        applyRequest(expense, source, op.getExpense());
+                        Expense saved = expenseRepository.save(expense);
+                        balanceDeltas.merge(source.getId(), saved.getAmount(), BigDecimal::add);
+                        ExpenseSnapshot after = ExpenseSnapshot.of(saved);
+                        rollupChanges.add(null, after);
+                        eventPublisher.publishEvent(new ExpenseChangedEvent(userId, null, after));
+                        item.setId(saved.getId());
+                        item.setExpense(DtoMapper.toDto(saved));
+                    }
+                    case "UPDATE" -> {
+                        Expense expense = resolveExpense(expenses, op.getId());
+                        Source source = resolveSource(sources, op.getExpense());
+                        fillCategory(userId, op.getExpense());
+                        ExpenseSnapshot before = ExpenseSnapshot.of(expense);
+                        balanceDeltas.merge(before.sourceId(), before.amount().negate(), BigDecimal::add);
+                        applyRequest(expense, source, op.getExpense());
+                        balanceDeltas.merge(source.getId(), expense.getAmount(), BigDecimal::add);
+                        ExpenseSnapshot after = ExpenseSnapshot.of(expense);
+                        rollupChanges.add(before, after);
+                        eventPublisher.publishEvent(new ExpenseChangedEvent(userId, before, after));
+                        item.setExpense(DtoMapper.toDto(expenseRepository.save(expense)));
+                    }
+                    case "DELETE" -> {
+                        Expense expense = resolveExpense(expenses, op.getId());
+                        expenseRepository.delete(expense);
+                        expenses.remove(expense.getId());
+                        balanceDeltas.merge(expense.getSource().getId(), expense.getAmount().negate(), BigDecimal::add);
+                        ExpenseSnapshot before = ExpenseSnapshot.of(expense);
+                        rollupChanges.add(before, null);
+                        eventPublisher.publishEvent(new ExpenseChangedEvent(userId, before, null));
+                    }
+                    default -> throw new IllegalArgumentException("Unknown op: " + op.getOp());
+                }
+                item.setSuccess(true);
+                result.setSucceeded(result.getSucceeded() + 1);
+            } catch (IllegalArgumentException e) {
+                item.setSuccess(false);
+                item.setError(e.getMessage());
+                result.setFailed(result.getFailed() + 1);
+            }
+            result.getResults().add(item);
+        }
+
+        balanceDeltas.forEach(balanceService::adjust);
+        rollupService.apply(rollupChanges);
+        return result;
+    }
+
+    // The user's expense, moved back from the archive first if it was archived.
+    private Expense findOwnExpense(Integer userId, Integer expenseId) {
+        Optional<Expense> expense = expenseRepository.findById(expenseId);
+        if (expense.isEmpty() && expenseArchiveService.restore(userId, List.of(expenseId)) > 0) {
+            expense = expenseRepository.findById(expenseId);
+        }
+        return expense.filter(e -> e.getUser().getId().equals(userId))
+                .orElseThrow(() -> new IllegalArgumentException("Expense not found or user not authorized"));
+    }
+
+    private static Source resolveSource(Map<Integer, Source> sources, CreateExpenseRequest request) {
+        validate(request);
+        Source source = sources.get(request.getSourceId());
+        if (source == null) {
+            throw new IllegalArgumentException("Source not found");
+        }
+        return source;
+    }
+
+    private static Expense resolveExpense(Map<Integer, Expense> expenses, Integer id) {
+        Expense expense = id == null ? null : expenses.get(id);
+        if (expense == null) {
+            throw new IllegalArgumentException("Expense not found or user not authorized");
+        }
+        return expense;
+    }
+
+    // Batch items are checked up front so a bad item fails on its own instead of failing the
+    // whole transaction on a NOT NULL constraint.
+    private static void validate(CreateExpenseRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Missing expense");
+        }
+        if (request.getSourceId() == null || request.getAmount() == null || request.getTransactionDate() == null
+                || request.getVendor() == null) {
+            throw new IllegalArgumentException("sourceId, amount, vendor and transactionDate are required");
+        }
+    }
+
+    // A missing category is predicted from the vendor and description (see CategoryPredictionService).
+    private void fillCategory(Integer userId, CreateExpenseRequest request) {
+        if (request.getCategory() == null || request.getCategory().isBlank()) {
+            request.setCategory(categoryPredictionService.categoryFor(userId, request.getVendor(), request.getDescription()));
+        }
+    }
+
+    private static void applyRequest(Expense expense, Source source, CreateExpenseRequest request) {
         expense.setSource(source);
         expense.setAmount(request.getAmount());
         expense.setVendor(request.getVendor());
         expense.setCategory(request.getCategory());
         expense.setDescription(request.getDescription());
         expense.setTransactionDate(request.getTransactionDate());
+    }
 
-        Expense updatedExpense = expenseRepository.save(expense);
-        return convertToDto(updatedExpense);
+    private static BigDecimal nullToZero(BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value;
     }
 
-    public void deleteExpense(Integer userId, Integer expenseId) {
-        Expense expense = expenseRepository.findById(expenseId)
-                .filter(e -> e.getUser().getId().equals(userId))
-                .orElseThrow(() -> new IllegalArgumentException("Expense not found or user not authorized"));
+    // Merges two (transactionDate DESC, id DESC) ordered sequences, e.g. hot and archived rows.
+    private static Iterator<ExpenseDto> newestFirst(Iterator<ExpenseDto> first, Iterator<ExpenseDto> second) {
+        return new Iterator<>() {
+            private ExpenseDto nextFirst = first.hasNext() ? first.next() : null;
+            private ExpenseDto nextSecond = second.hasNext() ? second.next() : null;
 
-        expenseRepository.delete(expense);
-    }
+            @Override
+            public boolean hasNext() {
+                return nextFirst != null || nextSecond != null;
+            }
 
-    private ExpenseDto convertToDto(Expense expense) {
-        ExpenseDto dto = new ExpenseDto();
-        dto.setId(expense.getId());
-        dto.setSourceId(expense.getSource().getId());
-        dto.setSourceName(expense.getSource().getName());
-        dto.setAmount(expense.getAmount());
-        dto.setVendor(expense.getVendor());
-        dto.setCategory(expense.getCategory());
-        dto.setDescription(expense.getDescription());
-        dto.setTransactionDate(expense.getTransactionDate());
-        dto.setReceiptImageUrl(expense.getReceiptImageUrl());
-        return dto;
+            @Override
+            public ExpenseDto next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ExpenseDto result;
+                if (nextSecond == null || (nextFirst != null && NEWEST_FIRST.compare(nextFirst, nextSecond) <= 0)) {
+                    result = nextFirst;
+                    nextFirst = first.hasNext() ? first.next() : null;
+                } else {
+                    result = nextSecond;
+                    nextSecond = second.hasNext() ? second.next() : null;
+                }
+                return result;
+            }
+        };
     }
 }
 
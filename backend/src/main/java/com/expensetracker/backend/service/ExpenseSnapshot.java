@@ -0,0 +1,18 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.model.Expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Immutable copy of an expense's state at one point in a write, so derived data (rollups,
+// balances, ...) can be adjusted from "before" and "after" without holding on to the entity.
+public record ExpenseSnapshot(Integer id, Integer userId, Integer sourceId, BigDecimal amount,
+                              String vendor, String category, String description, LocalDate transactionDate) {
+
+    public static ExpenseSnapshot of(Expense expense) {
+        return new ExpenseSnapshot(expense.getId(), expense.getUser().getId(), expense.getSource().getId(),
+                expense.getAmount(), expense.getVendor(), expense.getCategory(), expense.getDescription(),
+                expense.getTransactionDate());
+    }
+}
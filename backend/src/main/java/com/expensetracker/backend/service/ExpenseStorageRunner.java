@@ -0,0 +1,54 @@
+package com.expensetracker.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.time.Year;
+import java.util.List;
+import java.util.Locale;
+
+// Command-line entry points for expense storage maintenance:
+//   java -jar backend.jar --expenses.partition-ddl=mysql [--from-year=2015] [--to-year=2026]
+//       print the DDL that converts expenses into a partitioned table (mysql or postgresql)
+//   java -jar backend.jar --expenses.partition-ddl=mysql --add-year=2027
+//       print the DDL that adds the next yearly partition
+//   java -jar backend.jar --expenses.archive      (move rows past the horizon into expenses_archive now)
+// Add --spring.main.web-application-type=none to exit once the command has finished.
+@Component
+@RequiredArgsConstructor
+public class ExpenseStorageRunner implements ApplicationRunner {
+
+    private final ExpenseArchiveService expenseArchiveService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption("expenses.partition-ddl")) {
+            ExpensePartitionDdl.Dialect dialect = ExpensePartitionDdl.Dialect.valueOf(
+                    single(args, "expenses.partition-ddl", null).toUpperCase(Locale.ROOT));
+            int currentYear = Year.now().getValue();
+            if (args.containsOption("add-year")) {
+                System.out.print(ExpensePartitionDdl.addYear(dialect, Integer.parseInt(single(args, "add-year", null))));
+            } else {
+                int fromYear = Integer.parseInt(single(args, "from-year", String.valueOf(currentYear - 10)));
+                int toYear = Integer.parseInt(single(args, "to-year", String.valueOf(currentYear + 1)));
+                System.out.print(ExpensePartitionDdl.convert(dialect, fromYear, toYear));
+            }
+        }
+        if (args.containsOption("expenses.archive")) {
+            expenseArchiveService.archive();
+        }
+    }
+
+    private static String single(ApplicationArguments args, String name, String defaultValue) {
+        List<String> values = args.getOptionValues(name);
+        if (values == null || values.isEmpty() || values.get(0).isBlank()) {
+            if (defaultValue == null) {
+                throw new IllegalArgumentException("--" + name + " needs a value");
+            }
+            return defaultValue;
+        }
+        return values.get(0);
+    }
+}
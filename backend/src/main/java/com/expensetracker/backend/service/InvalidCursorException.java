@@ -0,0 +1,10 @@
+package com.expensetracker.backend.service;
+
+// A page cursor that was not issued by ExpenseCursor.encode (tampered with or truncated).
+// Answered with 400 by ExpenseController rather than the 500 of an unhandled exception.
+public class InvalidCursorException extends IllegalArgumentException {
+
+    public InvalidCursorException() {
+        super("Invalid cursor");
+    }
+}
@@ -0,0 +1,61 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.repository.SchedulerLeaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Cluster-wide leases on background work, held in scheduler_leases. Every claim, renewal and
+// release commits on its own, so a lease is visible to other nodes at once and expires by itself
+// if this node dies. A lease only limits who works; the work must still be safe to repeat, because
+// a node that stalls past its lease can overlap with the next holder.
+@Slf4j
+@Service
+public class LeaseService {
+
+    private final SchedulerLeaseRepository leaseRepository;
+    private final TransactionTemplate requiresNew;
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+
+    public LeaseService(SchedulerLeaseRepository leaseRepository, PlatformTransactionManager transactionManager) {
+        this.leaseRepository = leaseRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Takes the lease for ttl, or extends it if this node already holds it. False if another node
+    // holds it.
+    public boolean tryAcquire(String name, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(ttl);
+        Integer claimed = requiresNew.execute(status -> leaseRepository.claim(name, owner, now, until));
+        if (claimed != null && claimed > 0) {
+            return true;
+        }
+        // First use of this lease name: create it. If another node creates it at the same moment,
+        // the primary key lets only one of them win.
+        try {
+            return Boolean.TRUE.equals(requiresNew.execute(status ->
+                    !leaseRepository.existsById(name) && leaseRepository.insert(name, owner, until) > 0));
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    public void release(String name) {
+        try {
+            requiresNew.executeWithoutResult(status -> leaseRepository.release(name, owner, LocalDateTime.now()));
+        } catch (RuntimeException e) {
+            // It expires on its own.
+            log.warn("Could not release lease {}", name, e);
+        }
+    }
+}
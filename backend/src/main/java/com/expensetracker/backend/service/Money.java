@@ -0,0 +1,105 @@
+package com.expensetracker.backend.service;
+
+import java.math.BigDecimal;
+
+// Amounts as a primitive long of cents (minor units, scale 2 like every money column), for code
+// that adds up many amounts in memory: rollup deltas, import totals, analytics periods, alert
+// balances. Adding BigDecimals allocates a new object per step; adding cents allocates nothing.
+// Operations throw ArithmeticException on overflow instead of wrapping. Entities, repositories
+// and DTOs keep BigDecimal; convert with cents()/toBigDecimal() at those edges.
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    // The amount in cents; throws ArithmeticException if it has more than two decimal places
+    // (so would not be exact) or does not fit in a long. Null counts as zero.
+    public static long cents(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        return amount.movePointRight(SCALE).longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    public static long negate(long cents) {
+        return Math.negateExact(cents);
+    }
+
+    // Parses a plain decimal amount ("1234.5", "-12.30", "1,234.56") straight into cents, without
+    // going through BigDecimal. Commas are accepted only as thousands separators in the integer
+    // part (groups of three digits), so a decimal comma like "12,50" is rejected rather than read
+    // as 1250. Throws NumberFormatException if the text is not such a number, has more than two
+    // decimal places or does not fit in a long.
+    public static long parse(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        long cents = 0;
+        int digits = 0;
+        // Digits since the last thousands separator, and whether there was one.
+        int group = 0;
+        boolean grouped = false;
+        try {
+            for (; i < length && text.charAt(i) != '.'; i++) {
+                char ch = text.charAt(i);
+                if (ch == ',') {
+                    if (group == 0 || group > 3 || (grouped && group != 3)) {
+                        throw new NumberFormatException("Invalid thousands separator");
+                    }
+                    grouped = true;
+                    group = 0;
+                    continue;
+                }
+                if (ch < '0' || ch > '9') {
+                    throw new NumberFormatException("Invalid amount");
+                }
+                cents = Math.addExact(Math.multiplyExact(cents, 10), ch - '0');
+                digits++;
+                group++;
+            }
+            if (grouped && group != 3) {
+                throw new NumberFormatException("Invalid thousands separator");
+            }
+            cents = Math.multiplyExact(cents, 100);
+            if (i < length) {
+                i++;
+                int decimals = 0;
+                for (; i < length; i++, decimals++) {
+                    char ch = text.charAt(i);
+                    if (ch < '0' || ch > '9') {
+                        throw new NumberFormatException("Invalid amount");
+                    }
+                    if (decimals >= SCALE) {
+                        throw new NumberFormatException("Amount has more than " + SCALE + " decimal places");
+                    }
+                    cents = Math.addExact(cents, (ch - '0') * (decimals == 0 ? 10 : 1));
+                    digits++;
+                }
+            }
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount is too large");
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Invalid amount");
+        }
+        return negative ? -cents : cents;
+    }
+}
@@ -0,0 +1,72 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.model.RecurringExpense;
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+
+// The occurrence dates of a recurring expense. Weekly and monthly dates are counted from the start
+// date rather than from the previous occurrence, so a template starting on the 31st falls on the
+// last day of shorter months and returns to the 31st afterwards. A cron expression counts by the
+// dates it fires on, however often it fires on each.
+final class RecurrenceRule {
+
+    private final RecurringExpense.Frequency frequency;
+    private final CronExpression cron;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+
+    private RecurrenceRule(RecurringExpense.Frequency frequency, CronExpression cron, LocalDate startDate, LocalDate endDate) {
+        this.frequency = frequency;
+        this.cron = cron;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    // Throws IllegalArgumentException for an invalid cron expression.
+    static RecurrenceRule of(RecurringExpense template) {
+        CronExpression cron = null;
+        if (template.getFrequency() == RecurringExpense.Frequency.CRON) {
+            if (template.getCronExpression() == null) {
+                throw new IllegalArgumentException("A cron expression is required for CRON frequency");
+            }
+            cron = CronExpression.parse(template.getCronExpression());
+        }
+        return new RecurrenceRule(template.getFrequency(), cron, template.getStartDate(), template.getEndDate());
+    }
+
+    // The first occurrence, or null if there is none.
+    LocalDate first() {
+        return nextAfter(startDate.minusDays(1));
+    }
+
+    // The first occurrence strictly after the date, or null once past the end date.
+    LocalDate nextAfter(LocalDate date) {
+        LocalDate next;
+        if (date.isBefore(startDate) && frequency != RecurringExpense.Frequency.CRON) {
+            next = startDate;
+        } else {
+            next = switch (frequency) {
+                case DAILY -> date.plusDays(1);
+                case WEEKLY -> startDate.plusWeeks(ChronoUnit.WEEKS.between(startDate, date) + 1);
+                case MONTHLY -> {
+                    long months = ChronoUnit.MONTHS.between(startDate, date);
+                    LocalDate candidate = startDate.plusMonths(months);
+                    while (!candidate.isAfter(date)) {
+                        candidate = startDate.plusMonths(++months);
+                    }
+                    yield candidate;
+                }
+                case CRON -> {
+                    LocalDate from = date.isBefore(startDate) ? startDate.minusDays(1) : date;
+                    LocalDateTime fires = cron.next(from.atTime(LocalTime.MAX));
+                    yield fires == null ? null : fires.toLocalDate();
+                }
+            };
+        }
+        return next == null || (endDate != null && next.isAfter(endDate)) ? null : next;
+    }
+}
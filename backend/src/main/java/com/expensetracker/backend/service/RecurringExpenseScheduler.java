@@ -0,0 +1,210 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.event.ExpensesBulkChangedEvent;
+import com.expensetracker.backend.model.RecurringExpense;
+import com.expensetracker.backend.repository.ExpenseBatchWriter;
+import com.expensetracker.backend.repository.RecurringExpenseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Turns due recurring expense templates into expenses. Runs every few minutes rather than once at
+// midnight, and works through users in shards (user_id mod shards): a node takes a shard's lease,
+// then materializes its due templates in chunks, each chunk one transaction with one JDBC batch of
+// inserts plus the usual balance, rollup and change-log updates. Nodes visit shards in random order
+// and skip shards leased by another node.
+//
+// Each template's nextDueDate is advanced with a compare-and-set in the same transaction as its
+// expenses, so a period is never materialized twice, even if a lease runs out mid-chunk. After
+// downtime, missed periods are caught up at most max-occurrences-per-template per template and
+// max-occurrences-per-run per run, so a long outage is worked off over several runs instead of in
+// one burst.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecurringExpenseScheduler {
+
+    private static final String LEASE_PREFIX = "recurring-expenses-";
+
+    private final RecurringExpenseRepository recurringExpenseRepository;
+    private final ExpenseBatchWriter expenseBatchWriter;
+    private final ChangeLogService changeLogService;
+    private final BalanceService balanceService;
+    private final RollupService rollupService;
+    private final LeaseService leaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${recurring.scheduler.enabled:true}")
+    private boolean enabled;
+
+    @Value("${recurring.scheduler.shards:16}")
+    private int shards;
+
+    @Value("${recurring.scheduler.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${recurring.scheduler.chunk-pause:100ms}")
+    private Duration chunkPause;
+
+    @Value("${recurring.scheduler.max-occurrences-per-template:31}")
+    private int maxPerTemplate;
+
+    @Value("${recurring.scheduler.max-occurrences-per-run:50000}")
+    private long maxPerRun;
+
+    @Value("${recurring.scheduler.lease-ttl:5m}")
+    private Duration leaseTtl;
+
+    @Scheduled(fixedDelayString = "${recurring.scheduler.interval-ms:300000}",
+            initialDelayString = "${recurring.scheduler.initial-delay-ms:60000}")
+    public void scheduledRun() {
+        if (enabled) {
+            materializeDue(LocalDate.now());
+        }
+    }
+
+    // Materializes occurrences due on or before the date; returns the number of expenses created.
+    public long materializeDue(LocalDate date) {
+        List<Integer> order = IntStream.range(0, shards).boxed().collect(Collectors.toList());
+        Collections.shuffle(order);
+        long created = 0;
+        for (int shard : order) {
+            if (created >= maxPerRun || Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            // The shard count is part of the name, so nodes configured differently never share a lease.
+            String lease = LEASE_PREFIX + shards + "-" + shard;
+            if (!leaseService.tryAcquire(lease, leaseTtl)) {
+                continue;
+            }
+            try {
+                created += materializeShard(shard, date, maxPerRun - created, lease);
+            } finally {
+                leaseService.release(lease);
+            }
+        }
+        if (created > 0) {
+            log.info("Created {} recurring expenses due by {}", created, date);
+        }
+        return created;
+    }
+
+    private long materializeShard(int shard, LocalDate date, long budget, String lease) {
+        long created = 0;
+        for (Integer afterId = 0; created < budget; ) {
+            List<RecurringExpense> due = recurringExpenseRepository.findDueInShard(date, shards, shard, afterId, Limit.of(chunkSize));
+            if (due.isEmpty()) {
+                break;
+            }
+            created += materializeChunk(due, date);
+            afterId = due.get(due.size() - 1).getId();
+            if (due.size() < chunkSize || !pause() || !leaseService.tryAcquire(lease, leaseTtl)) {
+                break;
+            }
+        }
+        return created;
+    }
+
+    // One transaction for the chunk; if it fails, each template gets its own, so one bad template
+    // (say, a source deleted mid-run) does not hold back the others.
+    private int materializeChunk(List<RecurringExpense> templates, LocalDate date) {
+        try {
+            return materialize(templates, date);
+        } catch (DataAccessException e) {
+            log.warn("Could not materialize a chunk of {} recurring expenses; retrying one by one", templates.size(), e);
+        }
+        int created = 0;
+        for (RecurringExpense template : templates) {
+            try {
+                created += materialize(List.of(template), date);
+            } catch (DataAccessException e) {
+                log.warn("Could not materialize recurring expense {}", template.getId(), e);
+            }
+        }
+        return created;
+    }
+
+    private int materialize(List<RecurringExpense> templates, LocalDate date) {
+        Integer created = transactionTemplate.execute(status -> {
+            List<ExpenseBatchWriter.OwnedRow> rows = new ArrayList<>();
+            for (RecurringExpense template : templates) {
+                RecurrenceRule rule;
+                try {
+                    rule = RecurrenceRule.of(template);
+                } catch (IllegalArgumentException e) {
+                    log.warn("Recurring expense {} has an invalid schedule: {}", template.getId(), e.getMessage());
+                    continue;
+                }
+                LocalDate expected = template.getNextDueDate();
+                LocalDate next = expected;
+                List<LocalDate> dates = new ArrayList<>();
+                while (next != null && !next.isAfter(date) && dates.size() < maxPerTemplate) {
+                    dates.add(next);
+                    next = rule.nextAfter(next);
+                }
+                if (dates.isEmpty() || recurringExpenseRepository.advance(template.getId(), expected, next) == 0) {
+                    continue;
+                }
+                long amount = Money.cents(template.getAmount());
+                for (LocalDate occurrence : dates) {
+                    rows.add(new ExpenseBatchWriter.OwnedRow(template.getUserId(), template.getSourceId(),
+                            new ExpenseBatchWriter.Row(amount, template.getVendor(), template.getCategory(),
+                                    template.getDescription(), occurrence)));
+                }
+            }
+            if (rows.isEmpty()) {
+                return 0;
+            }
+
+            List<Integer> ids = expenseBatchWriter.insert(rows);
+            changeLogService.recordInserted(ids);
+            Map<Integer, Long> sourceTotals = new HashMap<>();
+            Map<Integer, Integer> sourceOwners = new HashMap<>();
+            RollupService.Changes rollupChanges = new RollupService.Changes();
+            for (ExpenseBatchWriter.OwnedRow owned : rows) {
+                ExpenseBatchWriter.Row row = owned.row();
+                sourceTotals.merge(owned.sourceId(), row.amountCents(), Money::add);
+                sourceOwners.put(owned.sourceId(), owned.userId());
+                rollupChanges.add(new RollupService.Key(owned.userId(), row.transactionDate(), owned.sourceId(), row.category()),
+                        row.amountCents(), 1);
+            }
+            sourceTotals.forEach((sourceId, total) -> balanceService.adjust(sourceId, Money.toBigDecimal(total)));
+            rollupService.apply(rollupChanges);
+            sourceOwners.forEach((sourceId, userId) -> eventPublisher.publishEvent(new ExpensesBulkChangedEvent(userId, sourceId)));
+            return rows.size();
+        });
+        int count = created == null ? 0 : created;
+        meterRegistry.counter("recurring.expenses.created").increment(count);
+        return count;
+    }
+
+    // Gives other work on the database a moment between chunks. False if interrupted.
+    private boolean pause() {
+        try {
+            Thread.sleep(chunkPause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.RecurringExpenseDto;
+import com.expensetracker.backend.model.RecurringExpense;
+import com.expensetracker.backend.prediction.CategoryPredictionService;
+import com.expensetracker.backend.repository.RecurringExpenseRepository;
+import com.expensetracker.backend.repository.SourceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+// Recurring expense templates (rent, subscriptions). The expenses themselves are created by
+// RecurringExpenseScheduler as occurrences fall due, including ones already due at creation.
+@Service
+@RequiredArgsConstructor
+public class RecurringExpenseService {
+
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private final RecurringExpenseRepository recurringExpenseRepository;
+    private final SourceRepository sourceRepository;
+    private final CategoryPredictionService categoryPredictionService;
+
+    public List<RecurringExpenseDto> getRecurringExpenses(Integer userId) {
+        return recurringExpenseRepository.findByUserIdOrderByIdAsc(userId).stream()
+                .map(RecurringExpenseService::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    public RecurringExpenseDto createRecurringExpense(Integer userId, RecurringExpenseDto request) {
+        validate(request);
+        sourceRepository.findById(request.getSourceId())
+                .filter(s -> s.getUser().getId().equals(userId))
+                .orElseThrow(() -> new IllegalArgumentException("Source not found or user not authorized"));
+
+        RecurringExpense template = new RecurringExpense();
+        template.setUserId(userId);
+        template.setSourceId(request.getSourceId());
+        template.setAmount(request.getAmount());
+        template.setVendor(request.getVendor());
+        template.setCategory(request.getCategory() == null || request.getCategory().isBlank()
+                ? categoryPredictionService.categoryFor(userId, request.getVendor(), request.getDescription())
+                : request.getCategory());
+        template.setDescription(request.getDescription());
+        template.setFrequency(parseFrequency(request.getFrequency()));
+        template.setCronExpression(template.getFrequency() == RecurringExpense.Frequency.CRON ? request.getCronExpression() : null);
+        template.setStartDate(request.getStartDate() != null ? request.getStartDate() : LocalDate.now());
+        template.setEndDate(request.getEndDate());
+        if (template.getEndDate() != null && template.getEndDate().isBefore(template.getStartDate())) {
+            throw new IllegalArgumentException("endDate must not be before startDate");
+        }
+        LocalDate first = RecurrenceRule.of(template).first();
+        if (first == null) {
+            throw new IllegalArgumentException("The schedule has no occurrences");
+        }
+        template.setNextDueDate(first);
+        return convertToDto(recurringExpenseRepository.save(template));
+    }
+
+    // Expenses already created from the template are kept.
+    @Transactional
+    public void deleteRecurringExpense(Integer userId, Integer id) {
+        if (recurringExpenseRepository.deleteByIdAndUserId(id, userId) == 0) {
+            throw new IllegalArgumentException("Recurring expense not found or user not authorized");
+        }
+    }
+
+    private static void validate(RecurringExpenseDto request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Missing recurring expense");
+        }
+        if (request.getSourceId() == null || request.getAmount() == null || request.getVendor() == null
+                || request.getFrequency() == null) {
+            throw new IllegalArgumentException("sourceId, amount, vendor and frequency are required");
+        }
+        if (request.getAmount().signum() <= 0 || request.getAmount().scale() > Money.SCALE
+                || request.getAmount().precision() - request.getAmount().scale() > 8) {
+            throw new IllegalArgumentException("amount must be positive, below 100,000,000 and have at most 2 decimal places");
+        }
+        if (request.getVendor().length() > MAX_TEXT_LENGTH || (request.getCategory() != null && request.getCategory().length() > MAX_TEXT_LENGTH)
+                || (request.getDescription() != null && request.getDescription().length() > MAX_TEXT_LENGTH)) {
+            throw new IllegalArgumentException("vendor, category and description may be at most " + MAX_TEXT_LENGTH + " characters");
+        }
+    }
+
+    private static RecurringExpense.Frequency parseFrequency(String frequency) {
+        try {
+            return RecurringExpense.Frequency.valueOf(frequency.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("frequency must be one of DAILY, WEEKLY, MONTHLY, CRON");
+        }
+    }
+
+    static RecurringExpenseDto convertToDto(RecurringExpense template) {
+        RecurringExpenseDto dto = new RecurringExpenseDto();
+        dto.setId(template.getId());
+        dto.setSourceId(template.getSourceId());
+        dto.setAmount(template.getAmount());
+        dto.setVendor(template.getVendor());
+        dto.setCategory(template.getCategory());
+        dto.setDescription(template.getDescription());
+        dto.setFrequency(template.getFrequency().name());
+        dto.setCronExpression(template.getCronExpression());
+        dto.setStartDate(template.getStartDate());
+        dto.setEndDate(template.getEndDate());
+        dto.setNextDueDate(template.getNextDueDate());
+        return dto;
+    }
+}
@@ -0,0 +1,27 @@
+package com.expensetracker.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+// Command-line entry points for rollup maintenance, e.g. after first deploying the feature:
+//   java -jar backend.jar --rollups.rebuild   (backfill/rebuild every user's daily_rollups)
+//   java -jar backend.jar --rollups.check     (log any user whose rollups disagree with raw expenses)
+// Add --spring.main.web-application-type=none to exit once the command has finished.
+@Component
+@RequiredArgsConstructor
+public class RollupMaintenanceRunner implements ApplicationRunner {
+
+    private final RollupService rollupService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption("rollups.rebuild")) {
+            rollupService.rebuildAll();
+        }
+        if (args.containsOption("rollups.check")) {
+            rollupService.checkAll();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.event.RollupsRebuiltEvent;
+import com.expensetracker.backend.model.DailyRollup;
+import com.expensetracker.backend.repository.ArchivedExpenseRepository;
+import com.expensetracker.backend.repository.DailyRollupRepository;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.repository.RollupTotals;
+import com.expensetracker.backend.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Keeps daily_rollups in step with the expenses table. Every write path calls into this service
+// inside its own transaction, so a rollup change commits or rolls back together with the expense.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RollupService {
+
+    private static final int USER_PAGE_SIZE = 200;
+
+    private final DailyRollupRepository rollupRepository;
+    private final ExpenseRepository expenseRepository;
+    private final ArchivedExpenseRepository archivedExpenseRepository;
+    private final UserRepository userRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private enum Upsert { MYSQL, POSTGRES, UPDATE_THEN_INSERT }
+
+    private Upsert upsert;
+
+    public record Key(Integer userId, LocalDate day, Integer sourceId, String category) {
+    }
+
+    public record CheckResult(int checkedGroups, int mismatchedGroups) {
+    }
+
+    private record Sum(BigDecimal total, Long count) implements RollupTotals.Total {
+        @Override
+        public BigDecimal getTotal() {
+            return total;
+        }
+
+        @Override
+        public Long getCount() {
+            return count;
+        }
+
+        Sum plus(RollupTotals.Total other) {
+            return new Sum(total.add(other.getTotal()), count + other.getCount());
+        }
+    }
+
+    // Accumulates the net effect of several expense changes so each rollup row is touched once.
+    // Amounts are summed in cents (see Money), one mutable delta per key.
+    public static class Changes {
+        private static final class Delta {
+            long cents;
+            long count;
+        }
+
+        private final Map<Key, Delta> deltas = new HashMap<>();
+
+        public Changes add(ExpenseSnapshot before, ExpenseSnapshot after) {
+            if (before != null) {
+                add(keyOf(before), Money.negate(Money.cents(before.amount())), -1);
+            }
+            if (after != null) {
+                add(keyOf(after), Money.cents(after.amount()), 1);
+            }
+            return this;
+        }
+
+        public Changes add(Key key, long amountCents, long count) {
+            Delta delta = deltas.computeIfAbsent(key, k -> new Delta());
+            delta.cents = Money.add(delta.cents, amountCents);
+            delta.count += count;
+            return this;
+        }
+
+        private static Key keyOf(ExpenseSnapshot snapshot) {
+            return new Key(snapshot.userId(), snapshot.transactionDate(), snapshot.sourceId(), snapshot.category());
+        }
+    }
+
+    public void record(ExpenseSnapshot before, ExpenseSnapshot after) {
+        apply(new Changes().add(before, after));
+    }
+
+    @PostConstruct
+    void chooseUpsert() {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        upsert = dialect instanceof MySQLDialect ? Upsert.MYSQL
+                : dialect instanceof PostgreSQLDialect ? Upsert.POSTGRES
+                : Upsert.UPDATE_THEN_INSERT;
+    }
+
+    // Must be called inside the transaction that performs the expense writes. Each key is one
+    // upsert statement on that transaction's connection; no second connection is ever needed.
+    public void apply(Changes changes) {
+        changes.deltas.forEach((key, delta) -> {
+            if (delta.cents == 0 && delta.count == 0) {
+                return;
+            }
+            BigDecimal amount = Money.toBigDecimal(delta.cents);
+            switch (upsert) {
+                case MYSQL -> rollupRepository.upsertMySql(key.userId(), key.day(), key.sourceId(), key.category(), amount, delta.count);
+                case POSTGRES -> rollupRepository.upsertPostgres(key.userId(), key.day(), key.sourceId(), key.category(), amount, delta.count);
+                case UPDATE_THEN_INSERT -> updateThenInsert(key, amount, delta.count);
+            }
+        });
+    }
+
+    public void removeSource(Integer sourceId) {
+        rollupRepository.deleteAllBySourceId(sourceId);
+    }
+
+    public void removeUser(Integer userId) {
+        rollupRepository.deleteAllByUserId(userId);
+    }
+
+    // --- Maintenance: rebuild and consistency check ---
+
+    public int rebuild(Integer userId) {
+        Integer rows = transactionTemplate.execute(status -> {
+            rollupRepository.deleteAllByUserId(userId);
+            int inserted = rollupRepository.rebuildForUser(userId);
+            eventPublisher.publishEvent(new RollupsRebuiltEvent(userId));
+            return inserted;
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    public void rebuildAll() {
+        int users = 0;
+        for (Integer afterId = 0; ; ) {
+            List<Integer> ids = userRepository.findIdsAfter(afterId, PageRequest.of(0, USER_PAGE_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+            ids.forEach(this::rebuild);
+            users += ids.size();
+            afterId = ids.get(ids.size() - 1);
+        }
+        log.info("Rebuilt daily rollups for {} users", users);
+    }
+
+    // Compares a user's rollups with the same aggregate computed from the raw expenses, hot and
+    // archived (a day can have rows in both when an old expense was entered after archiving).
+    public CheckResult check(Integer userId) {
+        Map<Key, RollupTotals.Total> expected = new HashMap<>();
+        for (RollupTotals.ByKey row : expenseRepository.aggregateDailyByUserId(userId)) {
+            expected.put(new Key(userId, row.getDay(), row.getSourceId(), row.getCategory()), row);
+        }
+        for (RollupTotals.ByKey row : archivedExpenseRepository.aggregateDailyByUserId(userId)) {
+            expected.merge(new Key(userId, row.getDay(), row.getSourceId(), row.getCategory()), row,
+                    (hot, archived) -> new Sum(hot.getTotal(), hot.getCount()).plus(archived));
+        }
+        Map<Key, RollupTotals.Total> actual = new HashMap<>();
+        for (RollupTotals.ByKey row : rollupRepository.findNonEmptyByUserId(userId)) {
+            actual.put(new Key(userId, row.getDay(), row.getSourceId(), row.getCategory()), row);
+        }
+
+        int mismatched = 0;
+        for (Map.Entry<Key, RollupTotals.Total> entry : expected.entrySet()) {
+            if (!matches(entry.getValue(), actual.remove(entry.getKey()))) {
+                mismatched++;
+                log.debug("Rollup mismatch for {}", entry.getKey());
+            }
+        }
+        mismatched += actual.size();
+        return new CheckResult(expected.size(), mismatched);
+    }
+
+    public void checkAll() {
+        int checked = 0;
+        int mismatched = 0;
+        for (Integer afterId = 0; ; ) {
+            List<Integer> ids = userRepository.findIdsAfter(afterId, PageRequest.of(0, USER_PAGE_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+            for (Integer userId : ids) {
+                CheckResult result = check(userId);
+                checked += result.checkedGroups();
+                mismatched += result.mismatchedGroups();
+                if (result.mismatchedGroups() > 0) {
+                    log.warn("User {} has {} daily rollup rows that disagree with raw expenses", userId, result.mismatchedGroups());
+                }
+            }
+            afterId = ids.get(ids.size() - 1);
+        }
+        log.info("Daily rollup check: {} groups checked, {} mismatched", checked, mismatched);
+    }
+
+    private static boolean matches(RollupTotals.Total expected, RollupTotals.Total actual) {
+        return actual != null
+                && expected.getTotal().compareTo(actual.getTotal()) == 0
+                && Objects.equals(expected.getCount(), actual.getCount());
+    }
+
+    // For databases without a supported upsert (H2 in tests). Two concurrent first writes to the
+    // same key make one of the transactions fail on the unique key instead of merging.
+    private void updateThenInsert(Key key, BigDecimal delta, long count) {
+        if (rollupRepository.increment(key.userId(), key.day(), key.sourceId(), key.category(), delta, count) == 0) {
+            DailyRollup row = new DailyRollup();
+            row.setUserId(key.userId());
+            row.setRollupDate(key.day());
+            row.setSourceId(key.sourceId());
+            row.setCategory(key.category());
+            row.setTotal(delta);
+            row.setExpenseCount(count);
+            rollupRepository.save(row);
+        }
+    }
+}
@@ -1,20 +1,26 @@
 package com.expensetracker.backend.service;
 
+import com.expensetracker.backend.cache.UserReadCache;
 import com.expensetracker.backend.dto.SourceDto;
-import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.event.ExpensesBulkChangedEvent;
+import com.expensetracker.backend.event.SourceChangedEvent;
 import com.expensetracker.backend.model.Source;
 import com.expensetracker.backend.model.SourceType;
 import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.repository.ArchivedExpenseRepository;
 import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.repository.RecurringExpenseRepository;
 import com.expensetracker.backend.repository.SourceRepository;
 import com.expensetracker.backend.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import lombok.RequiredArgsConstructor;
 import jakarta.transaction.Transactional; // Import Transactional
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,12 +29,33 @@ public class SourceService {
 
     private final SourceRepository sourceRepository;
     private final ExpenseRepository expenseRepository;
+    private final ArchivedExpenseRepository archivedExpenseRepository;
+    private final RecurringExpenseRepository recurringExpenseRepository;
     private final UserRepository userRepository;
-
+    private final BalanceService balanceService;
+    private final BulkDeleter bulkDeleter;
+    private final RollupService rollupService;
+    private final UserReadCache readCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    // Served from the per-user read cache; any source or expense write by the user evicts it.
     public List<SourceDto> getSourcesByUserId(Integer userId) {
-        return sourceRepository.findByUserId(userId).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return readCache.get(userId, "sources", null, UserReadCache.listWeigher(400),
+                () -> loadSources(userId));
+    }
+
+    // Read-only, so it can be served by a replica when replica routing is enabled.
+    private List<SourceDto> loadSources(Integer userId) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> {
+            List<Source> sources = sourceRepository.findByUserId(userId);
+            Map<Integer, BigDecimal> totals = balanceService.expenseTotals(userId, sources);
+            return sources.stream()
+                    .map(source -> DtoMapper.toDto(source, totals.get(source.getId())))
+                    .collect(Collectors.toList());
+        });
     }
 
     public SourceDto createSource(Integer userId, SourceDto sourceDto) {
@@ -47,7 +74,9 @@ public class SourceService {
 
 
         Source savedSource = sourceRepository.save(source);
-        return convertToDto(savedSource);
+        eventPublisher.publishEvent(new SourceChangedEvent(userId, savedSource.getId(), SourceChangedEvent.Type.CREATED));
+        // A brand-new source cannot have any expenses yet, so there is nothing to sum.
+        return DtoMapper.toDto(savedSource, BigDecimal.ZERO);
     }
 
     // --- MODIFIED METHOD ---
@@ -70,42 +99,41 @@ public class SourceService {
         source.setDescription(sourceDto.getDescription());
 
         Source updatedSource = sourceRepository.save(source);
-        return convertToDto(updatedSource);
+        eventPublisher.publishEvent(new SourceChangedEvent(userId, sourceId, SourceChangedEvent.Type.UPDATED));
+        return DtoMapper.toDto(updatedSource, balanceService.expenseTotal(updatedSource));
     }
 
-    @Transactional // Ensures the delete operation is atomic and safe.
-    public void deleteSource(Integer userId, Integer sourceId) {
+    // Returns the number of expenses that were deleted along with the source.
+    public long deleteSource(Integer userId, Integer sourceId) {
         // First, ensure the source belongs to the authenticated user.
-        Source source = sourceRepository.findById(sourceId)
+        sourceRepository.findById(sourceId)
                 .filter(s -> s.getUser().getId().equals(userId))
                 .orElseThrow(() -> new IllegalArgumentException("Source not found or user not authorized"));
 
-        // Before deleting the source, find and delete all expenses associated with it.
-        // NOTE: The logic for deleting associated expenses is already correct in your ExpenseRepository.
-        // This explicit deletion is a good safety measure.
-        List<Expense> expensesToDelete = expenseRepository.findByUserIdAndSourceIdInAndTransactionDateBetween(
-                userId, List.of(sourceId), LocalDate.MIN, LocalDate.MAX
-        );
-        expenseRepository.deleteAll(expensesToDelete);
-
-        // Now that the child 'expense' records are gone, it's safe to delete the 'source'.
-        sourceRepository.delete(source);
-    }
-
-    private SourceDto convertToDto(Source source) {
-        SourceDto dto = new SourceDto();
-        dto.setId(source.getId());
-        dto.setName(source.getName());
-        dto.setType(source.getType().name());
-        dto.setInitialBalance(source.getInitialBalance());
-        dto.setColor(source.getColor());
-        dto.setAlertThreshold(source.getAlertThreshold());
-        dto.setActive(source.isActive());
-        dto.setDescription(source.getDescription());
-
-        BigDecimal totalExpenses = expenseRepository.sumAmountBySourceId(source.getId());
-        dto.setCurrentBalance(source.getInitialBalance().subtract(totalExpenses));
-
-        return dto;
+        // Recurring templates go first, so the scheduler creates no new expenses in the source
+        // while its existing ones are being deleted.
+        transactionTemplate.executeWithoutResult(status -> recurringExpenseRepository.deleteAllBySourceId(sourceId));
+
+        // Delete the source's expenses with set-based DELETEs instead of loading each entity.
+        // Very large sources are deleted in separately committed chunks to keep lock times short.
+        long deleted = bulkDeleter.deleteFullChunks(
+                page -> expenseRepository.findIdsBySourceId(sourceId, page),
+                maxId -> expenseRepository.deleteBySourceIdUpTo(sourceId, maxId));
+        deleted += bulkDeleter.deleteFullChunks(
+                page -> archivedExpenseRepository.findIdsBySourceId(sourceId, page),
+                maxId -> archivedExpenseRepository.deleteBySourceIdUpTo(sourceId, maxId));
+
+        // The remaining (< one chunk) expenses and the source itself go in one final transaction.
+        Integer remainder = transactionTemplate.execute(status -> {
+            int removed = expenseRepository.deleteAllBySourceId(sourceId)
+                    + archivedExpenseRepository.deleteAllBySourceId(sourceId);
+            sourceRepository.deleteById(sourceId);
+            // Rollups are kept per source, so the source's rows can simply be dropped.
+            rollupService.removeSource(sourceId);
+            eventPublisher.publishEvent(new ExpensesBulkChangedEvent(userId, sourceId));
+            eventPublisher.publishEvent(new SourceChangedEvent(userId, sourceId, SourceChangedEvent.Type.DELETED));
+            return removed;
+        });
+        return deleted + (remainder == null ? 0 : remainder);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,124 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.ExpenseDto;
+import com.expensetracker.backend.dto.SyncResponseDto;
+import com.expensetracker.backend.model.ChangeLogEntry;
+import com.expensetracker.backend.model.Source;
+import com.expensetracker.backend.repository.ArchivedExpenseRepository;
+import com.expensetracker.backend.repository.ChangeLogRepository;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.repository.SourceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Serves GET /api/sync from the change log: the changes after the client's token, deduplicated
+// to the latest operation per entity, with the current state of every upserted entity.
+@Service
+@RequiredArgsConstructor
+public class SyncService {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final ChangeLogRepository changeLogRepository;
+    private final ChangeLogService changeLogService;
+    private final ExpenseRepository expenseRepository;
+    private final ArchivedExpenseRepository archivedExpenseRepository;
+    private final SourceRepository sourceRepository;
+    private final BalanceService balanceService;
+
+    // Change log ids are assigned at insert but become visible at commit, so a younger entry can be
+    // visible before an older one. Entries are only handed out once they are this old, and paging
+    // stops at the first younger one, so nothing is skipped as long as writes commit within it.
+    @Value("${sync.change-log.settle:10s}")
+    private Duration settle;
+
+    // Not read-only, so the change log is read from the primary (see ReplicaRoutingConfig).
+    @Transactional
+    public SyncResponseDto sync(Integer userId, String since, int limit) {
+        LocalDateTime settledBefore = LocalDateTime.now().minus(settle);
+        SyncResponseDto response = new SyncResponseDto();
+
+        SyncToken token = since == null || since.isBlank() ? null : SyncToken.decode(since);
+        if (token == null || token.since().isBefore(LocalDateTime.now().minusDays(changeLogService.getRetentionDays()))) {
+            // The client re-downloads everything, which includes every change so far. The token still
+            // stops before the first unsettled entry, like paging does: an entry with a lower id may
+            // not have committed yet. Entries after it are sent again later, which is harmless.
+            Long firstUnsettled = changeLogRepository.findFirstIdChangedAfter(userId, settledBefore);
+            long sequence = firstUnsettled != null ? firstUnsettled - 1 : changeLogRepository.findLatestId(userId);
+            response.setResetRequired(true);
+            response.setNextToken(new SyncToken(sequence, settledBefore).encode());
+            return response;
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<ChangeLogEntry> entries = changeLogRepository.findPageAfter(userId, token.sequence(), Limit.of(pageSize + 1));
+        boolean hasMore = entries.size() > pageSize;
+        List<ChangeLogEntry> page = new ArrayList<>();
+        for (ChangeLogEntry entry : entries.subList(0, Math.min(entries.size(), pageSize))) {
+            if (entry.getChangedAt().isAfter(settledBefore)) {
+                hasMore = false;
+                break;
+            }
+            page.add(entry);
+        }
+
+        // Only the latest operation per entity in the page matters.
+        Map<Integer, ChangeLogEntry.Operation> expenseOps = new LinkedHashMap<>();
+        Map<Integer, ChangeLogEntry.Operation> sourceOps = new LinkedHashMap<>();
+        for (ChangeLogEntry entry : page) {
+            (entry.getEntityType() == ChangeLogEntry.EntityType.EXPENSE ? expenseOps : sourceOps)
+                    .put(entry.getEntityId(), entry.getOperation());
+        }
+        List<Integer> expenseIds = upserted(expenseOps, response.getDeletedExpenseIds());
+        List<Integer> sourceIds = upserted(sourceOps, response.getDeletedSourceIds());
+
+        // An upserted entity that no longer exists was deleted later; its tombstone follows.
+        if (!expenseIds.isEmpty()) {
+            List<ExpenseDto> expenses = new ArrayList<>(expenseRepository.findByUserIdAndIdIn(userId, expenseIds));
+            if (expenses.size() < expenseIds.size()) {
+                Set<Integer> found = new HashSet<>();
+                expenses.forEach(expense -> found.add(expense.getId()));
+                List<Integer> missing = expenseIds.stream().filter(id -> !found.contains(id)).toList();
+                expenses.addAll(archivedExpenseRepository.findByUserIdAndIdIn(userId, missing));
+            }
+            response.setExpenses(expenses);
+        }
+        if (!sourceIds.isEmpty()) {
+            List<Source> sources = sourceRepository.findAllById(sourceIds).stream()
+                    .filter(source -> source.getUser().getId().equals(userId))
+                    .toList();
+            Map<Integer, BigDecimal> totals = balanceService.expenseTotals(userId, sources);
+            response.setSources(sources.stream()
+                    .map(source -> DtoMapper.toDto(source, totals.get(source.getId())))
+                    .toList());
+        }
+
+        if (page.isEmpty()) {
+            response.setNextToken(new SyncToken(token.sequence(), settledBefore).encode());
+        } else {
+            ChangeLogEntry last = page.get(page.size() - 1);
+            response.setNextToken(new SyncToken(last.getId(), last.getChangedAt()).encode());
+        }
+        response.setHasMore(hasMore);
+        return response;
+    }
+
+    private static List<Integer> upserted(Map<Integer, ChangeLogEntry.Operation> ops, List<Integer> deleted) {
+        List<Integer> upserted = new ArrayList<>();
+        ops.forEach((id, operation) -> (operation == ChangeLogEntry.Operation.DELETE ? deleted : upserted).add(id));
+        return upserted;
+    }
+}
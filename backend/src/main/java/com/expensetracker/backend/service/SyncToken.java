@@ -0,0 +1,27 @@
+package com.expensetracker.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Position in a user's change log: every change with a higher sequence number is still to be
+// sent, and none of those changes is older than 'since'. Encoded as an opaque URL-safe token.
+record SyncToken(long sequence, LocalDateTime since) {
+
+    String encode() {
+        String raw = sequence + ":" + since;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static SyncToken decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new SyncToken(Long.parseLong(raw.substring(0, separator)),
+                    LocalDateTime.parse(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid sync token");
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.expensetracker.backend.statement;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// RFC 4180-style CSV with a header row. Columns are matched by name (case-insensitive), so the
+// column order of different banks' exports doesn't matter:
+//   date | transaction_date, amount, vendor | payee | merchant, category, description | memo | notes
+public class CsvStatementParser implements StatementParser {
+
+    private static final Map<String, String> COLUMN_ALIASES = Map.ofEntries(
+            Map.entry("date", "date"),
+            Map.entry("transaction_date", "date"),
+            Map.entry("transactiondate", "date"),
+            Map.entry("amount", "amount"),
+            Map.entry("vendor", "vendor"),
+            Map.entry("payee", "vendor"),
+            Map.entry("merchant", "vendor"),
+            Map.entry("category", "category"),
+            Map.entry("description", "description"),
+            Map.entry("memo", "description"),
+            Map.entry("notes", "description")
+    );
+
+    @Override
+    public void parse(Reader reader, Handler handler) throws IOException {
+        BufferedReader in = reader instanceof BufferedReader b ? b : new BufferedReader(reader);
+        long[] lineNumber = {0};
+
+        List<String> header = readRecord(in, lineNumber);
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = COLUMN_ALIASES.get(header.get(i).trim().toLowerCase(Locale.ROOT).replace(' ', '_'));
+            if (name != null) {
+                columns.putIfAbsent(name, i);
+            }
+        }
+        if (!columns.containsKey("date") || !columns.containsKey("amount")) {
+            handler.error(1, "Header must contain at least 'date' and 'amount' columns");
+            return;
+        }
+
+        while (true) {
+            long recordLine = lineNumber[0] + 1;
+            List<String> fields = readRecord(in, lineNumber);
+            if (fields == null) {
+                return;
+            }
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            handler.row(new StatementRow(recordLine,
+                    field(fields, columns, "date"),
+                    field(fields, columns, "amount"),
+                    field(fields, columns, "vendor"),
+                    field(fields, columns, "category"),
+                    field(fields, columns, "description")));
+        }
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // Reads one record, following quoted fields across line breaks. Returns null at end of input.
+    private static List<String> readRecord(BufferedReader in, long[] lineNumber) throws IOException {
+        String line = in.readLine();
+        if (line == null) {
+            return null;
+        }
+        lineNumber[0]++;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i >= line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                // Newline inside a quoted field: keep it and continue with the next physical line.
+                String next = in.readLine();
+                if (next == null) {
+                    break;
+                }
+                lineNumber[0]++;
+                current.append('\n');
+                line = next;
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c == '"') {
+                    if (i < line.length() && line.charAt(i) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
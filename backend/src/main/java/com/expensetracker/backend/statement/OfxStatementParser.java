@@ -0,0 +1,87 @@
+package com.expensetracker.backend.statement;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Minimal streaming reader for OFX/QFX bank statements. Handles both OFX 1.x (SGML, leaf
+// elements without closing tags) and OFX 2.x (XML). Only <STMTTRN> blocks are of interest:
+//   DTPOSTED -> date, TRNAMT -> amount, NAME/PAYEE -> vendor, MEMO -> description.
+// OFX amounts are signed from the account's point of view: debits (negative) become expenses
+// with a positive amount, credits are reported as skipped.
+public class OfxStatementParser implements StatementParser {
+
+    @Override
+    public void parse(Reader reader, Handler handler) throws IOException {
+        BufferedReader in = reader instanceof BufferedReader b ? b : new BufferedReader(reader);
+        Map<String, String> transaction = null;
+        long transactionNumber = 0;
+        String openTag = null;
+        StringBuilder text = new StringBuilder();
+
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c != '<') {
+                text.append((char) c);
+                continue;
+            }
+            // A tag starts: whatever text we collected belongs to the previous leaf element.
+            if (transaction != null && openTag != null) {
+                String value = text.toString().trim();
+                if (!value.isEmpty()) {
+                    transaction.putIfAbsent(openTag, value);
+                }
+            }
+            text.setLength(0);
+            String tag = readTag(in);
+            if (tag == null) {
+                break;
+            }
+
+            if (tag.equals("STMTTRN")) {
+                transaction = new HashMap<>();
+                transactionNumber++;
+                openTag = null;
+            } else if (tag.equals("/STMTTRN")) {
+                if (transaction != null) {
+                    emit(transactionNumber, transaction, handler);
+                }
+                transaction = null;
+                openTag = null;
+            } else if (tag.startsWith("/")) {
+                openTag = null;
+            } else {
+                openTag = tag;
+            }
+        }
+    }
+
+    private static void emit(long number, Map<String, String> t, Handler handler) {
+        String posted = t.get("DTPOSTED");
+        String date = posted != null && posted.length() >= 8
+                ? posted.substring(0, 4) + "-" + posted.substring(4, 6) + "-" + posted.substring(6, 8)
+                : posted;
+        String amount = t.get("TRNAMT");
+        if (amount != null && !amount.startsWith("-")) {
+            handler.skipped(number);
+            return;
+        }
+        String vendor = t.containsKey("NAME") ? t.get("NAME") : t.get("PAYEE");
+        handler.row(new StatementRow(number, date, amount == null ? null : amount.substring(1), vendor, null, t.get("MEMO")));
+    }
+
+    private static String readTag(BufferedReader in) throws IOException {
+        StringBuilder tag = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1 && c != '>') {
+            tag.append((char) c);
+        }
+        if (c == -1) {
+            return null;
+        }
+        return tag.toString().trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,31 @@
+package com.expensetracker.backend.statement;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+
+// Reads a bank statement incrementally and hands each transaction to the handler as soon as it
+// is parsed, so files of any size are processed without being held in memory.
+public interface StatementParser {
+
+    interface Handler {
+        void row(StatementRow row);
+
+        // A record that could not be parsed at all; parsing continues with the next one.
+        void error(long line, String message);
+
+        // A well-formed record that is not an expense (e.g. a credit on a bank statement).
+        default void skipped(long line) {
+        }
+    }
+
+    void parse(Reader reader, Handler handler) throws IOException;
+
+    static StatementParser forFormat(String format) {
+        return switch (format.toLowerCase(Locale.ROOT)) {
+            case "csv" -> new CsvStatementParser();
+            case "ofx", "qfx" -> new OfxStatementParser();
+            default -> throw new IllegalArgumentException("Unsupported statement format: " + format);
+        };
+    }
+}
@@ -0,0 +1,6 @@
+package com.expensetracker.backend.statement;
+
+// One transaction as read from a statement file, before any validation. Values are raw text;
+// 'line' is the 1-based line (or record number) used when reporting errors back to the user.
+public record StatementRow(long line, String date, String amount, String vendor, String category, String description) {
+}
@@ -0,0 +1,115 @@
+package com.expensetracker.backend.alert;
+
+import com.expensetracker.backend.cache.InFlightExpenseWrites;
+import com.expensetracker.backend.cache.InMemoryCacheInvalidationBroker;
+import com.expensetracker.backend.dto.SourceAlertDto;
+import com.expensetracker.backend.event.ExpenseChangedEvent;
+import com.expensetracker.backend.model.Source;
+import com.expensetracker.backend.repository.SourceRepository;
+import com.expensetracker.backend.service.BalanceService;
+import com.expensetracker.backend.service.ExpenseSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// One user with one source: initial balance 100.00, alert below 35.00. The "database" is the
+// expense total the mocked BalanceService returns; tests move it as they commit writes.
+class AlertEngineTest {
+
+	private static final Integer USER = 7;
+	private static final Integer SOURCE = 1;
+
+	private final SourceRepository sourceRepository = mock(SourceRepository.class);
+	private final BalanceService balanceService = mock(BalanceService.class);
+	private final AlertStreams alertStreams = mock(AlertStreams.class);
+	private final InFlightExpenseWrites inFlightWrites = new InFlightExpenseWrites();
+	private AlertEngine engine;
+	private BigDecimal committedTotal = BigDecimal.ZERO;
+
+	@BeforeEach
+	void setUp() {
+		Source source = new Source();
+		source.setId(SOURCE);
+		source.setName("Current account");
+		source.setInitialBalance(new BigDecimal("100.00"));
+		source.setAlertThreshold(new BigDecimal("35.00"));
+		when(sourceRepository.findByUserId(USER)).thenReturn(List.of(source));
+		when(balanceService.expenseTotals(eq(USER), any())).thenAnswer(invocation -> Map.of(SOURCE, committedTotal));
+
+		engine = new AlertEngine(sourceRepository, balanceService, alertStreams,
+				new TransactionTemplate(mock(PlatformTransactionManager.class)),
+				new InMemoryCacheInvalidationBroker(), inFlightWrites);
+	}
+
+	@Test
+	void committedWriteThatCrossesTheThresholdPublishesOnce() {
+		assertThat(engine.track(USER)).isEmpty();
+
+		commit(write("50.00"));
+		verify(alertStreams, never()).publish(any(), any());
+
+		commit(write("20.00"));
+		verify(alertStreams).publish(eq(USER), argThat(alert -> alert.getState() == SourceAlertDto.State.BELOW
+				&& alert.getCurrentBalance().compareTo(new BigDecimal("30.00")) == 0));
+
+		commit(new ExpenseChangedEvent(USER, snapshot("20.00"), null));
+		verify(alertStreams).publish(eq(USER), argThat(alert -> alert.getState() == SourceAlertDto.State.RECOVERED));
+	}
+
+	@Test
+	void writeCommittedWhileTotalsLoadIsNotCountedTwice() {
+		ExpenseChangedEvent overlapping = write("60.00");
+		// The write starts and commits while the totals are read, so they already contain it.
+		when(balanceService.expenseTotals(eq(USER), any())).thenAnswer(invocation -> {
+			inFlightWrites.onExpenseWrite(overlapping);
+			committedTotal = new BigDecimal("60.00");
+			return Map.of(SOURCE, committedTotal);
+		}).thenAnswer(invocation -> Map.of(SOURCE, committedTotal));
+
+		assertThat(engine.track(USER)).isEmpty();
+		engine.onExpenseChanged(overlapping);
+		// Counted twice, the balance would be -20.00 and below the threshold.
+		verify(alertStreams, never()).publish(any(), any());
+
+		// Totals are settled again, so the next write is applied: 100 - 70 = 30.
+		commit(write("10.00"));
+		verify(alertStreams).publish(eq(USER), argThat(alert -> alert.getState() == SourceAlertDto.State.BELOW
+				&& alert.getCurrentBalance().compareTo(new BigDecimal("30.00")) == 0));
+	}
+
+	// What an expense write does: start inside the transaction, move the database, run the
+	// after-commit listener.
+	private void commit(ExpenseChangedEvent event) {
+		inFlightWrites.onExpenseWrite(event);
+		if (event.before() != null) {
+			committedTotal = committedTotal.subtract(event.before().amount());
+		}
+		if (event.after() != null) {
+			committedTotal = committedTotal.add(event.after().amount());
+		}
+		engine.onExpenseChanged(event);
+	}
+
+	private static ExpenseChangedEvent write(String amount) {
+		return new ExpenseChangedEvent(USER, null, snapshot(amount));
+	}
+
+	private static ExpenseSnapshot snapshot(String amount) {
+		return new ExpenseSnapshot(null, USER, SOURCE, new BigDecimal(amount), "Vendor", "Food", null, LocalDate.now());
+	}
+}
@@ -0,0 +1,73 @@
+package com.expensetracker.backend.alert;
+
+import com.expensetracker.backend.controller.EventController;
+import com.expensetracker.backend.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AlertStreamsTest {
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AlertStreams streams = new AlertStreams(2, 3, Duration.ofMinutes(30), Duration.ofMinutes(5), meterRegistry);
+	private final List<AlertStreams.Connection> opened = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() {
+		opened.forEach(connection -> connection.close(false));
+	}
+
+	@Test
+	void openingMoreThanThePerUserLimitClosesTheOldestStream() throws IOException {
+		AlertStreams.Connection oldest = open(1);
+		AlertStreams.Connection second = open(1);
+		AlertStreams.Connection newest = open(1);
+
+		// A completed emitter refuses further events; the others still take them.
+		assertThatThrownBy(() -> oldest.emitter().send("late")).isInstanceOf(IllegalStateException.class);
+		second.emitter().send("still open");
+		newest.emitter().send("still open");
+		assertThat(streams.isConnected(1)).isTrue();
+		assertThat(connections()).isEqualTo(2);
+	}
+
+	@Test
+	void fullServerAnswers503UntilAStreamCloses() {
+		AlertStreams.Connection first = open(1);
+		open(2);
+		open(3);
+		assertThat(streams.open(4)).isNull();
+
+		User user = new User();
+		user.setId(4);
+		EventController controller = new EventController(streams, null);
+		assertThat(controller.events(user).getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+
+		first.close(true);
+		assertThat(streams.isConnected(1)).isFalse();
+		assertThat(open(4)).isNotNull();
+		assertThat(connections()).isEqualTo(3);
+	}
+
+	private AlertStreams.Connection open(Integer userId) {
+		AlertStreams.Connection connection = streams.open(userId);
+		if (connection != null) {
+			opened.add(connection);
+		}
+		return connection;
+	}
+
+	private double connections() {
+		return meterRegistry.get("alerts.sse.connections").gauge().value();
+	}
+}
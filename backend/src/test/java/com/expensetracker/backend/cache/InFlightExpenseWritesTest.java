@@ -0,0 +1,79 @@
+package com.expensetracker.backend.cache;
+
+import com.expensetracker.backend.event.ExpenseChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InFlightExpenseWritesTest {
+
+	private final InFlightExpenseWrites writes = new InFlightExpenseWrites();
+	private final Set<Integer> cached = ConcurrentHashMap.newKeySet();
+	private final InFlightExpenseWrites.Tracker tracker = writes.register(cached::contains);
+	private final ExpenseChangedEvent write = new ExpenseChangedEvent(1, null, null);
+
+	@Test
+	void quietLoadIsUnchanged() {
+		InFlightExpenseWrites.Tracker.Snapshot snapshot = tracker.snapshot(1);
+
+		assertThat(tracker.unchangedSince(1, snapshot)).isTrue();
+	}
+
+	@Test
+	void loadOverlappingAWriteIsNeverUnchanged() {
+		// The write starts during the load...
+		InFlightExpenseWrites.Tracker.Snapshot before = tracker.snapshot(1);
+		writes.onExpenseWrite(write);
+		assertThat(tracker.unchangedSince(1, before)).isFalse();
+
+		// ...or was already in flight when it started, and commits after it.
+		InFlightExpenseWrites.Tracker.Snapshot during = tracker.snapshot(1);
+		assertThat(tracker.unchangedSince(1, during)).isFalse();
+		tracker.completed(1);
+		assertThat(tracker.unchangedSince(1, during)).isFalse();
+
+		assertThat(tracker.unchangedSince(1, tracker.snapshot(1))).isTrue();
+	}
+
+	@Test
+	void rollbackCompletesTheWriteForEveryTracker() {
+		InFlightExpenseWrites.Tracker other = writes.register(userId -> false);
+		writes.onExpenseWrite(write);
+		writes.onExpenseChangeRolledBack(write);
+
+		assertThat(tracker.unchangedSince(1, tracker.snapshot(1))).isTrue();
+		assertThat(other.unchangedSince(1, other.snapshot(1))).isTrue();
+	}
+
+	@Test
+	void changedMakesEarlierSnapshotsStale() {
+		InFlightExpenseWrites.Tracker.Snapshot snapshot = tracker.snapshot(1);
+		tracker.changed(1);
+
+		assertThat(tracker.unchangedSince(1, snapshot)).isFalse();
+	}
+
+	@Test
+	void snapshotOfAPrunedUserIsStaleEvenIfAWriteRestartedTheCount() {
+		InFlightExpenseWrites.Tracker.Snapshot snapshot = tracker.snapshot(1);
+		tracker.prune(1);
+		// A whole write runs under a new activity; its generation can end where the old one was.
+		writes.onExpenseWrite(write);
+		tracker.completed(1);
+		tracker.snapshot(1);
+
+		assertThat(tracker.unchangedSince(1, snapshot)).isFalse();
+	}
+
+	@Test
+	void retainedUserIsNotPruned() {
+		cached.add(1);
+		InFlightExpenseWrites.Tracker.Snapshot snapshot = tracker.snapshot(1);
+		tracker.prune(1);
+
+		assertThat(tracker.unchangedSince(1, snapshot)).isTrue();
+	}
+}
@@ -0,0 +1,88 @@
+package com.expensetracker.backend.cache;
+
+import com.expensetracker.backend.event.ExpenseChangedEvent;
+import com.expensetracker.backend.event.RollupsRebuiltEvent;
+import com.expensetracker.backend.service.AnalyticsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two "nodes" in one JVM, each with its own broker, read cache and invalidator, wired the way
+// their application contexts would wire them.
+class InMemoryCacheInvalidationBrokerTest {
+
+	private final Node first = new Node();
+	private final Node second = new Node();
+
+	@AfterEach
+	void tearDown() {
+		first.broker.leave();
+		second.broker.leave();
+	}
+
+	@Test
+	void writeOnOneNodeEvictsTheUserOnTheOther() {
+		assertThat(second.sources(7)).isEqualTo(List.of("Wallet #1"));
+		assertThat(second.sources(7)).isEqualTo(List.of("Wallet #1"));
+		assertThat(second.sources(8)).isEqualTo(List.of("Wallet #2"));
+
+		first.invalidator.onExpenseChanged(new ExpenseChangedEvent(7, null, null));
+
+		assertThat(second.sources(7)).isEqualTo(List.of("Wallet #3"));
+		assertThat(second.sources(8)).isEqualTo(List.of("Wallet #2"));
+	}
+
+	@Test
+	void rollupRebuildOnOneNodeEvictsOnlyAnalyticsOnTheOther() {
+		assertThat(second.sources(7)).isEqualTo(List.of("Wallet #1"));
+		assertThat(second.monthly(7)).isEqualTo(List.of("Month #2"));
+
+		first.invalidator.onRollupsRebuilt(new RollupsRebuiltEvent(7));
+
+		assertThat(second.sources(7)).isEqualTo(List.of("Wallet #1"));
+		assertThat(second.monthly(7)).isEqualTo(List.of("Month #3"));
+	}
+
+	@Test
+	void publisherDoesNotHearItselfAndClosedNodesHearNothing() {
+		AtomicInteger heardByFirst = new AtomicInteger();
+		AtomicInteger heardBySecond = new AtomicInteger();
+		first.broker.subscribe(userId -> heardByFirst.incrementAndGet());
+		second.broker.subscribe(userId -> heardBySecond.incrementAndGet());
+
+		first.broker.publish(7);
+		assertThat(heardByFirst).hasValue(0);
+		assertThat(heardBySecond).hasValue(1);
+
+		second.broker.leave();
+		first.broker.publish(7);
+		assertThat(heardBySecond).hasValue(1);
+	}
+
+	private static final class Node {
+		final InMemoryCacheInvalidationBroker broker = new InMemoryCacheInvalidationBroker();
+		final UserReadCache readCache = new UserReadCache(1 << 20, new SimpleMeterRegistry());
+		final ReadCacheInvalidator invalidator = new ReadCacheInvalidator(readCache, broker);
+		final AtomicInteger loads = new AtomicInteger();
+
+		Node() {
+			broker.join();
+			invalidator.subscribe();
+		}
+
+		List<String> sources(Integer userId) {
+			return readCache.get(userId, "sources", null, UserReadCache.listWeigher(400),
+					() -> List.of("Wallet #" + loads.incrementAndGet()));
+		}
+
+		List<String> monthly(Integer userId) {
+			return readCache.get(userId, AnalyticsService.CACHE_GROUP + ".monthly", null, UserReadCache.listWeigher(120),
+					() -> List.of("Month #" + loads.incrementAndGet()));
+		}
+	}
+}
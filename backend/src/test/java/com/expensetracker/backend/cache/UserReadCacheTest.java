@@ -0,0 +1,87 @@
+package com.expensetracker.backend.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserReadCacheTest {
+
+	private final UserReadCache cache = new UserReadCache(1 << 20, new SimpleMeterRegistry());
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@Test
+	void servesCachedValuesUntilTheUserIsInvalidated() {
+		assertThat(get(1, "a")).isEqualTo(1);
+		assertThat(get(1, "a")).isEqualTo(1);
+		assertThat(get(1, "b")).isEqualTo(2);
+		assertThat(get(2, "a")).isEqualTo(3);
+
+		cache.invalidateUser(1);
+
+		assertThat(get(1, "a")).isEqualTo(4);
+		assertThat(get(1, "b")).isEqualTo(5);
+		assertThat(get(2, "a")).isEqualTo(3);
+	}
+
+	@Test
+	void valueLoadedWhileTheUserWasInvalidatedIsReturnedButNotCached() {
+		Integer value = cache.get(1, "a", null, v -> 16, () -> {
+			int loaded = loads.incrementAndGet();
+			// A write commits while the query runs; the result may or may not contain it.
+			cache.invalidateUser(1);
+			return loaded;
+		});
+		assertThat(value).isEqualTo(1);
+
+		assertThat(get(1, "a")).isEqualTo(2);
+		assertThat(get(1, "a")).isEqualTo(2);
+	}
+
+	@Test
+	void invalidateGroupDropsOnlyThatGroupOfTheUser() {
+		assertThat(get(1, "analytics.monthly")).isEqualTo(1);
+		assertThat(get(1, "analytics.trend")).isEqualTo(2);
+		assertThat(get(1, "sources")).isEqualTo(3);
+		assertThat(get(2, "analytics.monthly")).isEqualTo(4);
+
+		cache.invalidateGroup(1, "analytics");
+
+		assertThat(get(1, "analytics.monthly")).isEqualTo(5);
+		assertThat(get(1, "analytics.trend")).isEqualTo(6);
+		assertThat(get(1, "sources")).isEqualTo(3);
+		assertThat(get(2, "analytics.monthly")).isEqualTo(4);
+	}
+
+	@Test
+	void valueLoadedWhileItsGroupWasInvalidatedIsNotCached() {
+		get(1, "sources");
+		Integer value = cache.get(1, "analytics.monthly", null, v -> 16, () -> {
+			int loaded = loads.incrementAndGet();
+			cache.invalidateGroup(1, "analytics");
+			return loaded;
+		});
+		assertThat(value).isEqualTo(2);
+
+		assertThat(get(1, "analytics.monthly")).isEqualTo(3);
+		assertThat(get(1, "analytics.monthly")).isEqualTo(3);
+		assertThat(get(1, "sources")).isEqualTo(1);
+	}
+
+	@Test
+	void invalidateAllDropsEveryUser() {
+		get(1, "a");
+		get(2, "a");
+
+		cache.invalidateAll();
+
+		assertThat(get(1, "a")).isEqualTo(3);
+		assertThat(get(2, "a")).isEqualTo(4);
+	}
+
+	private Integer get(Integer userId, String region) {
+		return cache.get(userId, region, null, v -> 16, loads::incrementAndGet);
+	}
+}
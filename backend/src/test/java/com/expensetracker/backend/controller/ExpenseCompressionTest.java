@@ -0,0 +1,108 @@
+package com.expensetracker.backend.controller;
+
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.Source;
+import com.expensetracker.backend.model.SourceType;
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.repository.SourceRepository;
+import com.expensetracker.backend.repository.UserRepository;
+import com.expensetracker.backend.service.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Compression is done by Tomcat, so this runs a real server. Tomcat will not gzip a response
+// with a strong ETag; the expense listing must carry a weak one and still answer 304.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:compression;DB_CLOSE_DELAY=-1",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"recurring.scheduler.enabled=false"
+})
+class ExpenseCompressionTest {
+
+	private static final int EXPENSES = 60;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private SourceRepository sourceRepository;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private JwtService jwtService;
+
+	private String token;
+
+	@BeforeEach
+	void setUp() {
+		User user = new User();
+		user.setEmail("compression" + System.nanoTime() + "@example.com");
+		user.setPassword("hash");
+		user = userRepository.save(user);
+
+		Source source = new Source();
+		source.setUser(user);
+		source.setName("Current account");
+		source.setType(SourceType.BANK);
+		source = sourceRepository.save(source);
+
+		LocalDate today = LocalDate.now();
+		for (int i = 0; i < EXPENSES; i++) {
+			Expense expense = new Expense();
+			expense.setUser(user);
+			expense.setSource(source);
+			expense.setAmount(new BigDecimal("12.50"));
+			expense.setVendor("Vendor " + i);
+			expense.setCategory("Food");
+			expense.setDescription("Lunch with the team, receipt attached");
+			expense.setTransactionDate(today.minusDays(i % 30));
+			expenseRepository.save(expense);
+		}
+		token = jwtService.generateToken(user);
+	}
+
+	@Test
+	void expenseListingIsGzippedWithWeakEtag() {
+		ResponseEntity<byte[]> response = get(null);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		String etag = response.getHeaders().getETag();
+		assertThat(etag).startsWith("W/\"");
+
+		assertThat(get(etag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+	}
+
+	private ResponseEntity<byte[]> get(String ifNoneMatch) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setBearerAuth(token);
+		headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		if (ifNoneMatch != null) {
+			headers.setIfNoneMatch(ifNoneMatch);
+		}
+		return restTemplate.exchange("/api/expenses?dateRange=30", HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+	}
+}
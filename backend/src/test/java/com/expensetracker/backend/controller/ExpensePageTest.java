@@ -0,0 +1,113 @@
+package com.expensetracker.backend.controller;
+
+import com.expensetracker.backend.dto.ExpenseDto;
+import com.expensetracker.backend.dto.ExpensePageDto;
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.Source;
+import com.expensetracker.backend.model.SourceType;
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.repository.SourceRepository;
+import com.expensetracker.backend.repository.UserRepository;
+import com.expensetracker.backend.service.ExpenseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Most expenses share a date, so page boundaries fall between rows that only the id tells apart.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:paging;DB_CLOSE_DELAY=-1",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"recurring.scheduler.enabled=false"
+})
+@AutoConfigureMockMvc
+class ExpensePageTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private SourceRepository sourceRepository;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	private final LocalDate today = LocalDate.now();
+	private User user;
+	private final List<Integer> ids = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		user = new User();
+		user.setEmail("paging" + System.nanoTime() + "@example.com");
+		user.setPassword("hash");
+		user = userRepository.save(user);
+
+		Source source = new Source();
+		source.setUser(user);
+		source.setName("Current account");
+		source.setType(SourceType.BANK);
+		source = sourceRepository.save(source);
+
+		for (int i = 0; i < 7; i++) {
+			Expense expense = new Expense();
+			expense.setUser(user);
+			expense.setSource(source);
+			expense.setAmount(new BigDecimal("12.50"));
+			expense.setVendor("Vendor " + i);
+			expense.setCategory("Food");
+			expense.setTransactionDate(i < 5 ? today.minusDays(3) : today.minusDays(i));
+			ids.add(expenseRepository.save(expense).getId());
+		}
+	}
+
+	@Test
+	void pagesVisitEveryRowOnceAcrossEqualDates() {
+		List<ExpenseDto> paged = new ArrayList<>();
+		String cursor = null;
+		do {
+			ExpensePageDto page = expenseService.getExpensePage(user.getId(), 30, null, null, cursor, 2);
+			assertThat(page.getItems()).hasSizeLessThanOrEqualTo(2);
+			paged.addAll(page.getItems());
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+
+		assertThat(paged).extracting(ExpenseDto::getId).containsExactlyInAnyOrderElementsOf(ids);
+		assertThat(paged).isSortedAccordingTo(Comparator.comparing(ExpenseDto::getTransactionDate)
+				.thenComparing(ExpenseDto::getId).reversed());
+	}
+
+	@Test
+	void malformedCursorIsABadRequest() throws Exception {
+		for (String cursor : List.of("not-base64!", "bm8tc2VwYXJhdG9y", "MjAyNC0xMy0wMTox")) {
+			mockMvc.perform(get("/api/expenses/page").param("cursor", cursor).with(user(user)))
+					.andExpect(status().isBadRequest())
+					.andExpect(content().json("{\"message\":\"Invalid cursor\"}"));
+		}
+	}
+}
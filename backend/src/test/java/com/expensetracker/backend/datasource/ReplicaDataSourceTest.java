@@ -0,0 +1,96 @@
+package com.expensetracker.backend.datasource;
+
+import com.expensetracker.backend.cache.InMemoryCacheInvalidationBroker;
+import com.expensetracker.backend.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Routes between two embedded H2 databases, each holding a row that names it, wired the same way
+// as ReplicaRoutingConfig.
+class ReplicaDataSourceTest {
+
+	private DataSource primary;
+	private ReadYourWritesTracker tracker;
+
+	@BeforeEach
+	void setUp() {
+		primary = database("primary");
+		tracker = new ReadYourWritesTracker(Duration.ofMinutes(1), new InMemoryCacheInvalidationBroker());
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void readOnlyTransactionsUseTheReplicaAndWritesThePrimary() {
+		Routing routing = routing(new ReplicaDataSource.Replica("replica-1", database("replica")));
+
+		assertThat(routing.read(true)).isEqualTo("replica");
+		assertThat(routing.read(false)).isEqualTo("primary");
+	}
+
+	@Test
+	void userWhoJustWroteReadsFromThePrimary() {
+		Routing routing = routing(new ReplicaDataSource.Replica("replica-1", database("replica")));
+		User user = new User();
+		user.setId(7);
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(user, null, List.of()));
+
+		assertThat(routing.read(true)).isEqualTo("replica");
+		tracker.recordWrite(7);
+		assertThat(routing.read(true)).isEqualTo("primary");
+		assertThat(tracker.wroteRecently(8)).isFalse();
+	}
+
+	@Test
+	void unreachableReplicaFallsBackToThePrimary() {
+		DriverManagerDataSource down = new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/unreachable", "sa", "");
+		Routing routing = routing(new ReplicaDataSource.Replica("replica-1", down));
+
+		assertThat(routing.read(true)).isEqualTo("primary");
+		assertThat(routing.replicas().isHealthy("replica-1")).isFalse();
+	}
+
+	private record Routing(ReplicaDataSource replicas, JdbcTemplate jdbc, DataSourceTransactionManager transactionManager) {
+
+		String read(boolean readOnly) {
+			TransactionTemplate template = new TransactionTemplate(transactionManager);
+			template.setReadOnly(readOnly);
+			return template.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class));
+		}
+	}
+
+	private Routing routing(ReplicaDataSource.Replica replica) {
+		ReplicaDataSource replicas = new ReplicaDataSource(primary, List.of(replica), tracker);
+		LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+		routing.setReadOnlyDataSource(replicas);
+		return new Routing(replicas, new JdbcTemplate(routing), new DataSourceTransactionManager(routing));
+	}
+
+	private static DataSource database(String name) {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(32))");
+		jdbc.update("DELETE FROM node");
+		jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+		return dataSource;
+	}
+}
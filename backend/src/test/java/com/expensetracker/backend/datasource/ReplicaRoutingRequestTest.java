@@ -0,0 +1,132 @@
+package com.expensetracker.backend.datasource;
+
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.Source;
+import com.expensetracker.backend.model.SourceType;
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.repository.SourceRepository;
+import com.expensetracker.backend.repository.UserRepository;
+import com.expensetracker.backend.repository.VendorCount;
+import com.expensetracker.backend.search.VendorSuggestionService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// One request that reads (the user, in a read-only transaction) and then writes (the new source)
+// must send the write to the primary. The replica is an H2 copy of the primary taken before the
+// request, so a write that reached it would be visible there and missing on the primary. The same
+// stale copy stands in for a lagging replica that in-memory loads must not read from.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"datasource.replicas.enabled=true",
+		"datasource.replicas.urls=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+		"datasource.replicas.username=sa",
+		"datasource.replicas.password=",
+		"recurring.scheduler.enabled=false"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingRequestTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private HikariDataSource primaryDataSource;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private SourceRepository sourceRepository;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private VendorSuggestionService vendorSuggestionService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private JdbcTemplate primary;
+	private JdbcTemplate replica;
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		primary = new JdbcTemplate(primaryDataSource);
+		replica = new JdbcTemplate(new DriverManagerDataSource(
+				"jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1", "sa", ""));
+
+		user = new User();
+		user.setEmail("routing" + System.nanoTime() + "@example.com");
+		user.setPassword("hash");
+		user = userRepository.save(user);
+
+		// Make the replica an exact copy of the primary, schema and rows.
+		replica.execute("DROP ALL OBJECTS");
+		for (String statement : primary.queryForList("SCRIPT", String.class)) {
+			replica.execute(statement);
+		}
+	}
+
+	@Test
+	void writeAfterReadInTheSameRequestGoesToThePrimary() throws Exception {
+		mockMvc.perform(post("/api/sources")
+						.with(user(user))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"Wallet\",\"type\":\"CASH\",\"initialBalance\":100.00,\"active\":true}"))
+				.andExpect(status().isOk());
+
+		String count = "SELECT COUNT(*) FROM sources WHERE name = 'Wallet' AND user_id = " + user.getId();
+		assertThat(primary.queryForObject(count, Integer.class)).isEqualTo(1);
+		assertThat(replica.queryForObject(count, Integer.class)).isZero();
+	}
+
+	@Test
+	void readOnlyWorkUsesTheReplicaButVendorTriesAreLoadedFromThePrimary() {
+		Source source = new Source();
+		source.setUser(user);
+		source.setName("Card");
+		source.setType(SourceType.CARD);
+		source = sourceRepository.save(source);
+		Expense expense = new Expense();
+		expense.setUser(user);
+		expense.setSource(source);
+		expense.setAmount(new BigDecimal("4.20"));
+		expense.setVendor("Corner Coffee");
+		expense.setCategory("Food");
+		expense.setTransactionDate(LocalDate.now());
+		expenseRepository.save(expense);
+
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		List<VendorCount> fromReplica = readOnly.execute(status -> expenseRepository.countByVendorForUser(user.getId()));
+		assertThat(fromReplica).isEmpty();
+		assertThat(vendorSuggestionService.suggest(user.getId(), "cor", 5)).containsExactly("Corner Coffee");
+	}
+}
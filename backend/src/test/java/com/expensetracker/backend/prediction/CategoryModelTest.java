@@ -0,0 +1,57 @@
+package com.expensetracker.backend.prediction;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CategoryModelTest {
+
+	private final CategoryModel model = new CategoryModel();
+
+	@Test
+	void vendorTableMatchesNormalizedVendors() {
+		model.learn("Shell Station #12", "fuel", "Transport", 1);
+		model.learn("shell station 12", "snacks", "Transport", 1);
+
+		assertThat(model.predict("SHELL  STATION-12", null, 2, 100, 0.6))
+				.isEqualTo(new CategoryPrediction("Transport", 1.0, CategoryPrediction.Basis.VENDOR));
+		assertThat(model.predict("Shell Station #13", null, 2, 100, 0.6)).isNull();
+	}
+
+	@Test
+	void wordsAnswerOnceEnoughExpensesAreSeen() {
+		for (int i = 0; i < 10; i++) {
+			model.learn("Vendor " + i, "team lunch", "Food", 1);
+			model.learn("Airline " + i, "flight to Berlin", "Travel", 1);
+		}
+
+		CategoryPrediction prediction = model.predict("Somewhere new", "Flight to Lisbon", 1, 20, 0.6);
+		assertThat(prediction.category()).isEqualTo("Travel");
+		assertThat(prediction.basis()).isEqualTo(CategoryPrediction.Basis.TEXT);
+		assertThat(model.predict("Somewhere new", "Flight to Lisbon", 1, 21, 0.6)).isNull();
+	}
+
+	@Test
+	void unlearningTakesAnExpenseBackOut() {
+		model.learn("Corner Coffee", "latte", "Food", 1);
+		model.learn("Corner Coffee", "beans", "Groceries", 1);
+		model.learn("Corner Coffee", "beans", "Groceries", -1);
+
+		assertThat(model.size()).isEqualTo(1);
+		assertThat(model.predict("Corner Coffee", null, 1, 100, 0.6).category()).isEqualTo("Food");
+
+		model.learn("Corner Coffee", "latte", "Food", -1);
+		assertThat(model.size()).isZero();
+		assertThat(model.predict("Corner Coffee", "latte", 1, 0, 0.6)).isNull();
+	}
+
+	@Test
+	void unlearningWhatWasNeverLearnedIsIgnored() {
+		model.learn("Corner Coffee", "latte", "Food", 1);
+		model.learn("Bookshop", "novel", "Books", -1);
+		model.learn(null, null, "", 1);
+
+		assertThat(model.size()).isEqualTo(1);
+		assertThat(model.predict("Corner Coffee", null, 1, 100, 0.6).category()).isEqualTo("Food");
+	}
+}
@@ -0,0 +1,60 @@
+package com.expensetracker.backend.prediction;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongIntMapTest {
+
+	@Test
+	void countsDropToZeroAndDisappear() {
+		LongIntMap map = new LongIntMap();
+
+		assertThat(map.add(42, 2)).isEqualTo(2);
+		assertThat(map.add(42, 3)).isEqualTo(5);
+		assertThat(map.add(7, -1)).isZero();
+		assertThat(map.size()).isEqualTo(1);
+
+		assertThat(map.add(42, -5)).isZero();
+		assertThat(map.get(42)).isZero();
+		assertThat(map.size()).isZero();
+	}
+
+	// Random increments and decrements over a thousand keys, checked against a HashMap, so entries
+	// are removed from the middle of probe runs (backward shift) before and after resizes.
+	@Test
+	void removalsKeepEveryRemainingKeyReachable() {
+		Random random = new Random(7);
+		LongIntMap map = new LongIntMap();
+		Map<Long, Integer> expected = new HashMap<>();
+		List<Long> keys = new ArrayList<>();
+		for (long key = 1; key <= 500; key++) {
+			keys.add(key);
+			keys.add(random.nextLong() | 1);
+		}
+
+		for (int round = 0; round < 20; round++) {
+			for (Long key : keys) {
+				int delta = random.nextInt(5) - 2;
+				int after = map.add(key, delta);
+				int want = Math.max(0, expected.getOrDefault(key, 0) + delta);
+				if (want == 0) {
+					expected.remove(key);
+				} else {
+					expected.put(key, want);
+				}
+				assertThat(after).isEqualTo(want);
+			}
+			assertThat(map.size()).isEqualTo(expected.size());
+			for (Long key : keys) {
+				assertThat(map.get(key)).isEqualTo(expected.getOrDefault(key, 0));
+			}
+		}
+	}
+}
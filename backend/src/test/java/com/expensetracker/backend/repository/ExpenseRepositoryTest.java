@@ -0,0 +1,121 @@
+package com.expensetracker.backend.repository;
+
+import com.expensetracker.backend.dto.ExpenseDto;
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.Source;
+import com.expensetracker.backend.model.SourceType;
+import com.expensetracker.backend.model.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ExpenseRepositoryTest {
+
+	private static final int SOURCES = 3;
+	private static final int EXPENSES_PER_SOURCE = 5;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	private Statistics statistics;
+	private User user;
+	private Source firstSource;
+	private final LocalDate today = LocalDate.now();
+
+	@BeforeEach
+	void setUp() {
+		user = new User();
+		user.setEmail("listing@example.com");
+		user.setPassword("hash");
+		entityManager.persist(user);
+
+		for (int s = 0; s < SOURCES; s++) {
+			Source source = new Source();
+			source.setUser(user);
+			source.setName("Source " + s);
+			source.setType(SourceType.BANK);
+			entityManager.persist(source);
+			if (firstSource == null) {
+				firstSource = source;
+			}
+			for (int i = 0; i < EXPENSES_PER_SOURCE; i++) {
+				Expense expense = new Expense();
+				expense.setUser(user);
+				expense.setSource(source);
+				expense.setAmount(new BigDecimal("12.50"));
+				expense.setVendor("Vendor " + i);
+				expense.setCategory(i % 2 == 0 ? "Food" : "Travel");
+				expense.setTransactionDate(today.minusDays(i));
+				entityManager.persist(expense);
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		statistics = entityManager.getEntityManager().getEntityManagerFactory()
+				.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void listingByDateRangeIsOneStatementWithNoEntitiesLoaded() {
+		List<ExpenseDto> expenses = expenseRepository.findByUserIdAndTransactionDateBetween(
+				user.getId(), today.minusDays(30), today);
+
+		assertThat(expenses).hasSize(SOURCES * EXPENSES_PER_SOURCE)
+				.allSatisfy(dto -> assertThat(dto.getSourceName()).startsWith("Source "));
+		assertSingleStatementNoEntities();
+	}
+
+	@Test
+	void listingByCategoryIsOneStatementWithNoEntitiesLoaded() {
+		List<ExpenseDto> expenses = expenseRepository.findByUserIdAndCategoryAndTransactionDateBetween(
+				user.getId(), "Food", today.minusDays(30), today);
+
+		assertThat(expenses).hasSize(SOURCES * 3);
+		assertSingleStatementNoEntities();
+	}
+
+	@Test
+	void listingBySourceIsOneStatementWithNoEntitiesLoaded() {
+		List<ExpenseDto> expenses = expenseRepository.findByUserIdAndSourceIdInAndTransactionDateBetween(
+				user.getId(), List.of(firstSource.getId()), today.minusDays(30), today);
+
+		assertThat(expenses).hasSize(EXPENSES_PER_SOURCE)
+				.allSatisfy(dto -> assertThat(dto.getSourceId()).isEqualTo(firstSource.getId()));
+		assertSingleStatementNoEntities();
+	}
+
+	@Test
+	void keysetPageIsOneStatementWithNoEntitiesLoaded() {
+		List<ExpenseDto> page = expenseRepository.findPageAfter(user.getId(), today.minusDays(30), today,
+				null, true, List.of(-1), today.plusDays(1), 0, Limit.of(4));
+
+		assertThat(page).hasSize(4);
+		assertThat(page.get(0).getTransactionDate()).isEqualTo(today);
+		assertSingleStatementNoEntities();
+	}
+
+	private void assertSingleStatementNoEntities() {
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+}
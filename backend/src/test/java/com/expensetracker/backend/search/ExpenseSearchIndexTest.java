@@ -0,0 +1,86 @@
+package com.expensetracker.backend.search;
+
+import com.expensetracker.backend.service.ExpenseSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpenseSearchIndexTest {
+
+	private ExpenseSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new ExpenseSearchIndex();
+		index.load(() -> Stream.of(
+				expense(1, "Starbucks", "Food", "Latte with oat milk", LocalDate.of(2024, 1, 10)),
+				expense(2, "Shell", "Transport", "Fuel for the road trip", LocalDate.of(2024, 1, 12)),
+				expense(3, "Café Central", "Food", "Breakfast with Starbucks gift card", LocalDate.of(2024, 1, 11))));
+	}
+
+	@Test
+	void ranksVendorMatchesAboveDescriptionMatches() {
+		assertThat(ids("starbucks")).containsExactly(1, 3);
+	}
+
+	@Test
+	void requiresEveryWordAndMatchesPrefixes() {
+		assertThat(ids("food lat")).containsExactly(1);
+		assertThat(ids("food fuel")).isEmpty();
+	}
+
+	@Test
+	void toleratesTyposAndAccents() {
+		assertThat(ids("starbukcs")).containsExactly(1, 3);
+		assertThat(ids("cafe")).containsExactly(3);
+	}
+
+	@Test
+	void foldsCaseTheSameInEveryDefaultLocale() {
+		Locale defaultLocale = Locale.getDefault();
+		try {
+			// Turkish lower-cases "I" to a dotless "ı", which would never match a typed "i".
+			Locale.setDefault(Locale.forLanguageTag("tr"));
+			ExpenseSearchIndex turkish = new ExpenseSearchIndex();
+			turkish.load(() -> Stream.of(expense(4, "IKEA", "Home", "INVOICE", LocalDate.of(2024, 1, 13))));
+
+			assertThat(turkish.search("ikea invoice", 10)).extracting(ExpenseSearchIndex.Hit::expenseId).containsExactly(4);
+		} finally {
+			Locale.setDefault(defaultLocale);
+		}
+	}
+
+	@Test
+	void followsUpdatesAndDeletes() {
+		index.apply(new ExpenseSearchIndex.Change(2, expense(2, "Aral", "Transport", null, LocalDate.of(2024, 1, 12))));
+		index.apply(new ExpenseSearchIndex.Change(1, null));
+
+		assertThat(ids("shell")).isEmpty();
+		assertThat(ids("aral")).containsExactly(2);
+		assertThat(ids("starbucks")).containsExactly(3);
+	}
+
+	@Test
+	void appliesChangesQueuedBeforeTheLoad() {
+		ExpenseSearchIndex loading = new ExpenseSearchIndex();
+		loading.apply(new ExpenseSearchIndex.Change(1, null));
+		loading.load(() -> Stream.of(expense(1, "Starbucks", "Food", null, LocalDate.of(2024, 1, 10))));
+
+		assertThat(loading.search("starbucks", 10)).isEmpty();
+	}
+
+	private List<Integer> ids(String query) {
+		return index.search(query, 10).stream().map(ExpenseSearchIndex.Hit::expenseId).toList();
+	}
+
+	private static ExpenseSnapshot expense(int id, String vendor, String category, String description, LocalDate date) {
+		return new ExpenseSnapshot(id, 1, 1, BigDecimal.TEN, vendor, category, description, date);
+	}
+}
@@ -0,0 +1,108 @@
+package com.expensetracker.backend.search;
+
+import com.expensetracker.backend.cache.InFlightExpenseWrites;
+import com.expensetracker.backend.cache.InMemoryCacheInvalidationBroker;
+import com.expensetracker.backend.event.ExpenseChangedEvent;
+import com.expensetracker.backend.repository.ArchivedExpenseRepository;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.repository.VendorCount;
+import com.expensetracker.backend.service.ExpenseSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// The "database" is the vendor counts the mocked repository returns; tests move them as they
+// commit writes.
+class VendorSuggestionServiceTest {
+
+	private static final Integer USER = 7;
+
+	private final ExpenseRepository expenseRepository = mock(ExpenseRepository.class);
+	private final ArchivedExpenseRepository archivedExpenseRepository = mock(ArchivedExpenseRepository.class);
+	private final InFlightExpenseWrites inFlightWrites = new InFlightExpenseWrites();
+	private final VendorSuggestionService service = new VendorSuggestionService(expenseRepository, archivedExpenseRepository,
+			new TransactionTemplate(mock(PlatformTransactionManager.class)), new InMemoryCacheInvalidationBroker(),
+			inFlightWrites, new SimpleMeterRegistry(), 1000, Duration.ofHours(1));
+	private final Map<String, Long> committed = new HashMap<>();
+
+	@Test
+	void loadedTrieIsCachedAndMovedByCommittedWrites() {
+		committed.put("Corner Coffee", 2L);
+		when(expenseRepository.countByVendorForUser(USER)).thenAnswer(invocation -> counts());
+
+		assertThat(service.suggest(USER, "co", 10)).containsExactly("Corner Coffee");
+		commit(write("Costco"));
+		commit(write("Costco"));
+		commit(write("Costco"));
+
+		assertThat(service.suggest(USER, "co", 10)).containsExactly("Costco", "Corner Coffee");
+		verify(expenseRepository, times(1)).countByVendorForUser(USER);
+	}
+
+	@Test
+	void trieLoadedWhileAWriteIsInFlightIsUsedButNotCached() {
+		committed.put("Cozy Cafe", 3L);
+		committed.put("Costco", 1L);
+		ExpenseChangedEvent overlapping = write("Costco");
+		// The write starts while the counts are read; they may or may not contain it.
+		when(expenseRepository.countByVendorForUser(USER)).thenAnswer(invocation -> {
+			inFlightWrites.onExpenseWrite(overlapping);
+			committed.merge("Costco", 1L, Long::sum);
+			return counts();
+		}).thenAnswer(invocation -> counts());
+
+		assertThat(service.suggest(USER, "co", 10)).containsExactly("Cozy Cafe", "Costco");
+		service.onExpenseChanged(overlapping);
+
+		// Cached, the write would have been counted twice and Costco (3, ahead by name) would lead.
+		assertThat(service.suggest(USER, "co", 10)).containsExactly("Cozy Cafe", "Costco");
+		assertThat(service.suggest(USER, "co", 10)).containsExactly("Cozy Cafe", "Costco");
+		verify(expenseRepository, times(2)).countByVendorForUser(USER);
+	}
+
+	private void commit(ExpenseChangedEvent event) {
+		inFlightWrites.onExpenseWrite(event);
+		committed.merge(event.after().vendor(), 1L, Long::sum);
+		service.onExpenseChanged(event);
+	}
+
+	private static ExpenseChangedEvent write(String vendor) {
+		return new ExpenseChangedEvent(USER, null,
+				new ExpenseSnapshot(null, USER, 1, new BigDecimal("5.00"), vendor, "Food", null, LocalDate.now()));
+	}
+
+	private List<VendorCount> counts() {
+		List<VendorCount> counts = new ArrayList<>();
+		committed.forEach((vendor, count) -> counts.add(count(vendor, count)));
+		return counts;
+	}
+
+	private static VendorCount count(String vendor, long count) {
+		return new VendorCount() {
+			@Override
+			public String getVendor() {
+				return vendor;
+			}
+
+			@Override
+			public Long getCount() {
+				return count;
+			}
+		};
+	}
+}
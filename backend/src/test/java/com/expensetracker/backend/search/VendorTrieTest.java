@@ -0,0 +1,50 @@
+package com.expensetracker.backend.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VendorTrieTest {
+
+	private final VendorTrie trie = new VendorTrie();
+
+	@Test
+	void suggestsMostFrequentFirstThenByName() {
+		trie.add("Corner Coffee", 2);
+		trie.add("Costco", 5);
+		trie.add("Coop", 2);
+		trie.add("Bakery", 9);
+
+		assertThat(trie.suggest("co", 10)).containsExactly("Costco", "Coop", "Corner Coffee");
+		assertThat(trie.suggest("co", 2)).containsExactly("Costco", "Coop");
+		assertThat(trie.suggest("", 10)).containsExactly("Bakery", "Costco", "Coop", "Corner Coffee");
+	}
+
+	@Test
+	void prefixMatchingIgnoresCaseAndRepeatedSpaces() {
+		trie.add("Corner  Coffee ", 1);
+
+		assertThat(trie.suggest("CORNER   c", 10)).containsExactly("Corner Coffee");
+		assertThat(trie.suggest("corner coffee", 10)).containsExactly("Corner Coffee");
+		assertThat(trie.suggest("corner coffees", 10)).isEmpty();
+		assertThat(trie.suggest("coffee", 10)).isEmpty();
+	}
+
+	@Test
+	void vendorDisappearsWhenItsCountReachesZero() {
+		trie.add("Coop", 2);
+		trie.add("Co", 1);
+		trie.add("Coop", -1);
+		assertThat(trie.suggest("co", 10)).containsExactly("Co", "Coop");
+
+		trie.add("Coop", -1);
+		assertThat(trie.suggest("co", 10)).containsExactly("Co");
+		assertThat(trie.suggest("coo", 10)).isEmpty();
+		assertThat(trie.size()).isEqualTo(1);
+
+		trie.add("Co", -5);
+		trie.add("Unknown", -1);
+		assertThat(trie.suggest("", 10)).isEmpty();
+		assertThat(trie.size()).isZero();
+	}
+}
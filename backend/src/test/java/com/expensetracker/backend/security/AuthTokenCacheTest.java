@@ -0,0 +1,83 @@
+package com.expensetracker.backend.security;
+
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.repository.UserRepository;
+import com.expensetracker.backend.service.AccountService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:tokens;DB_CLOSE_DELAY=-1",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"recurring.scheduler.enabled=false"
+})
+class AuthTokenCacheTest {
+
+	@Autowired
+	private AuthTokenCache authTokenCache;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void entriesExpireAtTheTokensExp() throws InterruptedException {
+		User user = user();
+		// 'exp' has whole-second precision.
+		Instant exp = Instant.now().plusSeconds(2).truncatedTo(ChronoUnit.SECONDS);
+		authTokenCache.put("short-lived", claims(user, exp), user);
+		authTokenCache.put("expired", claims(user, Instant.now().minusSeconds(1)), user);
+
+		assertThat(authTokenCache.get("short-lived").expiresAt()).isEqualTo(exp);
+		assertThat(authTokenCache.get("expired")).isNull();
+
+		Thread.sleep(Duration.between(Instant.now(), exp).plusMillis(50).toMillis());
+		assertThat(authTokenCache.get("short-lived")).isNull();
+	}
+
+	@Test
+	void deletingAnAccountDropsOnlyItsTokens() {
+		User deleted = user();
+		User other = user();
+		Instant exp = Instant.now().plusSeconds(3600);
+		authTokenCache.put("deleted-1", claims(deleted, exp), deleted);
+		authTokenCache.put("deleted-2", claims(deleted, exp), deleted);
+		authTokenCache.put("other", claims(other, exp), other);
+
+		accountService.deleteAccount(deleted.getId());
+
+		assertThat(authTokenCache.get("deleted-1")).isNull();
+		assertThat(authTokenCache.get("deleted-2")).isNull();
+		assertThat(authTokenCache.get("other").principal()).isEqualTo(other);
+	}
+
+	private User user() {
+		User user = new User();
+		user.setEmail("tokens" + System.nanoTime() + "@example.com");
+		user.setPassword("hash");
+		return userRepository.save(user);
+	}
+
+	private static Claims claims(User user, Instant exp) {
+		Claims claims = Jwts.claims();
+		claims.setSubject(user.getEmail());
+		claims.setExpiration(Date.from(exp));
+		return claims;
+	}
+}
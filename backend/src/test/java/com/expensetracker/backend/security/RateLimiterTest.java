@@ -0,0 +1,53 @@
+package com.expensetracker.backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+	private final AtomicLong now = new AtomicLong(1_000_000_000L);
+	// One permit every 10 seconds, up to 3 at once.
+	private final RateLimiter limiter = new RateLimiter(6, 3, 100, now::get);
+
+	@Test
+	void grantsTheBurstThenRefusesWithTheWaitForTheNextPermit() {
+		assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+		assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+		assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+
+		assertThat(limiter.tryAcquire("10.0.0.1")).isEqualTo(TimeUnit.SECONDS.toNanos(10));
+		assertThat(limiter.tryAcquire("10.0.0.2")).isZero();
+
+		now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+		assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+		assertThat(limiter.tryAcquire("10.0.0.1")).isPositive();
+	}
+
+	@Test
+	void chargesAreCountedByWaitTimeWithoutTakingPermits() {
+		assertThat(limiter.waitTime("alice@example.com")).isZero();
+		limiter.charge("alice@example.com");
+		limiter.charge("alice@example.com");
+		limiter.charge("alice@example.com");
+		assertThat(limiter.waitTime("alice@example.com")).isEqualTo(TimeUnit.SECONDS.toNanos(10));
+		assertThat(limiter.waitTime("alice@example.com")).isEqualTo(TimeUnit.SECONDS.toNanos(10));
+
+		now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+		assertThat(limiter.waitTime("alice@example.com")).isZero();
+	}
+
+	@Test
+	void chargedKeysAreKeptUntilTheirArrivalTime() {
+		for (int i = 0; i < 10; i++) {
+			limiter.charge("bob@example.com");
+		}
+		// 100 seconds of permits charged; the burst is only 30.
+		now.addAndGet(TimeUnit.SECONDS.toNanos(50));
+		assertThat(limiter.waitTime("bob@example.com")).isEqualTo(TimeUnit.SECONDS.toNanos(30));
+		assertThat(limiter.tryAcquire("bob@example.com")).isEqualTo(TimeUnit.SECONDS.toNanos(30));
+	}
+}
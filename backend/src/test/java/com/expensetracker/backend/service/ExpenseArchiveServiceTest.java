@@ -0,0 +1,192 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.CreateExpenseRequest;
+import com.expensetracker.backend.dto.ExpenseBatchRequest;
+import com.expensetracker.backend.dto.ExpenseBatchResultDto;
+import com.expensetracker.backend.dto.ExpenseDto;
+import com.expensetracker.backend.dto.ExpensePageDto;
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.Source;
+import com.expensetracker.backend.model.SourceType;
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.repository.ArchivedExpenseRepository;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.repository.SourceRepository;
+import com.expensetracker.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Expenses dated more than 30 days ago are archived; each test uses its own user.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:archive;DB_CLOSE_DELAY=-1",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"recurring.scheduler.enabled=false",
+		"expenses.archive.horizon-days=30"
+})
+class ExpenseArchiveServiceTest {
+
+	// Ascending, so the dates are newest first.
+	private static final int[] DAYS_AGO = {1, 2, 40, 41, 60};
+
+	@Autowired
+	private ExpenseArchiveService expenseArchiveService;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private SourceRepository sourceRepository;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private ArchivedExpenseRepository archivedExpenseRepository;
+
+	private final LocalDate today = LocalDate.now();
+	private User user;
+	private Source source;
+	private final Map<Integer, Integer> idsByDaysAgo = new HashMap<>();
+
+	@BeforeEach
+	void setUp() {
+		user = new User();
+		user.setEmail("archive" + System.nanoTime() + "@example.com");
+		user.setPassword("hash");
+		user = userRepository.save(user);
+
+		source = new Source();
+		source.setUser(user);
+		source.setName("Current account");
+		source.setType(SourceType.BANK);
+		source = sourceRepository.save(source);
+
+		for (int daysAgo : DAYS_AGO) {
+			Expense expense = new Expense();
+			expense.setUser(user);
+			expense.setSource(source);
+			expense.setAmount(new BigDecimal("12.50"));
+			expense.setVendor("Vendor " + daysAgo);
+			expense.setCategory("Food");
+			expense.setTransactionDate(today.minusDays(daysAgo));
+			idsByDaysAgo.put(daysAgo, expenseRepository.save(expense).getId());
+		}
+		expenseArchiveService.archive();
+	}
+
+	@Test
+	void archiveMovesOnlyExpensesOlderThanTheHorizon() {
+		assertThat(expenseRepository.existsById(idsByDaysAgo.get(2))).isTrue();
+		assertThat(expenseRepository.existsById(idsByDaysAgo.get(40))).isFalse();
+		assertThat(archivedExpenseRepository.existsById(idsByDaysAgo.get(40))).isTrue();
+		assertThat(archivedExpenseRepository.existsById(idsByDaysAgo.get(60))).isTrue();
+	}
+
+	@Test
+	void reachesOnlyWhenTheRangeStartsOnOrBeforeTheNewestArchivedDate() {
+		assertThat(expenseArchiveService.reaches(user.getId(), today.minusDays(39))).isFalse();
+		assertThat(expenseArchiveService.reaches(user.getId(), today.minusDays(40))).isTrue();
+		assertThat(expenseArchiveService.reaches(user.getId(), today.minusDays(90))).isTrue();
+		assertThat(expenseArchiveService.reaches(-1, today.minusDays(90))).isFalse();
+	}
+
+	@Test
+	void listingsMergeBothTablesNewestFirst() {
+		assertThat(expenseService.getFilteredExpenses(user.getId(), 90, null, null))
+				.extracting(ExpenseDto::getId)
+				.containsExactlyInAnyOrderElementsOf(idsByDaysAgo.values());
+		assertThat(expenseService.getFilteredExpenses(user.getId(), 10, null, null)).hasSize(2);
+
+		List<ExpenseDto> paged = new ArrayList<>();
+		String cursor = null;
+		do {
+			ExpensePageDto page = expenseService.getExpensePage(user.getId(), 90, null, null, cursor, 2);
+			paged.addAll(page.getItems());
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		assertThat(paged).extracting(ExpenseDto::getTransactionDate)
+				.containsExactly(newestFirstDates());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		expenseService.streamFilteredExpenses(user.getId(), 90, null, null, out);
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertThat(lines).hasSize(DAYS_AGO.length);
+		for (int i = 0; i < lines.length; i++) {
+			assertThat(lines[i]).contains(today.minusDays(DAYS_AGO[i]).toString());
+		}
+	}
+
+	@Test
+	void editingAnArchivedExpenseMovesItBackFirst() {
+		Integer updated = idsByDaysAgo.get(40);
+		CreateExpenseRequest request = request("Updated vendor", today.minusDays(40));
+		ExpenseDto dto = expenseService.updateExpense(user.getId(), updated, request);
+
+		assertThat(dto.getVendor()).isEqualTo("Updated vendor");
+		assertThat(expenseRepository.existsById(updated)).isTrue();
+		assertThat(archivedExpenseRepository.existsById(updated)).isFalse();
+
+		Integer deleted = idsByDaysAgo.get(41);
+		expenseService.deleteExpense(user.getId(), deleted);
+		assertThat(expenseRepository.existsById(deleted)).isFalse();
+		assertThat(archivedExpenseRepository.existsById(deleted)).isFalse();
+
+		ExpenseBatchRequest.Operation op = new ExpenseBatchRequest.Operation();
+		op.setOp("UPDATE");
+		op.setId(idsByDaysAgo.get(60));
+		op.setExpense(request("Batched vendor", today.minusDays(60)));
+		ExpenseBatchRequest batch = new ExpenseBatchRequest();
+		batch.setOperations(List.of(op));
+		ExpenseBatchResultDto result = expenseService.applyBatch(user.getId(), batch);
+
+		assertThat(result.getSucceeded()).isEqualTo(1);
+		assertThat(expenseRepository.existsById(idsByDaysAgo.get(60))).isTrue();
+		assertThat(archivedExpenseRepository.existsById(idsByDaysAgo.get(60))).isFalse();
+	}
+
+	@Test
+	void anotherUsersArchivedExpenseIsNotRestored() {
+		Integer archived = idsByDaysAgo.get(40);
+		CreateExpenseRequest request = request("Not mine", today);
+
+		assertThatThrownBy(() -> expenseService.updateExpense(-1, archived, request))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThat(archivedExpenseRepository.existsById(archived)).isTrue();
+	}
+
+	private LocalDate[] newestFirstDates() {
+		return Arrays.stream(DAYS_AGO).mapToObj(today::minusDays).toArray(LocalDate[]::new);
+	}
+
+	private CreateExpenseRequest request(String vendor, LocalDate transactionDate) {
+		CreateExpenseRequest request = new CreateExpenseRequest();
+		request.setSourceId(source.getId());
+		request.setAmount(new BigDecimal("20.00"));
+		request.setVendor(vendor);
+		request.setCategory("Food");
+		request.setTransactionDate(transactionDate);
+		return request;
+	}
+}
@@ -0,0 +1,148 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.CreateExpenseRequest;
+import com.expensetracker.backend.dto.ExpenseBatchRequest;
+import com.expensetracker.backend.dto.ExpenseBatchResultDto;
+import com.expensetracker.backend.dto.ExpenseDto;
+import com.expensetracker.backend.model.Source;
+import com.expensetracker.backend.model.SourceType;
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.repository.SourceRepository;
+import com.expensetracker.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Each test uses its own user.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:batch;DB_CLOSE_DELAY=-1",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"recurring.scheduler.enabled=false"
+})
+class ExpenseBatchTest {
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private RollupService rollupService;
+
+	@Autowired
+	private BalanceService balanceService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private SourceRepository sourceRepository;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	private final LocalDate today = LocalDate.now();
+	private User user;
+	private Source source;
+
+	@BeforeEach
+	void setUp() {
+		user = new User();
+		user.setEmail("batch" + System.nanoTime() + "@example.com");
+		user.setPassword("hash");
+		user = userRepository.save(user);
+
+		source = new Source();
+		source.setUser(user);
+		source.setName("Current account");
+		source.setType(SourceType.BANK);
+		source = sourceRepository.save(source);
+	}
+
+	@Test
+	void badItemsFailOnTheirOwn() {
+		Integer existing = expenseService.addExpense(user.getId(), expense("10.00", "Bakery")).getId();
+		CreateExpenseRequest noVendor = expense("5.00", null);
+
+		ExpenseBatchResultDto result = apply(
+				operation("create", null, expense("20.00", "Costco")),
+				operation("UPDATE", -1, expense("1.00", "Nobody")),
+				null,
+				operation("archive", existing, null),
+				operation("CREATE", null, noVendor),
+				operation("Delete", existing, null));
+
+		assertThat(result.getSucceeded()).isEqualTo(2);
+		assertThat(result.getFailed()).isEqualTo(4);
+		assertThat(result.getResults()).extracting(ExpenseBatchResultDto.ItemResult::isSuccess)
+				.containsExactly(true, false, false, false, false, true);
+		assertThat(result.getResults()).extracting(ExpenseBatchResultDto.ItemResult::getOp)
+				.containsExactly("CREATE", "UPDATE", null, "ARCHIVE", "CREATE", "DELETE");
+		assertThat(result.getResults().get(1).getError()).isEqualTo("Expense not found or user not authorized");
+		assertThat(result.getResults().get(3).getError()).isEqualTo("Unknown op: archive");
+
+		assertThat(listedVendors()).containsExactly("Costco");
+		assertThat(balanceService.expenseTotal(sourceRepository.findById(source.getId()).orElseThrow()))
+				.isEqualByComparingTo("20.00");
+		assertThat(rollupService.check(user.getId()).mismatchedGroups()).isZero();
+	}
+
+	@Test
+	void databaseErrorRollsBackTheWholeBatch() {
+		expenseService.addExpense(user.getId(), expense("10.00", "Bakery"));
+
+		// Too large for the amount column: passes validation, fails on insert.
+		assertThatThrownBy(() -> apply(
+				operation("CREATE", null, expense("20.00", "Costco")),
+				operation("CREATE", null, expense("123456789012.00", "Overflow"))))
+				.isInstanceOf(DataAccessException.class);
+
+		assertThat(listedVendors()).containsExactly("Bakery");
+		assertThat(balanceService.expenseTotal(sourceRepository.findById(source.getId()).orElseThrow()))
+				.isEqualByComparingTo("10.00");
+		assertThat(rollupService.check(user.getId()).mismatchedGroups()).isZero();
+	}
+
+	private ExpenseBatchResultDto apply(ExpenseBatchRequest.Operation... operations) {
+		ExpenseBatchRequest request = new ExpenseBatchRequest();
+		request.setOperations(Arrays.asList(operations));
+		return expenseService.applyBatch(user.getId(), request);
+	}
+
+	private List<String> listedVendors() {
+		return expenseRepository.findByUserIdAndTransactionDateBetween(user.getId(), today.minusDays(1), today).stream()
+				.map(ExpenseDto::getVendor)
+				.toList();
+	}
+
+	private static ExpenseBatchRequest.Operation operation(String op, Integer id, CreateExpenseRequest expense) {
+		ExpenseBatchRequest.Operation operation = new ExpenseBatchRequest.Operation();
+		operation.setOp(op);
+		operation.setId(id);
+		operation.setExpense(expense);
+		return operation;
+	}
+
+	private CreateExpenseRequest expense(String amount, String vendor) {
+		CreateExpenseRequest request = new CreateExpenseRequest();
+		request.setSourceId(source.getId());
+		request.setAmount(new BigDecimal(amount));
+		request.setVendor(vendor);
+		request.setCategory("Food");
+		request.setTransactionDate(today);
+		return request;
+	}
+}
@@ -0,0 +1,48 @@
+package com.expensetracker.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+	@Test
+	void convertsExactlyAtTheBigDecimalEdges() {
+		assertThat(Money.cents(new BigDecimal("1249.99"))).isEqualTo(124999);
+		assertThat(Money.cents(new BigDecimal("5"))).isEqualTo(500);
+		assertThat(Money.cents(new BigDecimal("-0.10"))).isEqualTo(-10);
+		assertThat(Money.cents(null)).isZero();
+		assertThat(Money.toBigDecimal(124999)).isEqualTo(new BigDecimal("1249.99"));
+
+		assertThatThrownBy(() -> Money.cents(new BigDecimal("0.001"))).isInstanceOf(ArithmeticException.class);
+	}
+
+	@Test
+	void parsesStatementAmounts() {
+		assertThat(Money.parse("1,234.56")).isEqualTo(123456);
+		assertThat(Money.parse("12.3")).isEqualTo(1230);
+		assertThat(Money.parse("-7")).isEqualTo(-700);
+		assertThat(Money.parse(".5")).isEqualTo(50);
+
+		assertThat(Money.parse("1,234,567")).isEqualTo(123456700);
+
+		assertThatThrownBy(() -> Money.parse("1.234")).hasMessageContaining("more than 2 decimal places");
+		// Decimal commas and misplaced separators are rejected, never read as thousands.
+		assertThatThrownBy(() -> Money.parse("12,50")).hasMessageContaining("thousands separator");
+		assertThatThrownBy(() -> Money.parse("1,2345")).hasMessageContaining("thousands separator");
+		assertThatThrownBy(() -> Money.parse("1234,567")).hasMessageContaining("thousands separator");
+		assertThatThrownBy(() -> Money.parse(",123")).hasMessageContaining("thousands separator");
+		assertThatThrownBy(() -> Money.parse("1,,234")).hasMessageContaining("thousands separator");
+		assertThatThrownBy(() -> Money.parse("12a")).isInstanceOf(NumberFormatException.class);
+		assertThatThrownBy(() -> Money.parse("-")).isInstanceOf(NumberFormatException.class);
+		assertThatThrownBy(() -> Money.parse("99999999999999999999")).isInstanceOf(NumberFormatException.class);
+	}
+
+	@Test
+	void overflowThrowsInsteadOfWrapping() {
+		assertThatThrownBy(() -> Money.add(Long.MAX_VALUE, 1)).isInstanceOf(ArithmeticException.class);
+	}
+}
@@ -0,0 +1,53 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.model.RecurringExpense;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecurrenceRuleTest {
+
+	@Test
+	void monthlyOccurrencesClampToShortMonthsWithoutDrifting() {
+		RecurrenceRule rule = RecurrenceRule.of(template(RecurringExpense.Frequency.MONTHLY, null, LocalDate.of(2024, 1, 31), null));
+
+		assertThat(rule.first()).isEqualTo(LocalDate.of(2024, 1, 31));
+		assertThat(rule.nextAfter(LocalDate.of(2024, 1, 31))).isEqualTo(LocalDate.of(2024, 2, 29));
+		assertThat(rule.nextAfter(LocalDate.of(2024, 2, 29))).isEqualTo(LocalDate.of(2024, 3, 31));
+	}
+
+	@Test
+	void weeklyOccurrencesAreCountedFromTheStartAndStopAfterTheEnd() {
+		RecurrenceRule rule = RecurrenceRule.of(template(RecurringExpense.Frequency.WEEKLY, null,
+				LocalDate.of(2024, 5, 6), LocalDate.of(2024, 5, 20)));
+
+		assertThat(rule.nextAfter(LocalDate.of(2024, 5, 1))).isEqualTo(LocalDate.of(2024, 5, 6));
+		assertThat(rule.nextAfter(LocalDate.of(2024, 5, 8))).isEqualTo(LocalDate.of(2024, 5, 13));
+		assertThat(rule.nextAfter(LocalDate.of(2024, 5, 13))).isEqualTo(LocalDate.of(2024, 5, 20));
+		assertThat(rule.nextAfter(LocalDate.of(2024, 5, 20))).isNull();
+	}
+
+	@Test
+	void cronOccurrencesAreTheDatesItFiresOn() {
+		// Twice a day on the 1st and 15th.
+		RecurrenceRule rule = RecurrenceRule.of(template(RecurringExpense.Frequency.CRON, "0 0 9,18 1,15 * *",
+				LocalDate.of(2024, 5, 15), null));
+
+		assertThat(rule.first()).isEqualTo(LocalDate.of(2024, 5, 15));
+		assertThat(rule.nextAfter(LocalDate.of(2024, 5, 15))).isEqualTo(LocalDate.of(2024, 6, 1));
+		assertThatThrownBy(() -> RecurrenceRule.of(template(RecurringExpense.Frequency.CRON, "every day", LocalDate.of(2024, 5, 1), null)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static RecurringExpense template(RecurringExpense.Frequency frequency, String cron, LocalDate start, LocalDate end) {
+		RecurringExpense template = new RecurringExpense();
+		template.setFrequency(frequency);
+		template.setCronExpression(cron);
+		template.setStartDate(start);
+		template.setEndDate(end);
+		return template;
+	}
+}
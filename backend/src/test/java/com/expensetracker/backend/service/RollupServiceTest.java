@@ -0,0 +1,125 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.AnalyticsEntryDto;
+import com.expensetracker.backend.dto.CreateExpenseRequest;
+import com.expensetracker.backend.model.Source;
+import com.expensetracker.backend.model.SourceType;
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.repository.SourceRepository;
+import com.expensetracker.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs on H2, so rollups are written by update-then-insert. Each test uses its own user.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:rollups;DB_CLOSE_DELAY=-1",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"recurring.scheduler.enabled=false"
+})
+class RollupServiceTest {
+
+	@Autowired
+	private RollupService rollupService;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private AnalyticsService analyticsService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private SourceRepository sourceRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final LocalDate today = LocalDate.now();
+	private User user;
+	private Source source;
+
+	@BeforeEach
+	void setUp() {
+		user = new User();
+		user.setEmail("rollups" + System.nanoTime() + "@example.com");
+		user.setPassword("hash");
+		user = userRepository.save(user);
+
+		source = new Source();
+		source.setUser(user);
+		source.setName("Current account");
+		source.setType(SourceType.BANK);
+		source = sourceRepository.save(source);
+
+		addExpense("12.50", "Food", today);
+		addExpense("7.25", "Food", today);
+		addExpense("30.00", "Travel", today.minusDays(1));
+	}
+
+	@Test
+	void writesKeepRollupsInStepWithExpenses() {
+		assertThat(rollupService.check(user.getId())).isEqualTo(new RollupService.CheckResult(2, 0));
+		assertThat(categories()).containsExactlyInAnyOrder(
+				new AnalyticsEntryDto("Food", "Food", new BigDecimal("19.75"), 2),
+				new AnalyticsEntryDto("Travel", "Travel", new BigDecimal("30.00"), 1));
+	}
+
+	@Test
+	void applyMergesChangesPerKeyAndCheckFindsDrift() {
+		RollupService.Key food = new RollupService.Key(user.getId(), today, source.getId(), "Food");
+		RollupService.Key other = new RollupService.Key(user.getId(), today, source.getId(), "Other");
+		transactionTemplate.executeWithoutResult(status -> rollupService.apply(new RollupService.Changes()
+				.add(food, 100, 1)
+				.add(food, -100, -1)
+				.add(other, 500, 1)));
+
+		// The Food deltas cancel out; the Other row matches no expense.
+		assertThat(rollupService.check(user.getId())).isEqualTo(new RollupService.CheckResult(2, 1));
+	}
+
+	@Test
+	void rebuildRepairsDriftAndRefreshesOnlyCachedAnalytics() {
+		List<AnalyticsEntryDto> before = categories();
+		Long dataVersion = userRepository.findDataVersion(user.getId());
+		RollupService.Key food = new RollupService.Key(user.getId(), today, source.getId(), "Food");
+		transactionTemplate.executeWithoutResult(status ->
+				rollupService.apply(new RollupService.Changes().add(food, 999, 3)));
+		assertThat(rollupService.check(user.getId()).mismatchedGroups()).isEqualTo(1);
+
+		assertThat(rollupService.rebuild(user.getId())).isEqualTo(2);
+
+		assertThat(rollupService.check(user.getId())).isEqualTo(new RollupService.CheckResult(2, 0));
+		assertThat(categories()).isEqualTo(before).isNotSameAs(before);
+		// The expenses did not change, so neither does the version behind their ETags.
+		assertThat(userRepository.findDataVersion(user.getId())).isEqualTo(dataVersion);
+	}
+
+	private List<AnalyticsEntryDto> categories() {
+		return analyticsService.categoryBreakdown(user.getId(), today.minusDays(30), today);
+	}
+
+	private void addExpense(String amount, String category, LocalDate transactionDate) {
+		CreateExpenseRequest request = new CreateExpenseRequest();
+		request.setSourceId(source.getId());
+		request.setAmount(new BigDecimal(amount));
+		request.setVendor("Vendor");
+		request.setCategory(category);
+		request.setTransactionDate(transactionDate);
+		expenseService.addExpense(user.getId(), request);
+	}
+}
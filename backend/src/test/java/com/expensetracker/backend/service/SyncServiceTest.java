@@ -0,0 +1,184 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.ExpenseDto;
+import com.expensetracker.backend.dto.SyncResponseDto;
+import com.expensetracker.backend.model.ChangeLogEntry;
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.Source;
+import com.expensetracker.backend.model.SourceType;
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.repository.ArchivedExpenseRepository;
+import com.expensetracker.backend.repository.ChangeLogRepository;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.repository.SourceRepository;
+import com.expensetracker.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Change log entries are written directly with chosen timestamps: "settled" ones an hour old,
+// "unsettled" ones younger than the 10s settle time. Each test uses its own user.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:sync;DB_CLOSE_DELAY=-1",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"recurring.scheduler.enabled=false",
+		"sync.change-log.settle=10s",
+		"sync.change-log.retention-days=90"
+})
+class SyncServiceTest {
+
+	@Autowired
+	private SyncService syncService;
+
+	@Autowired
+	private ChangeLogRepository changeLogRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private SourceRepository sourceRepository;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private ArchivedExpenseRepository archivedExpenseRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final LocalDateTime settled = LocalDateTime.now().minusHours(1);
+	private User user;
+	private Source source;
+	private String start;
+
+	@BeforeEach
+	void setUp() {
+		user = new User();
+		user.setEmail("sync" + System.nanoTime() + "@example.com");
+		user.setPassword("hash");
+		user = userRepository.save(user);
+
+		source = new Source();
+		source.setUser(user);
+		source.setName("Current account");
+		source.setType(SourceType.BANK);
+		source = sourceRepository.save(source);
+
+		start = new SyncToken(0, settled.minusHours(1)).encode();
+	}
+
+	@Test
+	void missingOrExpiredTokenRequiresAResetThatStopsBeforeUnsettledEntries() {
+		ChangeLogEntry first = log(expense(), ChangeLogEntry.Operation.UPSERT, settled);
+		log(expense(), ChangeLogEntry.Operation.UPSERT, LocalDateTime.now());
+
+		SyncResponseDto reset = syncService.sync(user.getId(), null, 10);
+		assertThat(reset.isResetRequired()).isTrue();
+		assertThat(SyncToken.decode(reset.getNextToken()).sequence()).isEqualTo(first.getId());
+
+		String expired = new SyncToken(first.getId(), LocalDateTime.now().minusDays(91)).encode();
+		assertThat(syncService.sync(user.getId(), expired, 10).isResetRequired()).isTrue();
+	}
+
+	@Test
+	void pagesUntilNothingIsLeft() {
+		Integer first = expense();
+		Integer second = expense();
+		Integer third = expense();
+		log(first, ChangeLogEntry.Operation.UPSERT, settled);
+		log(second, ChangeLogEntry.Operation.UPSERT, settled);
+		log(third, ChangeLogEntry.Operation.UPSERT, settled);
+
+		SyncResponseDto page = syncService.sync(user.getId(), start, 2);
+		assertThat(page.getExpenses()).extracting(ExpenseDto::getId).containsExactlyInAnyOrder(first, second);
+		assertThat(page.isHasMore()).isTrue();
+
+		page = syncService.sync(user.getId(), page.getNextToken(), 2);
+		assertThat(page.getExpenses()).extracting(ExpenseDto::getId).containsExactly(third);
+		assertThat(page.isHasMore()).isFalse();
+
+		page = syncService.sync(user.getId(), page.getNextToken(), 2);
+		assertThat(page.getExpenses()).isEmpty();
+		assertThat(page.isHasMore()).isFalse();
+	}
+
+	@Test
+	void pageStopsAtTheFirstUnsettledEntry() {
+		Integer first = expense();
+		ChangeLogEntry settledEntry = log(first, ChangeLogEntry.Operation.UPSERT, settled);
+		log(expense(), ChangeLogEntry.Operation.UPSERT, LocalDateTime.now());
+		// Older than the entry before it: an entry with a lower id that committed late.
+		log(expense(), ChangeLogEntry.Operation.UPSERT, settled);
+
+		SyncResponseDto page = syncService.sync(user.getId(), start, 10);
+
+		assertThat(page.getExpenses()).extracting(ExpenseDto::getId).containsExactly(first);
+		assertThat(page.isHasMore()).isFalse();
+		assertThat(SyncToken.decode(page.getNextToken()).sequence()).isEqualTo(settledEntry.getId());
+	}
+
+	@Test
+	void upsertFollowedByDeleteIsSentAsATombstoneOnly() {
+		Integer kept = expense();
+		Integer deleted = expense();
+		log(kept, ChangeLogEntry.Operation.UPSERT, settled);
+		log(deleted, ChangeLogEntry.Operation.UPSERT, settled);
+		log(deleted, ChangeLogEntry.Operation.DELETE, settled);
+		expenseRepository.deleteById(deleted);
+
+		SyncResponseDto page = syncService.sync(user.getId(), start, 10);
+
+		assertThat(page.getExpenses()).extracting(ExpenseDto::getId).containsExactly(kept);
+		assertThat(page.getDeletedExpenseIds()).containsExactly(deleted);
+	}
+
+	@Test
+	void archivedExpensesAreSentToo() {
+		Integer archived = expense();
+		transactionTemplate.executeWithoutResult(status -> {
+			archivedExpenseRepository.copyFromExpenses(List.of(archived), LocalDate.now());
+			expenseRepository.deleteArchived(List.of(archived), LocalDate.now());
+		});
+		log(archived, ChangeLogEntry.Operation.UPSERT, settled);
+
+		SyncResponseDto page = syncService.sync(user.getId(), start, 10);
+
+		assertThat(page.getExpenses()).extracting(ExpenseDto::getId).containsExactly(archived);
+	}
+
+	private Integer expense() {
+		Expense expense = new Expense();
+		expense.setUser(user);
+		expense.setSource(source);
+		expense.setAmount(new BigDecimal("12.50"));
+		expense.setVendor("Vendor");
+		expense.setCategory("Food");
+		expense.setTransactionDate(LocalDate.now().minusDays(400));
+		return expenseRepository.save(expense).getId();
+	}
+
+	private ChangeLogEntry log(Integer expenseId, ChangeLogEntry.Operation operation, LocalDateTime changedAt) {
+		ChangeLogEntry entry = new ChangeLogEntry();
+		entry.setUserId(user.getId());
+		entry.setEntityType(ChangeLogEntry.EntityType.EXPENSE);
+		entry.setEntityId(expenseId);
+		entry.setOperation(operation);
+		entry.setChangedAt(changedAt);
+		return changeLogRepository.save(entry);
+	}
+}
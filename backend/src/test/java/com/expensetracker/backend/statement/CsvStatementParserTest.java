@@ -0,0 +1,68 @@
+package com.expensetracker.backend.statement;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvStatementParserTest {
+
+	private final List<StatementRow> rows = new ArrayList<>();
+	private final List<String> errors = new ArrayList<>();
+
+	@Test
+	void matchesColumnsByAliasInAnyOrder() throws IOException {
+		parse("Memo,Payee,Amount,Transaction Date\n"
+				+ "weekly shop,Tesco,42.10,2024-03-01\n");
+
+		assertThat(rows).containsExactly(new StatementRow(2, "2024-03-01", "42.10", "Tesco", null, "weekly shop"));
+		assertThat(errors).isEmpty();
+	}
+
+	@Test
+	void readsQuotedFieldsWithCommasQuotesAndLineBreaks() throws IOException {
+		parse("date,amount,vendor,description\n"
+				+ "2024-03-01,\"1,234.50\",\"Smith \"\"Bros\"\"\",\"two\nlines\"\n"
+				+ "2024-03-02,5,Cafe,\n");
+
+		assertThat(rows).containsExactly(
+				new StatementRow(2, "2024-03-01", "1,234.50", "Smith \"Bros\"", null, "two\nlines"),
+				new StatementRow(4, "2024-03-02", "5", "Cafe", null, null));
+	}
+
+	@Test
+	void passesShortAndBlankRecordsThroughForValidation() throws IOException {
+		parse("date,amount,vendor\n"
+				+ "\n"
+				+ "2024-03-01\n");
+
+		// Missing values are left for the importer to reject, with the record's line number.
+		assertThat(rows).containsExactly(new StatementRow(3, "2024-03-01", null, null, null, null));
+	}
+
+	@Test
+	void rejectsHeaderWithoutDateAndAmount() throws IOException {
+		parse("vendor,category\nTesco,Food\n");
+
+		assertThat(rows).isEmpty();
+		assertThat(errors).containsExactly("1: Header must contain at least 'date' and 'amount' columns");
+	}
+
+	private void parse(String csv) throws IOException {
+		new CsvStatementParser().parse(new StringReader(csv), new StatementParser.Handler() {
+			@Override
+			public void row(StatementRow row) {
+				rows.add(row);
+			}
+
+			@Override
+			public void error(long line, String message) {
+				errors.add(line + ": " + message);
+			}
+		});
+	}
+}
@@ -0,0 +1,73 @@
+package com.expensetracker.backend.statement;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfxStatementParserTest {
+
+	private final List<StatementRow> rows = new ArrayList<>();
+	private final List<Long> skipped = new ArrayList<>();
+
+	@Test
+	void turnsDebitsIntoPositiveExpensesAndSkipsCredits() throws IOException {
+		// OFX 1.x SGML: leaf elements have no closing tags.
+		parse("OFXHEADER:100\n<OFX><BANKTRANLIST>\n"
+				+ "<STMTTRN><TRNTYPE>DEBIT<DTPOSTED>20240301120000<TRNAMT>-42.10<NAME>Tesco<MEMO>weekly shop</STMTTRN>\n"
+				+ "<STMTTRN><TRNTYPE>CREDIT<DTPOSTED>20240302<TRNAMT>1500.00<NAME>Salary</STMTTRN>\n"
+				+ "<STMTTRN><TRNTYPE>DEBIT<DTPOSTED>20240303<TRNAMT>-5<PAYEE>Cafe</STMTTRN>\n"
+				+ "</BANKTRANLIST></OFX>");
+
+		assertThat(rows).containsExactly(
+				new StatementRow(1, "2024-03-01", "42.10", "Tesco", null, "weekly shop"),
+				new StatementRow(3, "2024-03-03", "5", "Cafe", null, null));
+		assertThat(skipped).containsExactly(2L);
+	}
+
+	@Test
+	void readsXmlStatements() throws IOException {
+		parse("<?xml version=\"1.0\"?><OFX><STMTTRN>\n"
+				+ "  <dtposted>20240301</dtposted>\n  <trnamt>-9.99</trnamt>\n  <name>Netflix</name>\n"
+				+ "</STMTTRN></OFX>");
+
+		assertThat(rows).containsExactly(new StatementRow(1, "2024-03-01", "9.99", "Netflix", null, null));
+	}
+
+	@Test
+	void leavesMalformedTransactionsForValidation() throws IOException {
+		parse("<OFX><STMTTRN><DTPOSTED>2024<TRNAMT>-abc</STMTTRN>"
+				+ "<STMTTRN><NAME>No amount</STMTTRN>"
+				+ "<STMTTRN><TRNAMT>-1.00<NAME>Truncated");
+
+		// Bad dates and amounts reach the importer as-is; a transaction cut off by the end of the
+		// file is dropped.
+		assertThat(rows).containsExactly(
+				new StatementRow(1, "2024", "abc", null, null, null),
+				new StatementRow(2, null, null, "No amount", null, null));
+		assertThat(skipped).isEmpty();
+	}
+
+	private void parse(String ofx) throws IOException {
+		new OfxStatementParser().parse(new StringReader(ofx), new StatementParser.Handler() {
+			@Override
+			public void row(StatementRow row) {
+				rows.add(row);
+			}
+
+			@Override
+			public void error(long line, String message) {
+				throw new AssertionError(message);
+			}
+
+			@Override
+			public void skipped(long line) {
+				skipped.add(line);
+			}
+		});
+	}
+}